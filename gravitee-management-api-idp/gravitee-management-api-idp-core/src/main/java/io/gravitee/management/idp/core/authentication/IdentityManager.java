@@ -19,6 +19,7 @@ import io.gravitee.management.idp.api.identity.SearchableUser;
 import io.gravitee.management.idp.api.identity.User;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -30,4 +31,10 @@ public interface IdentityManager {
     Optional<User> lookup(String reference);
 
     Collection<SearchableUser> search(String query);
+
+    /**
+     * @return the users found for each of the given queries, keyed by query.
+     * @throws IdentitySearchException when some identity lookups did not answer, even once searched again.
+     */
+    Map<String, Collection<SearchableUser>> search(Collection<String> queries);
 }
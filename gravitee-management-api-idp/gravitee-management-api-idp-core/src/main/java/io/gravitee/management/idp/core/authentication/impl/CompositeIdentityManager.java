@@ -20,29 +20,71 @@ import io.gravitee.management.idp.api.identity.IdentityReference;
 import io.gravitee.management.idp.api.identity.SearchableUser;
 import io.gravitee.management.idp.api.identity.User;
 import io.gravitee.management.idp.core.authentication.IdentityManager;
+import io.gravitee.management.idp.core.authentication.IdentitySearchException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
 /**
+ * Searches are run concurrently on all the identity lookups, each of them being given a limited time to answer once
+ * it has started, and their results are cached for a short period. A single search returns what the lookups which
+ * answered have found, whereas a batch search is run again for the queries with missing answers, then fails rather
+ * than returning incomplete results.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class CompositeIdentityManager implements IdentityManager {
+public class CompositeIdentityManager implements IdentityManager, InitializingBean, DisposableBean {
 
     private final Logger LOGGER = LoggerFactory.getLogger(CompositeIdentityManager.class);
 
     @Autowired
     private ReferenceSerializer referenceSerializer;
 
-    private Collection<IdentityLookup> identityLookups = new ArrayList<>();
+    @Value("${identity.search.workers:10}")
+    private int workers;
+
+    @Value("${identity.search.timeout:2000}")
+    private long searchTimeout;
+
+    @Value("${identity.search.cache.ttl:10000}")
+    private long cacheTtl;
+
+    @Value("${identity.search.cache.size:1000}")
+    private int cacheSize;
+
+    private Collection<IdentityLookup> identityLookups = new CopyOnWriteArrayList<>();
+
+    private final Map<String, CachedSearch> searches = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        final AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            final Thread thread = new Thread(runnable, "identity-lookup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
 
     @Override
     public Optional<User> lookup(final String reference) {
@@ -67,26 +109,167 @@ public class CompositeIdentityManager implements IdentityManager {
 
     @Override
     public Collection<SearchableUser> search(String query) {
-        Set<SearchableUser> users = new HashSet<>();
-        for (IdentityLookup identityLookup : identityLookups) {
-            Collection<User> lookupUsers = identityLookup.search(query);
-            if (lookupUsers != null) {
-                users.addAll(lookupUsers
-                        .stream()
-                        .map((Function<User, SearchableUser>) DefaultSearchableUser::new)
-                        .collect(Collectors.toSet()));
+        final CachedSearch cachedSearch = searches.get(query);
+        if (cachedSearch != null && cachedSearch.expireAt > System.currentTimeMillis()) {
+            return cachedSearch.users;
+        }
+        return searchLookups(Collections.singleton(query), new HashSet<>()).get(query);
+    }
+
+    @Override
+    public Map<String, Collection<SearchableUser>> search(Collection<String> queries) {
+        final Map<String, Collection<SearchableUser>> users = new HashMap<>(queries.size());
+        final Set<String> missingQueries = new LinkedHashSet<>();
+        final long now = System.currentTimeMillis();
+        for (String query : queries) {
+            final CachedSearch cachedSearch = searches.get(query);
+            if (cachedSearch != null && cachedSearch.expireAt > now) {
+                users.put(query, cachedSearch.users);
+            } else {
+                missingQueries.add(query);
             }
         }
 
+        if (!missingQueries.isEmpty()) {
+            final Set<String> incompleteQueries = new LinkedHashSet<>();
+            users.putAll(searchLookups(missingQueries, incompleteQueries));
+            if (!incompleteQueries.isEmpty()) {
+                LOGGER.warn("Searching again {} queries which have not been answered by all the identity lookups",
+                        incompleteQueries.size());
+                final Set<String> stillIncompleteQueries = new LinkedHashSet<>();
+                users.putAll(searchLookups(incompleteQueries, stillIncompleteQueries));
+                if (!stillIncompleteQueries.isEmpty()) {
+                    throw new IdentitySearchException("Identity lookups did not answer the searches " + stillIncompleteQueries);
+                }
+            }
+        }
         return users;
     }
 
+    /**
+     * @param incompleteQueries filled with the queries which have not been answered by all the lookups, their results
+     *                          are incomplete and not cached.
+     */
+    private Map<String, Collection<SearchableUser>> searchLookups(Set<String> queries, Set<String> incompleteQueries) {
+        // One task per lookup and query, run by the workers as soon as one of them is available
+        final Map<String, List<LookupSearch>> lookupSearches = new LinkedHashMap<>(queries.size());
+        for (String query : queries) {
+            final List<LookupSearch> queryLookupSearches = new ArrayList<>(identityLookups.size());
+            for (IdentityLookup identityLookup : identityLookups) {
+                final LookupSearch lookupSearch = new LookupSearch();
+                lookupSearch.future = submit(() -> {
+                    lookupSearch.startedAt = System.currentTimeMillis();
+                    return identityLookup.search(query);
+                });
+                queryLookupSearches.add(lookupSearch);
+            }
+            lookupSearches.put(query, queryLookupSearches);
+        }
+
+        // Each task is given searchTimeout once started, but a task still queued after every task before it has
+        // timed out will never start in time
+        final int tasks = queries.size() * identityLookups.size();
+        final long queueDeadline = System.currentTimeMillis()
+                + searchTimeout * (1 + (executor == null ? 0 : (tasks - 1) / Math.max(1, workers)));
+        final Map<String, Collection<SearchableUser>> users = new HashMap<>(queries.size());
+        lookupSearches.forEach((query, queryLookupSearches) -> {
+            final Set<SearchableUser> queryUsers = new LinkedHashSet<>();
+            boolean complete = true;
+            for (LookupSearch lookupSearch : queryLookupSearches) {
+                try {
+                    final Collection<User> lookupUsers = lookupSearch.await(queueDeadline);
+                    if (lookupUsers != null) {
+                        lookupUsers.forEach(user -> queryUsers.add(new DefaultSearchableUser(user)));
+                    }
+                } catch (TimeoutException te) {
+                    LOGGER.warn("An identity lookup did not answer to the search [{}] in {} ms", query, searchTimeout);
+                    lookupSearch.future.cancel(true);
+                    complete = false;
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    lookupSearch.future.cancel(true);
+                    complete = false;
+                } catch (ExecutionException ee) {
+                    LOGGER.error("An identity lookup failed to search [{}]", query, ee.getCause());
+                    complete = false;
+                }
+            }
+
+            final Collection<SearchableUser> unmodifiableUsers = Collections.unmodifiableCollection(queryUsers);
+            users.put(query, unmodifiableUsers);
+            if (complete) {
+                cache(query, unmodifiableUsers);
+            } else {
+                incompleteQueries.add(query);
+            }
+        });
+        return users;
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        if (executor == null) {
+            // Not started by the container: run the task on the caller thread
+            final FutureTask<T> future = new FutureTask<>(task);
+            future.run();
+            return future;
+        }
+        return executor.submit(task);
+    }
+
+    private void cache(String query, Collection<SearchableUser> users) {
+        if (cacheTtl <= 0) {
+            return;
+        }
+        if (searches.size() >= cacheSize) {
+            final long now = System.currentTimeMillis();
+            searches.values().removeIf(cachedSearch -> cachedSearch.expireAt <= now);
+            if (searches.size() >= cacheSize) {
+                searches.clear();
+            }
+        }
+        searches.put(query, new CachedSearch(users, System.currentTimeMillis() + cacheTtl));
+    }
+
     public void addIdentityLookup(IdentityLookup identityLookup) {
         if (identityLookup != null) {
             identityLookups.add(identityLookup);
         }
     }
 
+    private final class LookupSearch {
+        private Future<Collection<User>> future;
+        private volatile long startedAt;
+
+        /**
+         * Wait for the search to start, until the queue deadline, then for searchTimeout from its start.
+         */
+        private Collection<User> await(long queueDeadline) throws InterruptedException, ExecutionException, TimeoutException {
+            while (true) {
+                final long now = System.currentTimeMillis();
+                final long started = startedAt;
+                final long deadline = started == 0 ? Math.min(queueDeadline, now + searchTimeout) : started + searchTimeout;
+                if (now >= deadline && !future.isDone()) {
+                    throw new TimeoutException();
+                }
+                try {
+                    return future.get(Math.max(0, deadline - now), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException te) {
+                    // the search may have started in the meantime
+                }
+            }
+        }
+    }
+
+    private static final class CachedSearch {
+        private final Collection<SearchableUser> users;
+        private final long expireAt;
+
+        private CachedSearch(Collection<SearchableUser> users, long expireAt) {
+            this.users = users;
+            this.expireAt = expireAt;
+        }
+    }
+
     private class DefaultSearchableUser implements SearchableUser {
         private final User user;
 
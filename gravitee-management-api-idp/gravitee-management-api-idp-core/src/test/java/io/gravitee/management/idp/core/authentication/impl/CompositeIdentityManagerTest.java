@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.idp.core.authentication.impl;
+
+import io.gravitee.management.idp.api.identity.IdentityLookup;
+import io.gravitee.management.idp.api.identity.IdentityReference;
+import io.gravitee.management.idp.api.identity.SearchableUser;
+import io.gravitee.management.idp.api.identity.User;
+import io.gravitee.management.idp.core.authentication.IdentitySearchException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class CompositeIdentityManagerTest {
+
+    private static final int WORKERS = 2;
+    private static final long SEARCH_TIMEOUT = 500;
+
+    private CompositeIdentityManager identityManager;
+
+    @Before
+    public void init() {
+        identityManager = new CompositeIdentityManager();
+        ReflectionTestUtils.setField(identityManager, "workers", WORKERS);
+        ReflectionTestUtils.setField(identityManager, "searchTimeout", SEARCH_TIMEOUT);
+        ReflectionTestUtils.setField(identityManager, "cacheTtl", 10_000L);
+        ReflectionTestUtils.setField(identityManager, "cacheSize", 100);
+        identityManager.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        identityManager.destroy();
+    }
+
+    @Test
+    public void shouldAnswerMoreQueriesThanWorkers() {
+        // Three waves of searches, which take longer than the timeout of a single search
+        identityManager.addIdentityLookup(new SlowLookup(200, Collections.emptySet()));
+        final Set<String> queries = IntStream.range(0, WORKERS * 3)
+                .mapToObj(i -> "user" + i)
+                .collect(Collectors.toSet());
+
+        final Map<String, Collection<SearchableUser>> users = identityManager.search(queries);
+
+        assertEquals(queries, users.keySet());
+        users.forEach((query, queryUsers) -> {
+            assertEquals(1, queryUsers.size());
+            assertEquals(query, queryUsers.iterator().next().getId());
+        });
+    }
+
+    @Test(expected = IdentitySearchException.class)
+    public void shouldFailBatchSearchWhenLookupDoesNotAnswer() {
+        identityManager.addIdentityLookup(new SlowLookup(0, Collections.emptySet()));
+        identityManager.addIdentityLookup(new SlowLookup(0, Collections.singleton("hanging")));
+
+        identityManager.search(Arrays.asList("user", "hanging"));
+    }
+
+    @Test
+    public void shouldReturnPartialResultsOfSingleSearch() {
+        identityManager.addIdentityLookup(new SlowLookup(0, Collections.emptySet()));
+        identityManager.addIdentityLookup(new SlowLookup(0, Collections.singleton("hanging")));
+
+        final Collection<SearchableUser> users = identityManager.search("hanging");
+
+        assertEquals(1, users.size());
+    }
+
+    @Test
+    public void shouldSearchWithoutWorkers() {
+        identityManager.destroy();
+        identityManager = new CompositeIdentityManager();
+        identityManager.addIdentityLookup(new SlowLookup(0, Collections.emptySet()));
+
+        final Map<String, Collection<SearchableUser>> users = identityManager.search(Arrays.asList("user1", "user2"));
+
+        assertEquals(2, users.size());
+        assertTrue(users.values().stream().allMatch(queryUsers -> queryUsers.size() == 1));
+    }
+
+    private static class SlowLookup implements IdentityLookup {
+        private final long delay;
+        private final Set<String> hangingQueries;
+
+        private SlowLookup(long delay, Set<String> hangingQueries) {
+            this.delay = delay;
+            this.hangingQueries = hangingQueries;
+        }
+
+        @Override
+        public boolean canHandle(IdentityReference identityReference) {
+            return false;
+        }
+
+        @Override
+        public User retrieve(IdentityReference identityReference) {
+            return null;
+        }
+
+        @Override
+        public Collection<User> search(String query) {
+            try {
+                Thread.sleep(hangingQueries.contains(query) ? 60_000 : delay);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            return Collections.singleton(new TestUser(query));
+        }
+    }
+
+    private static class TestUser implements User {
+        private final String id;
+
+        private TestUser(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return id;
+        }
+
+        @Override
+        public String getFirstname() {
+            return null;
+        }
+
+        @Override
+        public String getLastname() {
+            return null;
+        }
+
+        @Override
+        public String getEmail() {
+            return null;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return id;
+        }
+
+        @Override
+        public String getSource() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.idp.ldap;
+
+import org.springframework.core.env.Environment;
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.ldap.pool2.factory.PoolConfig;
+import org.springframework.ldap.pool2.factory.PoolingContextSource;
+import org.springframework.ldap.pool2.validation.DefaultDirContextValidator;
+
+/**
+ * Wrap the read-only / read-write (manager) contexts of an LDAP context source into a bounded pool of validated
+ * connections. User binds are not pooled and must still go through the target context source.
+ *
+ * @author GraviteeSource Team
+ */
+public final class PooledContextSourceFactory {
+
+    private PooledContextSourceFactory() {
+    }
+
+    public static boolean isPoolEnabled(Environment environment) {
+        return environment.getProperty("context-source-pool-enabled", boolean.class, true);
+    }
+
+    public static PoolingContextSource create(ContextSource target, Environment environment) {
+        PoolConfig poolConfig = new PoolConfig();
+        poolConfig.setMaxTotalPerKey(environment.getProperty("context-source-pool-max-total", int.class, 8));
+        poolConfig.setMaxIdlePerKey(environment.getProperty("context-source-pool-max-idle", int.class, 8));
+        poolConfig.setMinIdlePerKey(environment.getProperty("context-source-pool-min-idle", int.class, 0));
+        poolConfig.setMaxWaitMillis(environment.getProperty("context-source-pool-max-wait", long.class, 5000L));
+        poolConfig.setTestOnBorrow(environment.getProperty("context-source-pool-test-on-borrow", boolean.class, true));
+        poolConfig.setTestWhileIdle(environment.getProperty("context-source-pool-test-while-idle", boolean.class, true));
+        poolConfig.setTimeBetweenEvictionRunsMillis(
+                environment.getProperty("context-source-pool-eviction-interval", long.class, 60000L));
+        poolConfig.setMinEvictableIdleTimeMillis(
+                environment.getProperty("context-source-pool-idle-timeout", long.class, 300000L));
+
+        PoolingContextSource poolingContextSource = new PoolingContextSource(poolConfig);
+        poolingContextSource.setContextSource(target);
+        poolingContextSource.setDirContextValidator(new DefaultDirContextValidator());
+        return poolingContextSource;
+    }
+}
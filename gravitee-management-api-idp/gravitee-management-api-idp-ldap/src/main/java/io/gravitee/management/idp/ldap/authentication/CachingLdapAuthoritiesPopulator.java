@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.idp.ldap.authentication;
+
+import org.springframework.ldap.core.DirContextOperations;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.ldap.userdetails.LdapAuthoritiesPopulator;
+
+import java.util.*;
+
+/**
+ * Keep the authorities resolved for a user DN for a while so that successive logins of the same user do not
+ * run the group search again.
+ *
+ * @author GraviteeSource Team
+ */
+public class CachingLdapAuthoritiesPopulator implements LdapAuthoritiesPopulator {
+
+    private final LdapAuthoritiesPopulator delegate;
+    private final long ttl;
+    private final Map<String, CachedAuthorities> cache;
+
+    public CachingLdapAuthoritiesPopulator(LdapAuthoritiesPopulator delegate, long ttl, final int maxSize) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CachedAuthorities>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAuthorities> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getGrantedAuthorities(DirContextOperations userData, String username) {
+        if (ttl <= 0) {
+            return delegate.getGrantedAuthorities(userData, username);
+        }
+
+        final String userDn = userData.getNameInNamespace();
+        final long now = System.currentTimeMillis();
+        final CachedAuthorities cached = cache.get(userDn);
+        if (cached != null && cached.expireAt > now) {
+            return cached.authorities;
+        }
+
+        final Collection<? extends GrantedAuthority> authorities = Collections.unmodifiableList(
+                new ArrayList<>(delegate.getGrantedAuthorities(userData, username)));
+        cache.put(userDn, new CachedAuthorities(authorities, now + ttl));
+        return authorities;
+    }
+
+    private static class CachedAuthorities {
+        private final Collection<? extends GrantedAuthority> authorities;
+        private final long expireAt;
+
+        private CachedAuthorities(Collection<? extends GrantedAuthority> authorities, long expireAt) {
+            this.authorities = authorities;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -16,14 +16,17 @@
 package io.gravitee.management.idp.ldap.authentication;
 
 import io.gravitee.management.idp.api.authentication.AuthenticationProvider;
+import io.gravitee.management.idp.ldap.PooledContextSourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
+import org.springframework.ldap.core.ContextSource;
 import org.springframework.security.config.annotation.SecurityConfigurer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.ldap.DefaultSpringSecurityContextSource;
 import org.springframework.security.ldap.userdetails.DefaultLdapAuthoritiesPopulator;
+import org.springframework.security.ldap.userdetails.LdapAuthoritiesPopulator;
 
 /**
  * @author David BRASSELY (david at gravitee.io)
@@ -44,12 +47,7 @@ public class LdapAuthenticationProvider implements AuthenticationProvider<Securi
                 new LdapAuthenticationProviderConfigurer<>();
 
         // Create LDAP context
-        DefaultSpringSecurityContextSource contextSource = new DefaultSpringSecurityContextSource(
-                environment.getProperty("context-source-url"));
-        contextSource.setBase(environment.getProperty("context-source-base"));
-        contextSource.setUserDn(environment.getProperty("context-source-username"));
-        contextSource.setPassword(environment.getProperty("context-source-password"));
-        contextSource.afterPropertiesSet();
+        DefaultSpringSecurityContextSource contextSource = createContextSource(true);
 
         String userDNPattern = environment.getProperty("user-dn-pattern");
         if (userDNPattern == null || userDNPattern.isEmpty()) {
@@ -66,9 +64,19 @@ public class LdapAuthenticationProvider implements AuthenticationProvider<Securi
                 .groupRoleAttribute(environment.getProperty("group-role-attribute", "cn"))
                 .rolePrefix("");
 
-        DefaultLdapAuthoritiesPopulator populator = new DefaultLdapAuthoritiesPopulator(contextSource,
+        // Group searches are run with the manager account, so they can go through a pool of validated connections
+        ContextSource groupSearchContextSource = contextSource;
+        if (PooledContextSourceFactory.isPoolEnabled(environment)) {
+            groupSearchContextSource = PooledContextSourceFactory.create(createContextSource(false), environment);
+        }
+
+        DefaultLdapAuthoritiesPopulator defaultPopulator = new DefaultLdapAuthoritiesPopulator(groupSearchContextSource,
                 environment.getProperty("group-search-base", ""));
-        populator.setRolePrefix("");
+        defaultPopulator.setRolePrefix("");
+
+        LdapAuthoritiesPopulator populator = new CachingLdapAuthoritiesPopulator(defaultPopulator,
+                environment.getProperty("authorities-cache-ttl", long.class, 60000L),
+                environment.getProperty("authorities-cache-size", int.class, 1000));
 
         ldapAuthenticationProviderConfigurer.ldapAuthoritiesPopulator(populator).contextSource(contextSource);
 
@@ -80,4 +88,15 @@ public class LdapAuthenticationProvider implements AuthenticationProvider<Securi
 
         return ldapAuthenticationProviderConfigurer;
     }
+
+    private DefaultSpringSecurityContextSource createContextSource(boolean pooled) throws Exception {
+        DefaultSpringSecurityContextSource contextSource = new DefaultSpringSecurityContextSource(
+                environment.getProperty("context-source-url"));
+        contextSource.setBase(environment.getProperty("context-source-base"));
+        contextSource.setUserDn(environment.getProperty("context-source-username"));
+        contextSource.setPassword(environment.getProperty("context-source-password"));
+        contextSource.setPooled(pooled);
+        contextSource.afterPropertiesSet();
+        return contextSource;
+    }
 }
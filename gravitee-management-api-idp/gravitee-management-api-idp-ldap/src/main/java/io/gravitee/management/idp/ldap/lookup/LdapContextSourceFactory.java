@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.idp.ldap.lookup;
 
+import io.gravitee.management.idp.ldap.PooledContextSourceFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.AbstractFactoryBean;
 import org.springframework.core.env.Environment;
@@ -61,6 +62,10 @@ public class LdapContextSourceFactory extends AbstractFactoryBean<LdapContextSou
         }
 
         ldapContextSource = contextSourceBuilder.build();
+        // Connections are pooled by the pooling context source, not by JNDI
+        if (PooledContextSourceFactory.isPoolEnabled(environment)) {
+            ldapContextSource.setPooled(false);
+        }
         return ldapContextSource;
     }
 
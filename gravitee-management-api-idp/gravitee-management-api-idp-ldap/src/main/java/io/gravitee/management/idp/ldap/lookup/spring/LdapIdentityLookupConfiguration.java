@@ -15,9 +15,14 @@
  */
 package io.gravitee.management.idp.ldap.lookup.spring;
 
+import io.gravitee.management.idp.ldap.PooledContextSourceFactory;
 import io.gravitee.management.idp.ldap.lookup.LdapContextSourceFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.ldap.core.ContextSource;
 import org.springframework.ldap.core.LdapTemplate;
 import org.springframework.ldap.core.support.LdapContextSource;
 
@@ -28,13 +33,24 @@ import org.springframework.ldap.core.support.LdapContextSource;
 @Configuration
 public class LdapIdentityLookupConfiguration {
 
+    @Autowired
+    private Environment environment;
+
     @Bean
     public LdapContextSourceFactory contextSourceFactory() {
         return new LdapContextSourceFactory();
     }
 
     @Bean
-    public LdapTemplate ldapTemplate(LdapContextSource contextSource) {
+    public ContextSource pooledContextSource(LdapContextSource contextSource) {
+        if (PooledContextSourceFactory.isPoolEnabled(environment)) {
+            return PooledContextSourceFactory.create(contextSource, environment);
+        }
+        return contextSource;
+    }
+
+    @Bean
+    public LdapTemplate ldapTemplate(@Qualifier("pooledContextSource") ContextSource contextSource) {
         return new LdapTemplate(contextSource);
     }
 }
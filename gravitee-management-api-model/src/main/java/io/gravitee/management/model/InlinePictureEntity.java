@@ -23,6 +23,8 @@ public class InlinePictureEntity implements PictureEntity {
 
     private byte [] content;
     private String type;
+    private String digest;
+    private String version;
 
     public byte[] getContent() {
         return content;
@@ -39,4 +41,26 @@ public class InlinePictureEntity implements PictureEntity {
     public void setType(String type) {
         this.type = type;
     }
+
+    /**
+     * @return the digest of the content, computed once when the picture is stored.
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    /**
+     * @return the version of the picture, as given by the update date of its API or user, null if unknown.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.permissions;
+
+import java.util.*;
+
+/**
+ * Immutable permissions of a role scope, stored as one CRUD bitmask (see {@link RolePermissionAction#getMask()}) per
+ * permission, indexed by the ordinal of the permission in {@link Permission#findByScope(RoleScope)}.
+ *
+ * It is also a read-only {@code Map<String, char[]>} so that it can be exposed (and serialized) exactly like the
+ * permissions map of a role.
+ *
+ * @author GraviteeSource Team
+ */
+public final class PermissionSet extends AbstractMap<String, char[]> {
+
+    private static final RolePermissionAction[] ACTIONS = RolePermissionAction.values();
+
+    private static final Map<RoleScope, Map<String, Integer>> INDEXES = new EnumMap<>(RoleScope.class);
+
+    static {
+        for (RoleScope scope : RoleScope.values()) {
+            final Permission[] permissions = Permission.findByScope(scope);
+            final Map<String, Integer> index = new HashMap<>(permissions.length * 2);
+            for (int i = 0; i < permissions.length; i++) {
+                index.put(permissions[i].getName(), i);
+            }
+            INDEXES.put(scope, index);
+        }
+    }
+
+    private final RoleScope scope;
+    private final Permission[] permissions;
+    private final byte[] actions;
+    private final char[][] cruds;
+    private final Set<Entry<String, char[]>> entries;
+
+    private PermissionSet(RoleScope scope, byte[] actions) {
+        this.scope = scope;
+        this.permissions = Permission.findByScope(scope);
+        this.actions = actions;
+        this.cruds = new char[actions.length][];
+
+        final Set<Entry<String, char[]>> entries = new LinkedHashSet<>();
+        for (int i = 0; i < actions.length; i++) {
+            if (actions[i] != 0) {
+                cruds[i] = toCrud(actions[i]);
+                entries.add(new SimpleImmutableEntry<>(permissions[i].getName(), cruds[i]));
+            }
+        }
+        this.entries = Collections.unmodifiableSet(entries);
+    }
+
+    /**
+     * Build the permission set of a scope from a map of permission names to CRUD actions ids.
+     */
+    public static PermissionSet of(RoleScope scope, Map<String, char[]> permissions) {
+        if (permissions instanceof PermissionSet && ((PermissionSet) permissions).scope == scope) {
+            return (PermissionSet) permissions;
+        }
+        final byte[] actions = new byte[Permission.findByScope(scope).length];
+        if (permissions != null) {
+            permissions.forEach((name, crud) -> {
+                final Integer idx = INDEXES.get(scope).get(name);
+                if (idx == null) {
+                    throw new IllegalArgumentException("[" + scope + "] and [" + name + "] are not a RolePermission");
+                }
+                actions[idx] |= mask(crud);
+            });
+        }
+        return new PermissionSet(scope, actions);
+    }
+
+    /**
+     * Build the permission set of a scope from its stored form: for each permission, the permission mask plus the
+     * CRUD mask.
+     */
+    public static PermissionSet of(RoleScope scope, int[] permissions) {
+        final Permission[] scopePermissions = Permission.findByScope(scope);
+        final byte[] actions = new byte[scopePermissions.length];
+        if (permissions != null) {
+            for (int permission : permissions) {
+                for (int i = 0; i < scopePermissions.length; i++) {
+                    if (permission / 100 == scopePermissions[i].getMask() / 100) {
+                        actions[i] |= (permission - scopePermissions[i].getMask());
+                        break;
+                    }
+                }
+            }
+        }
+        return new PermissionSet(scope, actions);
+    }
+
+    public static int mask(char[] crud) {
+        int mask = 0;
+        if (crud != null) {
+            for (char c : crud) {
+                for (RolePermissionAction action : ACTIONS) {
+                    if (action.getId() == c) {
+                        mask |= action.getMask();
+                    }
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static int mask(RolePermissionAction... acls) {
+        int mask = 0;
+        if (acls != null) {
+            for (RolePermissionAction acl : acls) {
+                mask |= acl.getMask();
+            }
+        }
+        return mask;
+    }
+
+    public RoleScope getScope() {
+        return scope;
+    }
+
+    /**
+     * Check if at least one of the given actions is granted on the given permission.
+     */
+    public boolean has(Permission permission, RolePermissionAction... acls) {
+        return (actions(permission) & mask(acls)) != 0;
+    }
+
+    /**
+     * @return the CRUD mask granted on the given permission.
+     */
+    public int actions(Permission permission) {
+        final int idx = indexOf(permission);
+        return idx == -1 ? 0 : actions[idx];
+    }
+
+    /**
+     * @return the union of this permission set and the given one.
+     */
+    public PermissionSet merge(PermissionSet other) {
+        if (other.scope != scope) {
+            throw new IllegalArgumentException("Unable to merge [" + scope + "] and [" + other.scope + "] permissions");
+        }
+        final byte[] merged = Arrays.copyOf(actions, actions.length);
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] |= other.actions[i];
+        }
+        return new PermissionSet(scope, merged);
+    }
+
+    @Override
+    public char[] get(Object key) {
+        final Integer idx = INDEXES.get(scope).get(key);
+        return idx == null ? null : cruds[idx];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Set<Entry<String, char[]>> entrySet() {
+        return entries;
+    }
+
+    private int indexOf(Permission permission) {
+        // Permissions of the scope are looked up by ordinal, others by name
+        if (permission instanceof Enum && ((Enum) permission).getDeclaringClass() == permissions.getClass().getComponentType()) {
+            return ((Enum) permission).ordinal();
+        }
+        final Integer idx = INDEXES.get(scope).get(permission.getName());
+        return idx == null ? -1 : idx;
+    }
+
+    private static char[] toCrud(int mask) {
+        final char[] crud = new char[Integer.bitCount(mask)];
+        int i = 0;
+        for (RolePermissionAction action : ACTIONS) {
+            if ((mask & action.getMask()) != 0) {
+                crud[i++] = action.getId();
+            }
+        }
+        return crud;
+    }
+}
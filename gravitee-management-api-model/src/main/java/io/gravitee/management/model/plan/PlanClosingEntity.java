@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.plan;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Date;
+
+/**
+ * Progress of the closing of the subscriptions of a plan, when it runs in background.
+ *
+ * @author GraviteeSource Team
+ */
+public class PlanClosingEntity {
+
+    private String plan;
+
+    /**
+     * Number of subscriptions to close
+     */
+    private long subscriptions;
+
+    /**
+     * Number of subscriptions already closed
+     */
+    @JsonProperty("closed_subscriptions")
+    private long closedSubscriptions;
+
+    @JsonProperty("started_at")
+    private Date startedAt;
+
+    /**
+     * End date of the closing, null while it is running
+     */
+    @JsonProperty("ended_at")
+    private Date endedAt;
+
+    private boolean failed;
+
+    /**
+     * Cause of the failure of the closing, null unless it has failed
+     */
+    private String error;
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public long getSubscriptions() {
+        return subscriptions;
+    }
+
+    public void setSubscriptions(long subscriptions) {
+        this.subscriptions = subscriptions;
+    }
+
+    public long getClosedSubscriptions() {
+        return closedSubscriptions;
+    }
+
+    public void setClosedSubscriptions(long closedSubscriptions) {
+        this.closedSubscriptions = closedSubscriptions;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(Date endedAt) {
+        this.endedAt = endedAt;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
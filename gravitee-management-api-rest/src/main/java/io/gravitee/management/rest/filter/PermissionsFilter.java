@@ -42,6 +42,7 @@ import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.ext.Provider;
 import java.io.IOException;
 import java.security.Principal;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -95,45 +96,14 @@ public class PermissionsFilter implements ContainerRequestFilter {
             Principal principal = securityContext.getUserPrincipal();
             if (principal != null) {
                 String username = principal.getName();
+                // Permissions are resolved once by scope for the whole request
+                Map<io.gravitee.management.model.permissions.RoleScope, Map<String, char[]>> resolvedPermissions = new HashMap<>();
                 for (Permission permission : permissions.value()) {
-                    RoleEntity role;
-                    Map<String, char[]> memberPermissions;
-                    switch (permission.value().getScope()) {
-                        case MANAGEMENT:
-                            role = membershipService.getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.MANAGEMENT);
-                            if (roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
-                            break;
-                        case PORTAL:
-                            role = membershipService.getRole(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.PORTAL);
-                            if (roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
-                            break;
-                        case APPLICATION:
-                            ApplicationEntity application = getApplication(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(application, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
-                            break;
-                        case API:
-                            ApiEntity api = getApi(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(api, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
-                            break;
-                        case GROUP:
-                            GroupEntity group = getGroup(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(group, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
-                            break;
-                        default:
-                            sendSecurityError();
+                    Map<String, char[]> memberPermissions = resolvedPermissions.computeIfAbsent(
+                            permission.value().getScope(),
+                            scope -> getMemberPermissions(scope, username, requestContext));
+                    if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
+                        return;
                     }
                 }
             }
@@ -141,12 +111,40 @@ public class PermissionsFilter implements ContainerRequestFilter {
         }
     }
 
+    private Map<String, char[]> getMemberPermissions(io.gravitee.management.model.permissions.RoleScope scope,
+                                                     String username, ContainerRequestContext requestContext) {
+        RoleEntity role;
+        switch (scope) {
+            case MANAGEMENT:
+                role = membershipService.getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.MANAGEMENT);
+                return role.getPermissions();
+            case PORTAL:
+                role = membershipService.getRole(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.PORTAL);
+                return role.getPermissions();
+            case APPLICATION:
+                ApplicationEntity application = getApplication(requestContext);
+                return membershipService.getMemberPermissions(application, username);
+            case API:
+                ApiEntity api = getApi(requestContext);
+                return membershipService.getMemberPermissions(api, username);
+            case GROUP:
+                GroupEntity group = getGroup(requestContext);
+                return membershipService.getMemberPermissions(group, username);
+            default:
+                sendSecurityError();
+                return null;
+        }
+    }
+
     private ApiEntity getApi(ContainerRequestContext requestContext) {
         String apiId = getId("api", requestContext);
         if (apiId == null) {
             return null;
         }
-        return apiService.findById(apiId);
+        ApiEntity api = apiService.findById(apiId);
+        // Let the resource reuse the API loaded for this request
+        requestContext.setProperty(AbstractResource.API_PROPERTY, api);
+        return api;
     }
 
     private GroupEntity getGroup(ContainerRequestContext requestContext) {
@@ -16,6 +16,7 @@
 package io.gravitee.management.rest.resource;
 
 import io.gravitee.management.idp.api.authentication.UserDetails;
+import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.model.permissions.RoleScope;
@@ -27,6 +28,7 @@ import io.gravitee.management.service.RoleService;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.SecurityContext;
 
@@ -41,9 +43,14 @@ public abstract class AbstractResource {
     public final static String MANAGEMENT_ADMIN = RoleScope.MANAGEMENT.name() + ':' + SystemRole.ADMIN.name();
     public final static String PORTAL_ADMIN = RoleScope.PORTAL.name() + ':' + SystemRole.ADMIN.name();
 
+    public final static String API_PROPERTY = "gravitee.management.api";
+
     @Context
     protected SecurityContext securityContext;
 
+    @Context
+    private ContainerRequestContext requestContext;
+
     @Inject
     MembershipService membershipService;
 
@@ -90,6 +97,17 @@ public abstract class AbstractResource {
         return isAuthenticated() && (isAdmin() || permissionService.hasPermission(permission, referenceId, acls));
     }
 
+    /**
+     * Get the API already loaded for the current request (by the permissions filter), or load it.
+     */
+    protected ApiEntity getApi(final String apiId) {
+        final Object api = (requestContext == null) ? null : requestContext.getProperty(API_PROPERTY);
+        if (api instanceof ApiEntity && apiId.equals(((ApiEntity) api).getId())) {
+            return (ApiEntity) api;
+        }
+        return apiService.findById(apiId);
+    }
+
     void checkImageSize(final String picture) {
         if (picture != null) {
             final int imageBase64Length = picture.length();
@@ -78,7 +78,7 @@ public class ApiMembersResource extends AbstractResource {
             @ApiResponse(code = 200, message = "API member's permissions", response = MemberEntity.class, responseContainer = "List"),
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response getPermissions(@PathParam("api") String api) {
-        final ApiEntity apiEntity = apiService.findById(api);
+        final ApiEntity apiEntity = getApi(api);
         Map<String, char[]> permissions = new HashMap<>();
         if (isAuthenticated()) {
             final String userId = getAuthenticatedUser();
@@ -105,7 +105,7 @@ public class ApiMembersResource extends AbstractResource {
             @Permission(value = RolePermission.API_MEMBER, acls = RolePermissionAction.READ)
     })
     public List<MembershipListItem> listApiMembers(@PathParam("api") String api) {
-        apiService.findById(api);
+        getApi(api);
         return membershipService.getMembers(MembershipReferenceType.API, api, RoleScope.API)
                 .stream()
                 .map(MembershipListItem::new)
@@ -132,7 +132,7 @@ public class ApiMembersResource extends AbstractResource {
             throw new SinglePrimaryOwnerException(RoleScope.API);
         }
 
-        apiService.findById(api);
+        getApi(api);
 
         MemberEntity membership = membershipService.addOrUpdateMember(
                 new MembershipService.MembershipReference(MembershipReferenceType.API, api),
@@ -163,7 +163,7 @@ public class ApiMembersResource extends AbstractResource {
             //it doesn't matter
         }
 
-        apiService.findById(api);
+        getApi(api);
         membershipService.transferApiOwnership(api, new MembershipService.MembershipUser(
                 transferOwnership.getId(), transferOwnership.getReference()), newPORole);
         return Response.ok().build();
@@ -182,7 +182,7 @@ public class ApiMembersResource extends AbstractResource {
     public Response deleteApiMember(
             @PathParam("api") String api,
             @ApiParam(name = "user", required = true) @NotNull @QueryParam("user") String userId) {
-        apiService.findById(api);
+        getApi(api);
         try {
             userService.findById(userId);
         } catch (UserNotFoundException unfe) {
@@ -66,7 +66,7 @@ public class ApiPageResource extends AbstractResource {
                 @PathParam("api") String api,
                 @PathParam("page") String page,
                 @QueryParam("portal") boolean portal) {
-        final ApiEntity apiEntity = apiService.findById(api);
+        final ApiEntity apiEntity = getApi(api);
 
         if (Visibility.PUBLIC.equals(apiEntity.getVisibility())
                 || hasPermission(RolePermission.API_DOCUMENTATION, api, RolePermissionAction.READ)) {
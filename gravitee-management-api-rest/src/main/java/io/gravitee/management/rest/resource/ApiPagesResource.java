@@ -72,7 +72,7 @@ public class ApiPagesResource extends AbstractResource {
             @PathParam("api") String api,
             @QueryParam("homepage") Boolean homepage,
             @QueryParam("flatMode") Boolean flatMode) {
-        final ApiEntity apiEntity = apiService.findById(api);
+        final ApiEntity apiEntity = getApi(api);
         if (Visibility.PUBLIC.equals(apiEntity.getVisibility())
                 || hasPermission(RolePermission.API_DOCUMENTATION, api, RolePermissionAction.READ)) {
             final List<PageListItem> pages = pageService.findApiPagesByApiAndHomepage(api, homepage, flatMode);
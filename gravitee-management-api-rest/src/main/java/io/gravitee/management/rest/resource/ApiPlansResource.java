@@ -18,6 +18,7 @@ package io.gravitee.management.rest.resource;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.plan.PlanClosingEntity;
 import io.gravitee.management.rest.resource.param.PlanStatusParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
@@ -75,7 +76,7 @@ public class ApiPlansResource extends AbstractResource {
             @PathParam("api") String api,
             @QueryParam("status") @DefaultValue("published") PlanStatusParam status) {
 
-        ApiEntity apiEntity = apiService.findById(api);
+        ApiEntity apiEntity = getApi(api);
 
         boolean lookingForUnpublishedPlan = status.getStatuses().stream().
                 map(st -> !st.equals(PlanStatus.PUBLISHED)).
@@ -176,7 +177,7 @@ public class ApiPlansResource extends AbstractResource {
             @PathParam("api") String api,
             @PathParam("plan") String plan) {
 
-        if (Visibility.PUBLIC.equals(apiService.findById(api).getVisibility())
+        if (Visibility.PUBLIC.equals(getApi(api).getVisibility())
                 || hasPermission(API_PLAN, api, READ)) {
             PlanEntity planEntity = planService.findById(plan);
             if (!planEntity.getApis().contains(api)) {
@@ -243,6 +244,37 @@ public class ApiPlansResource extends AbstractResource {
         return Response.ok(planService.close(plan, getAuthenticatedUser())).build();
     }
 
+    @GET
+    @Path("/{plan}/_close")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the progress of the closing of the subscriptions of a plan",
+            notes = "User must have the READ permission to use this service. The progress is only known by the " +
+                    "management node running the closing: the other nodes answer 404.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Closing progress", response = PlanClosingEntity.class),
+            @ApiResponse(code = 404, message = "No closing running in background for this plan on this node"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({
+            @Permission(value = API_PLAN, acls = READ)
+    })
+    public Response getPlanClosing(
+            @PathParam("api") String api,
+            @PathParam("plan") String plan) {
+        PlanEntity planEntity = planService.findById(plan);
+        if (! planEntity.getApis().contains(api)) {
+            return Response
+                    .status(Response.Status.BAD_REQUEST)
+                    .entity("'plan' parameter does not correspond to the current API")
+                    .build();
+        }
+
+        final PlanClosingEntity closing = planService.findClosing(plan);
+        if (closing == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(closing).build();
+    }
+
     @POST
     @Path("/{plan}/_publish")
     @Produces(MediaType.APPLICATION_JSON)
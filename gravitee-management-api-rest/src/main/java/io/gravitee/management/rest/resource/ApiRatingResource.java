@@ -51,7 +51,7 @@ public class ApiRatingResource extends AbstractResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Page<RatingEntity> list(@PathParam("api") String api, @Min(1) @QueryParam("pageNumber") int pageNumber, @QueryParam("pageSize") int pageSize) {
-        final ApiEntity apiEntity = apiService.findById(api);
+        final ApiEntity apiEntity = getApi(api);
         if (PUBLIC.equals(apiEntity.getVisibility()) || hasPermission(RolePermission.API_RATING, api, RolePermissionAction.READ)) {
             final Page<RatingEntity> ratingEntityPage =
                     ratingService.findByApi(api, new PageableBuilder().pageNumber(pageNumber).pageSize(pageSize).build());
@@ -70,7 +70,7 @@ public class ApiRatingResource extends AbstractResource {
         if (!isAuthenticated()) {
             return null;
         }
-        final ApiEntity apiEntity = apiService.findById(api);
+        final ApiEntity apiEntity = getApi(api);
         if (PUBLIC.equals(apiEntity.getVisibility()) || hasPermission(RolePermission.API_RATING, api, RolePermissionAction.READ)) {
             return filterPermission(api, ratingService.findByApiForConnectedUser(api));
         } else {
@@ -82,7 +82,7 @@ public class ApiRatingResource extends AbstractResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public RatingSummaryEntity getSummaryByApi(@PathParam("api") String api) {
-        final ApiEntity apiEntity = apiService.findById(api);
+        final ApiEntity apiEntity = getApi(api);
         if (PUBLIC.equals(apiEntity.getVisibility()) || hasPermission(RolePermission.API_RATING, api, RolePermissionAction.READ)) {
             return ratingService.findSummaryByApi(api);
         } else {
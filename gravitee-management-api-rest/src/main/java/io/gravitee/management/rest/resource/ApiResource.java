@@ -27,6 +27,7 @@ import io.gravitee.management.rest.resource.param.LifecycleActionParam.Lifecycle
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
 import io.gravitee.management.service.NotifierService;
+import io.gravitee.management.service.PictureService;
 import io.gravitee.management.service.exceptions.ApiNotFoundException;
 import io.gravitee.management.service.exceptions.ForbiddenAccessException;
 import io.gravitee.repository.management.model.NotificationReferenceType;
@@ -77,7 +78,7 @@ public class ApiResource extends AbstractResource {
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response get(
             @PathParam("api") String api) {
-        ApiEntity apiEntity = apiService.findById(api);
+        ApiEntity apiEntity = getApi(api);
         if (Visibility.PUBLIC.equals(apiEntity.getVisibility())
                 || hasPermission(RolePermission.API_DEFINITION, api, RolePermissionAction.READ)) {
             setPicture(apiEntity);
@@ -96,9 +97,10 @@ public class ApiResource extends AbstractResource {
     private void setPicture(final ApiEntity apiEntity) {
         final UriBuilder ub = uriInfo.getAbsolutePathBuilder();
         final UriBuilder uriBuilder = ub.path("picture");
-        if (apiEntity.getPicture() != null) {
-            // force browser to get if updated
-            uriBuilder.queryParam("hash", apiEntity.getPicture().hashCode());
+        // force browser to get if updated
+        final String version = PictureService.version(apiEntity.getUpdatedAt());
+        if (version != null) {
+            uriBuilder.queryParam("hash", version);
         }
         apiEntity.setPictureUrl(uriBuilder.build().toString());
         apiEntity.setPicture(null);
@@ -113,20 +115,29 @@ public class ApiResource extends AbstractResource {
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response picture(
             @Context Request request,
-            @PathParam("api") String api) throws ApiNotFoundException {
-        ApiEntity apiEntity = apiService.findById(api);
-        if (Visibility.PUBLIC.equals(apiEntity.getVisibility())
-                || hasPermission(RolePermission.API_DEFINITION, api, RolePermissionAction.READ)) {
+            @PathParam("api") String api,
+            @QueryParam("hash") String hash,
+            @QueryParam("size") Integer size) throws ApiNotFoundException {
+        // The API is only loaded when the user has no permission on it
+        if (hasPermission(RolePermission.API_DEFINITION, api, RolePermissionAction.READ)
+                || Visibility.PUBLIC.equals(getApi(api).getVisibility())) {
+
+            InlinePictureEntity image = apiService.getPicture(api, hash, size);
 
             CacheControl cc = new CacheControl();
             cc.setNoTransform(true);
-            cc.setMustRevalidate(false);
             cc.setNoCache(false);
-            cc.setMaxAge(86400);
-
-            InlinePictureEntity image = apiService.getPicture(api);
+            if (hash != null && hash.equals(image.getVersion())) {
+                // the URL changes with the picture version
+                cc.setMustRevalidate(false);
+                cc.setMaxAge(86400);
+            } else {
+                cc.setMustRevalidate(true);
+                cc.setMaxAge(0);
+            }
 
-            EntityTag etag = new EntityTag(Integer.toString(new String(image.getContent()).hashCode()));
+            EntityTag etag = new EntityTag(image.getDigest() != null ?
+                    image.getDigest() : Integer.toString(new String(image.getContent()).hashCode()));
             Response.ResponseBuilder builder = request.evaluatePreconditions(etag);
 
             if (builder != null) {
@@ -309,7 +320,7 @@ public class ApiResource extends AbstractResource {
             @ApiResponse(code = 200, message = "API's state", response = io.gravitee.management.rest.model.ApiEntity.class),
             @ApiResponse(code = 500, message = "Internal server error")})
     public io.gravitee.management.rest.model.ApiEntity isAPISynchronized(@PathParam("api") String api) {
-        ApiEntity foundApi = apiService.findById(api);
+        ApiEntity foundApi = getApi(api);
         if (Visibility.PUBLIC.equals(foundApi.getVisibility())
                 || hasPermission(RolePermission.API_DEFINITION, api, RolePermissionAction.READ)) {
             io.gravitee.management.rest.model.ApiEntity apiEntity = new io.gravitee.management.rest.model.ApiEntity();
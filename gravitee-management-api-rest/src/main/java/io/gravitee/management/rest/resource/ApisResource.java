@@ -30,6 +30,7 @@ import io.gravitee.management.rest.resource.param.VerifyApiParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
 import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.PictureService;
 import io.gravitee.management.service.RatingService;
 import io.gravitee.management.service.SwaggerService;
 import io.gravitee.management.service.TopApiService;
@@ -51,6 +52,7 @@ import javax.ws.rs.core.UriInfo;
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static io.gravitee.management.model.Visibility.PUBLIC;
 import static io.gravitee.repository.management.model.View.ALL_ID;
@@ -115,15 +117,19 @@ public class ApisResource extends AbstractResource {
 
         if (apisParam.isTop()) {
             final List<String> visibleApis = apis.stream().map(ApiEntity::getId).collect(toList());
-            return topApiService.findAll().stream()
+            final List<ApiEntity> topApis = topApiService.findAll().stream()
                     .filter(topApi -> visibleApis.contains(topApi.getApi()))
                     .map(topApiEntity -> apiService.findById(topApiEntity.getApi()))
-                    .map(this::convert)
+                    .collect(toList());
+            final Map<String, RatingSummaryEntity> ratingSummaries = findRatingSummaries(topApis);
+            return topApis.stream()
+                    .map(api -> convert(api, ratingSummaries))
                     .collect(toList());
         }
 
+        final Map<String, RatingSummaryEntity> ratingSummaries = findRatingSummaries(apis);
         return apis.stream()
-                .map(this::convert)
+                .map(api -> convert(api, ratingSummaries))
                 .map(this::setManageable)
                 .sorted((o1, o2) -> String.CASE_INSENSITIVE_ORDER.compare(o1.getName(), o2.getName()))
                 .collect(toList());
@@ -227,7 +233,14 @@ public class ApisResource extends AbstractResource {
         return resourceContext.getResource(ApiResource.class);
     }
 
-    private ApiListItem convert(ApiEntity api) {
+    private Map<String, RatingSummaryEntity> findRatingSummaries(Collection<ApiEntity> apis) {
+        if (!ratingService.isEnabled()) {
+            return null;
+        }
+        return ratingService.findSummariesByApis(apis.stream().map(ApiEntity::getId).collect(toList()));
+    }
+
+    private ApiListItem convert(ApiEntity api, Map<String, RatingSummaryEntity> ratingSummaries) {
         final ApiListItem apiItem = new ApiListItem();
 
         apiItem.setId(api.getId());
@@ -237,9 +250,10 @@ public class ApisResource extends AbstractResource {
 
         final UriBuilder ub = uriInfo.getAbsolutePathBuilder();
         final UriBuilder uriBuilder = ub.path(api.getId()).path("picture");
-        if (api.getPicture() != null) {
-            // force browser to get if updated
-            uriBuilder.queryParam("hash", api.getPicture().hashCode());
+        // force browser to get if updated, without reading the picture
+        final String version = PictureService.version(api.getUpdatedAt());
+        if (version != null) {
+            uriBuilder.queryParam("hash", version);
         }
         apiItem.setPictureUrl(uriBuilder.build().toString());
         apiItem.setViews(api.getViews());
@@ -261,8 +275,8 @@ public class ApisResource extends AbstractResource {
             apiItem.setContextPath(api.getProxy().getContextPath());
         }
 
-        if (ratingService.isEnabled()) {
-            final RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(api.getId());
+        if (ratingSummaries != null) {
+            final RatingSummaryEntity ratingSummary = ratingSummaries.get(api.getId());
             apiItem.setRate(ratingSummary.getAverageRate());
             apiItem.setNumberOfRatings(ratingSummary.getNumberOfRatings());
         }
@@ -158,7 +158,8 @@ public class CurrentUserResource extends AbstractResource {
 
         InlinePictureEntity image = (InlinePictureEntity) picture;
 
-        EntityTag etag = new EntityTag(Integer.toString(new String(image.getContent()).hashCode()));
+        EntityTag etag = new EntityTag(image.getDigest() != null ?
+                image.getDigest() : Integer.toString(new String(image.getContent()).hashCode()));
         Response.ResponseBuilder builder = request.evaluatePreconditions(etag);
 
         if (builder != null) {
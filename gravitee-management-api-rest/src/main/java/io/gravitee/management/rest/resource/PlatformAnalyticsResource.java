@@ -16,8 +16,6 @@
 package io.gravitee.management.rest.resource;
 
 import io.gravitee.common.http.MediaType;
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.ApplicationEntity;
 import io.gravitee.management.model.analytics.Analytics;
 import io.gravitee.management.model.analytics.query.*;
 import io.gravitee.management.rest.resource.param.Aggregation;
@@ -26,9 +24,6 @@ import io.gravitee.management.rest.resource.param.Range;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
 import io.gravitee.management.service.AnalyticsService;
-import io.gravitee.management.service.ApiService;
-import io.gravitee.management.service.ApplicationService;
-import io.gravitee.management.service.PermissionService;
 import io.swagger.annotations.Api;
 
 import javax.inject.Inject;
@@ -36,6 +31,7 @@ import javax.ws.rs.BeanParam;
 import javax.ws.rs.GET;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -57,14 +53,6 @@ public class PlatformAnalyticsResource extends AbstractResource  {
     @Inject
     private AnalyticsService analyticsService;
 
-    @Inject
-    ApiService apiService;
-
-    @Inject
-    PermissionService permissionService;
-
-    @Inject
-    ApplicationService applicationService;
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Permissions({
@@ -82,19 +70,11 @@ public class PlatformAnalyticsResource extends AbstractResource  {
             if ("api".equals(analyticsParam.getField()) || "tenant".equals(analyticsParam.getField())) {
                 extraFilter = getExtraFilter(
                         "api",
-                        apiService.findByUser(getAuthenticatedUser(), null)
-                                .stream()
-                                .filter(api -> permissionService.hasPermission(API_ANALYTICS, api.getId(), READ))
-                                .map(ApiEntity::getId)
-                                .collect(Collectors.toList()));
+                        membershipService.getReferenceIdsWithPermission(getAuthenticatedUser(), API_ANALYTICS, READ));
             } else if ("application".equals(analyticsParam.getField())) {
                 extraFilter = getExtraFilter(
                         analyticsParam.getField(),
-                        applicationService.findByUser(getAuthenticatedUser())
-                                .stream()
-                                .filter(app -> permissionService.hasPermission(APPLICATION_ANALYTICS, app.getId(), READ))
-                                .map(ApplicationEntity::getId)
-                                .collect(Collectors.toList()));
+                        membershipService.getReferenceIdsWithPermission(getAuthenticatedUser(), APPLICATION_ANALYTICS, READ));
             }
         }
 
@@ -188,9 +168,9 @@ public class PlatformAnalyticsResource extends AbstractResource  {
         }
     }
 
-    private String getExtraFilter(String fieldName, List<String> ids) {
+    private String getExtraFilter(String fieldName, Collection<String> ids) {
         if (ids != null && !ids.isEmpty()) {
-            return fieldName + ":(" + ids.stream().collect(Collectors.joining(" OR ")) + ")";
+            return fieldName + ":(" + String.join(" OR ", ids) + ")";
         }
         return null;
     }
@@ -17,15 +17,14 @@ package io.gravitee.management.rest.resource;
 
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
-import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.EventEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.resource.param.EventSearchParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
-import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.EventService;
+import io.gravitee.management.service.ReferenceMetadataResolver;
 import io.gravitee.repository.management.model.Event;
 import io.swagger.annotations.Api;
 
@@ -35,6 +34,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Produces;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static io.gravitee.management.model.permissions.RolePermission.API_ANALYTICS;
@@ -52,7 +53,7 @@ public class PlatformEventsResource  extends AbstractResource {
     private EventService eventService;
 
     @Inject
-    private ApiService apiService;
+    private ReferenceMetadataResolver referenceMetadataResolver;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
@@ -70,10 +71,7 @@ public class PlatformEventsResource  extends AbstractResource {
         } else if (!isAdmin()) {
             properties.put(
                     Event.EventProperties.API_ID.getValue(),
-                    apiService.findByUser(getAuthenticatedUser(), null)
-                            .stream()
-                            .filter(api -> permissionService.hasPermission(API_ANALYTICS, api.getId(), READ))
-                            .map(ApiEntity::getId).collect(Collectors.joining(",")));
+                    String.join(",", membershipService.getReferenceIdsWithPermission(getAuthenticatedUser(), API_ANALYTICS, READ)));
         }
 
         Page<EventEntity> events = eventService.search(
@@ -84,6 +82,16 @@ public class PlatformEventsResource  extends AbstractResource {
                 eventSearchParam.getPage(),
                 eventSearchParam.getSize());
 
+        // Retrieve additional data of all the APIs of the page at once
+        final Set<String> apiIds = events.getContent().stream()
+                .map(EventEntity::getProperties)
+                .filter(Objects::nonNull)
+                .map(properties1 -> properties1.get(Event.EventProperties.API_ID.getValue()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final Map<String, Map<String, String>> apis = apiIds.isEmpty() ? new HashMap<>() :
+                referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.API, apiIds);
+
         events.getContent().forEach(event -> {
             Map<String, String> properties1 = event.getProperties();
             // Event relative to API
@@ -91,11 +99,11 @@ public class PlatformEventsResource  extends AbstractResource {
                 // Remove payload content from response since it's not required anymore
                 event.setPayload(null);
 
-                // Retrieve additional data
-                String apiId = properties1.get(Event.EventProperties.API_ID.getValue());
-                ApiEntity api = apiService.findById(apiId);
-                properties1.put("api_name", api.getName());
-                properties1.put("api_version", api.getVersion());
+                Map<String, String> api = apis.get(properties1.get(Event.EventProperties.API_ID.getValue()));
+                if (api != null) {
+                    properties1.put("api_name", api.get("name"));
+                    properties1.put("api_version", api.get("version"));
+                }
             }
         });
 
@@ -18,6 +18,7 @@ package io.gravitee.management.rest.resource;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.api.ApiQuery;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.enhancer.ViewEnhancer;
@@ -63,12 +64,15 @@ public class ViewsResource extends AbstractResource  {
     @Produces(MediaType.APPLICATION_JSON)
     public List<ViewEntity> list(@QueryParam("all") boolean all)  {
         Set<ApiEntity> apis;
+        // Only the views of the APIs are needed to count them
         if (isAdmin()) {
-            apis = apiService.findAll();
+            apis = apiService.findSummaries(null, null);
         } else if (isAuthenticated()) {
-            apis = apiService.findByUser(getAuthenticatedUser(), null);
+            apis = apiService.findSummaries(getAuthenticatedUser(), null);
         } else {
-            apis = apiService.findByVisibility(Visibility.PUBLIC);
+            final ApiQuery apiQuery = new ApiQuery();
+            apiQuery.setVisibility(Visibility.PUBLIC);
+            apis = apiService.findSummaries(null, apiQuery);
         }
 
         boolean viewAll = (all && hasPermission(RolePermission.PORTAL_VIEW, RolePermissionAction.UPDATE, RolePermissionAction.CREATE, RolePermissionAction.DELETE));
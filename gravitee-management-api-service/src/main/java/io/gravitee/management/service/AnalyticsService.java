@@ -34,4 +34,14 @@ public interface AnalyticsService {
     HistogramAnalytics execute(DateHistogramQuery query);
 
     TopHitsAnalytics execute(GroupByQuery query);
+
+    /**
+     * @return the number of queries answered from the cache since startup.
+     */
+    long getCacheHits();
+
+    /**
+     * @return the number of queries sent to the repository since startup.
+     */
+    long getCacheMisses();
 }
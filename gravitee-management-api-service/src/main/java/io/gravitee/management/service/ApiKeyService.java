@@ -16,7 +16,9 @@
 package io.gravitee.management.service;
 
 import io.gravitee.management.model.ApiKeyEntity;
+import io.gravitee.management.model.PlanEntity;
 
+import java.util.Date;
 import java.util.Set;
 
 /**
@@ -31,6 +33,12 @@ public interface ApiKeyService {
 
     void revoke(String apiKey, boolean notify);
 
+    /**
+     * Revoke the keys of a closed subscription of the given plan, without notifying the subscriber. Unlike
+     * {@link #revoke(String, boolean)}, the keys are read at once and the plan is not reloaded for each of them.
+     */
+    void revokeBySubscription(String subscription, PlanEntity plan, Date revokedAt);
+
     Set<ApiKeyEntity> findBySubscription(String subscription);
 
     ApiKeyEntity findByKey(String apiKey);
@@ -34,4 +34,10 @@ public interface ApiMetadataService {
     ApiMetadataEntity update(UpdateApiMetadataEntity metadata);
 
     void delete(String metadataId, String api);
+
+    /**
+     * @return the version of the metadata of the APIs, which changes each time a default or an API metadata is
+     * created, updated or deleted.
+     */
+    long getVersion();
 }
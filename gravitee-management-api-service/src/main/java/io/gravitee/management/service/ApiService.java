@@ -43,6 +43,24 @@ public interface ApiService {
 
     Set<ApiEntity> findByUser(String userId, ApiQuery apiQuery);
 
+    /**
+     * @return the ids of the APIs visible by the user, without loading their definition. The APIs without primary
+     * owner are skipped.
+     */
+    Set<String> findIdsByUser(String userId);
+
+    /**
+     * Find the APIs matching the query (and visible by the user, if any) without their definition, picture and
+     * primary owner: only the fields stored alongside the API (name, version, views, groups, state...) are set.
+     * As for the other finders, the APIs without primary owner are skipped.
+     */
+    Set<ApiEntity> findSummaries(String userId, ApiQuery apiQuery);
+
+    /**
+     * @return the number of APIs on which the user is a direct member with the given role.
+     */
+    long countByUser(String userId, String roleName);
+
     Set<ApiEntity> findByVisibility(Visibility visibility);
 
     ApiEntity create(NewApiEntity api, String userId);
@@ -76,6 +94,12 @@ public interface ApiService {
 
     InlinePictureEntity getPicture(String apiId);
 
+    /**
+     * @param version the version of the picture known by the caller, if any.
+     * @return the picture of the API, scaled down to the given size if any.
+     */
+    InlinePictureEntity getPicture(String apiId, String version, Integer size);
+
     void deleteViewFromAPIs(String viewId);
 
     void deleteTagFromAPIs(String tagId);
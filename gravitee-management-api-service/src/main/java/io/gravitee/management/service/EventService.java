@@ -24,6 +24,7 @@ import io.gravitee.management.model.NewEventEntity;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author Titouan COMPIEGNE
@@ -42,4 +43,9 @@ public interface EventService {
             List<EventType> eventTypes, Map<String, Object> properties, long from, long to, int page, int size);
 
     Collection<EventEntity> search(EventQuery query);
+
+    /**
+     * Walk through the events matching the query, loading them {@code pageSize} at a time.
+     */
+    void search(EventQuery query, int pageSize, Consumer<EventEntity> consumer);
 }
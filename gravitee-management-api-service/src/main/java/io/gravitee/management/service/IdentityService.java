@@ -19,6 +19,7 @@ import io.gravitee.management.idp.api.identity.SearchableUser;
 import io.gravitee.management.model.providers.User;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -29,5 +30,12 @@ public interface IdentityService {
 
     Collection<SearchableUser> search(String query);
 
+    /**
+     * @return the users found for each of the given queries, keyed by query.
+     * @throws io.gravitee.management.service.exceptions.TechnicalManagementException when some identity providers did
+     * not answer, the results being incomplete.
+     */
+    Map<String, Collection<SearchableUser>> search(Collection<String> queries);
+
     Optional<User> findByReference(String reference);
 }
@@ -17,6 +17,8 @@ package io.gravitee.management.service;
 
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 
@@ -53,6 +55,21 @@ public interface MembershipService {
 
     Map<String, char[]> getMemberPermissions(GroupEntity group, String userId);
 
+    /**
+     * @return the ids of the APIs or applications (depending on the scope of the permission) on which the user has
+     * been granted the permission, either directly or through one of their groups.
+     */
+    Set<String> getReferenceIdsWithPermission(String userId, RolePermission permission, RolePermissionAction... acls);
+
+    /**
+     * @return the ids of the groups in which the user has a role of the given scope.
+     */
+    Set<String> getUserGroupIds(String userId, RoleScope roleScope);
+
+    void invalidateMemberPermissions();
+
+    void invalidateMemberPermissions(String userId);
+
     boolean removeRole(MembershipReferenceType referenceType, String referenceId, String userId, RoleScope roleScope);
 
     void removeRoleUsage(RoleScope roleScope, String roleName, String newName);
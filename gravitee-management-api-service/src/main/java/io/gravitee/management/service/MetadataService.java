@@ -36,4 +36,9 @@ public interface MetadataService {
     void checkMetadataFormat(MetadataFormat format, String value);
 
     MetadataEntity findDefaultByKey(String key);
+
+    /**
+     * @return the version of the default metadata, incremented each time one of them is created, updated or deleted.
+     */
+    long getVersion();
 }
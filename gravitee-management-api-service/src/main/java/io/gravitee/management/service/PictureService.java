@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.InlinePictureEntity;
+
+import java.util.Date;
+
+/**
+ * Store of the decoded inline pictures of the APIs and users, kept apart from the entities they belong to.
+ * Each picture is kept with its version, the update date of its API or user, which is the same on every node.
+ *
+ * @author GraviteeSource Team
+ */
+public interface PictureService {
+
+    enum Type {
+        API, USER
+    }
+
+    /**
+     * @return the version of the picture of a reference updated at the given date, null if unknown.
+     */
+    static String version(Date updatedAt) {
+        return updatedAt == null ? null : Long.toString(updatedAt.getTime());
+    }
+
+    /**
+     * @param version the version of the picture known by the caller, if any.
+     * @return the inline picture of the reference, scaled down to the given size if any, null if it has no inline
+     * picture. It is read again from the repository unless the cached picture has the given version.
+     */
+    InlinePictureEntity getPicture(Type type, String id, String version, Integer size);
+
+    /**
+     * @param updatedAt the update date of the reference, as already loaded with its picture.
+     * @param picture the picture of the reference, as already loaded with it.
+     * @return the given inline picture of the reference, scaled down to the given size if any, null if it is not an
+     * inline picture.
+     */
+    InlinePictureEntity getPicture(Type type, String id, Date updatedAt, String picture, Integer size);
+
+    void evict(Type type, String id);
+}
@@ -19,6 +19,7 @@ import io.gravitee.management.model.NewPlanEntity;
 import io.gravitee.management.model.PlanEntity;
 import io.gravitee.management.model.PlansConfigurationEntity;
 import io.gravitee.management.model.UpdatePlanEntity;
+import io.gravitee.management.model.plan.PlanClosingEntity;
 import io.gravitee.management.model.plan.PlanQuery;
 
 import java.util.List;
@@ -43,6 +44,18 @@ public interface PlanService {
 
     PlanEntity close(String plan, String username);
 
+    /**
+     * @return the progress of the closing of the subscriptions of the plan when it runs in background, or null. The
+     * progress is only known by the node running the closing.
+     */
+    PlanClosingEntity findClosing(String plan);
+
+    /**
+     * Close in background the subscriptions still accepted of the plans closed for a while, whose closing has been
+     * interrupted by a restart or a shutdown of the node running it.
+     */
+    void resumeClosings();
+
     void delete(String plan);
 
     PlanEntity publish(String plan);
@@ -19,6 +19,9 @@ import io.gravitee.common.data.domain.Page;
 import io.gravitee.management.model.*;
 import io.gravitee.repository.management.api.search.Pageable;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * @author Azize ELAMRANI (azize at graviteesource.com)
  * @author GraviteeSource Team
@@ -33,6 +36,13 @@ public interface RatingService {
 
     RatingSummaryEntity findSummaryByApi(String api);
 
+    Map<String, RatingSummaryEntity> findSummariesByApis(Collection<String> apis);
+
+    /**
+     * Forget the cached rating summary of the API, e.g. once the API has been deleted.
+     */
+    void evictSummary(String api);
+
     RatingEntity findByApiForConnectedUser(String api);
 
     RatingEntity update(UpdateRatingEntity rating);
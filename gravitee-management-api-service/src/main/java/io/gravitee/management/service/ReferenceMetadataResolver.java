@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolve the display metadata (name, version, deleted flag...) of the entities referenced by analytics, logs and
+ * audits.
+ *
+ * @author GraviteeSource Team
+ */
+public interface ReferenceMetadataResolver {
+
+    enum Type {
+        API, APPLICATION, PLAN, TENANT, GATEWAY, USER, GROUP, PAGE
+    }
+
+    /**
+     * @return the metadata of each of the given references, keyed by reference id.
+     */
+    Map<String, Map<String, String>> resolve(Type type, Set<String> ids);
+
+    void evict(Type type, String id);
+}
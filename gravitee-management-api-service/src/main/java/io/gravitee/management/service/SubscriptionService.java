@@ -25,7 +25,10 @@ import io.gravitee.management.model.pagedresult.Metadata;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -56,6 +59,28 @@ public interface SubscriptionService {
 
     SubscriptionEntity close(String subscription);
 
+    /**
+     * Close all the accepted subscriptions of a plan. The plan, the API and the applications are loaded once for all
+     * the subscriptions.
+     *
+     * @param progress called with the number of subscriptions closed so far, may be null
+     * @return the number of closed subscriptions
+     */
+    int closeByPlan(String plan, IntConsumer progress);
+
+    /**
+     * Find the accepted subscriptions ending before the given date, using an index of the ending dates instead of
+     * loading all the accepted subscriptions. Each ended subscription is only returned once by this node, unless
+     * it then fails to be closed.
+     */
+    Collection<SubscriptionEntity> findEndedBefore(Date date);
+
+    /**
+     * @return the number of accepted subscriptions of each plan, as counted when the index of the ending dates has
+     * been loaded last, or an empty map when already returned since.
+     */
+    Map<String, Long> pollAcceptedSubscriptionsByPlan();
+
     void delete(String subscription);
 
     Collection<SubscriptionEntity> search(SubscriptionQuery query);
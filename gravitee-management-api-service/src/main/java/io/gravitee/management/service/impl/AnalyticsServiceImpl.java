@@ -15,11 +15,11 @@
  */
 package io.gravitee.management.service.impl;
 
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.ApplicationEntity;
-import io.gravitee.management.model.PlanEntity;
-import io.gravitee.management.model.TenantEntity;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.gravitee.management.model.analytics.*;
+import io.gravitee.management.model.analytics.query.AbstractQuery;
 import io.gravitee.management.model.analytics.query.CountQuery;
 import io.gravitee.management.model.analytics.query.DateHistogramQuery;
 import io.gravitee.management.model.analytics.query.GroupByQuery;
@@ -33,13 +33,20 @@ import io.gravitee.repository.analytics.query.groupby.GroupByQueryBuilder;
 import io.gravitee.repository.analytics.query.groupby.GroupByResponse;
 import io.gravitee.repository.analytics.query.response.histogram.Data;
 import io.gravitee.repository.analytics.query.response.histogram.DateHistogramResponse;
-import io.gravitee.repository.management.model.ApplicationStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -48,57 +55,127 @@ import java.util.stream.Collectors;
  * @author GraviteeSource Team
  */
 @Component
-public class AnalyticsServiceImpl implements AnalyticsService {
+public class AnalyticsServiceImpl implements AnalyticsService, InitializingBean, DisposableBean {
 
     /**
      * Logger.
      */
     private final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
 
-    private static final String APPLICATION_KEYLESS = "1";
-
     @Autowired
     private AnalyticsRepository analyticsRepository;
 
     @Autowired
-    private ApiService apiService;
+    private ReferenceMetadataResolver referenceMetadataResolver;
 
-    @Autowired
-    private ApplicationService applicationService;
+    @Value("${analytics.cache.enabled:true}")
+    private boolean cacheEnabled;
 
-    @Autowired
-    private PlanService planService;
+    @Value("${analytics.cache.size:1000}")
+    private long cacheSize;
 
-    @Autowired
-    private TenantService tenantService;
+    @Value("${analytics.cache.ttl:10000}")
+    private long cacheTtl;
+
+    @Value("${analytics.cache.closed.ttl:3600000}")
+    private long closedCacheTtl;
+
+    @Value("${analytics.cache.closed.delay:60000}")
+    private long closedDelay;
+
+    @Value("${analytics.cache.stats.interval:300000}")
+    private long statsInterval;
+
+    /**
+     * Results of the queries whose time range ends with a bucket which is still open.
+     */
+    private Cache<String, Object> openCache;
+
+    /**
+     * Results of the queries whose time range only covers closed buckets.
+     */
+    private Cache<String, Object> closedCache;
+
+    private ScheduledExecutorService statsLogger;
+
+    private long loggedQueries;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (cacheEnabled) {
+            openCache = CacheBuilder.newBuilder()
+                    .maximumSize(cacheSize)
+                    .expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .build();
+            closedCache = CacheBuilder.newBuilder()
+                    .maximumSize(cacheSize)
+                    .expireAfterWrite(closedCacheTtl, TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .build();
+            if (statsInterval > 0) {
+                statsLogger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "analytics-cache-stats");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                statsLogger.scheduleWithFixedDelay(this::logCacheStats, statsInterval, statsInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (statsLogger != null) {
+            statsLogger.shutdownNow();
+        }
+    }
+
+    private void logCacheStats() {
+        final long hits = getCacheHits();
+        final long misses = getCacheMisses();
+        // nothing to report while the analytics are not used
+        if (hits + misses != loggedQueries) {
+            loggedQueries = hits + misses;
+            logger.info("Analytics cache: {} hits, {} misses, {} open and {} closed results kept",
+                    hits, misses, openCache.size(), closedCache.size());
+        }
+    }
 
     @Override
     public HitsAnalytics execute(CountQuery query) {
-        try {
+        final long from = alignFrom(query);
+        final long to = alignTo(query);
+        return cached(to, key(query, "count", from, to), () -> {
             CountResponse response = analyticsRepository.query(
                     QueryBuilders.count()
                             .query(query.getQuery())
                             .timeRange(
-                                    DateRangeBuilder.between(query.getFrom(), query.getTo()),
+                                    DateRangeBuilder.between(from, to),
                                     IntervalBuilder.interval(query.getInterval())
                             )
                             .root(query.getRootField(), query.getRootIdentifier())
                             .build());
 
             return convert(response);
-        } catch (AnalyticsException ae) {
-            logger.error("Unable to calculate analytics: ", ae);
-            throw new TechnicalManagementException("Unable to calculate analytics", ae);
-        }
+        });
     }
 
     @Override
     public HistogramAnalytics execute(DateHistogramQuery query) {
-        try {
+        final long from = alignFrom(query);
+        final long to = alignTo(query);
+        final StringBuilder key = key(query, "histogram", from, to);
+        if (query.getAggregations() != null) {
+            query.getAggregations().forEach(aggregation ->
+                    key.append('|').append(aggregation.type()).append(':').append(aggregation.field()));
+        }
+
+        return cached(to, key, () -> {
             DateHistogramQueryBuilder queryBuilder = QueryBuilders.dateHistogram()
                     .query(query.getQuery())
                     .timeRange(
-                            DateRangeBuilder.between(query.getFrom(), query.getTo()),
+                            DateRangeBuilder.between(from, to),
                             IntervalBuilder.interval(query.getInterval())
                     )
                     .root(query.getRootField(), query.getRootIdentifier());
@@ -112,19 +189,28 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
             DateHistogramResponse response = analyticsRepository.query(queryBuilder.build());
             return convert(response);
-        } catch (AnalyticsException ae) {
-            logger.error("Unable to calculate analytics: ", ae);
-            throw new TechnicalManagementException("Unable to calculate analytics", ae);
-        }
+        });
     }
 
     @Override
     public TopHitsAnalytics execute(GroupByQuery query) {
-        try {
+        final long from = alignFrom(query);
+        final long to = alignTo(query);
+        final StringBuilder key = key(query, "groupBy", from, to).append('|').append(query.getField());
+        if (query.getGroups() != null) {
+            key.append('|').append(new TreeMap<>(query.getGroups()));
+        }
+        if (query.getOrder() != null) {
+            key.append('|').append(query.getOrder().getField())
+                    .append(':').append(query.getOrder().isOrder())
+                    .append(':').append(query.getOrder().getType());
+        }
+
+        return cached(to, key, () -> {
             GroupByQueryBuilder queryBuilder = QueryBuilders.groupBy()
                     .query(query.getQuery())
                     .timeRange(
-                            DateRangeBuilder.between(query.getFrom(), query.getTo()),
+                            DateRangeBuilder.between(from, to),
                             IntervalBuilder.interval(query.getInterval())
                     )
                     .root(query.getRootField(), query.getRootIdentifier())
@@ -144,10 +230,78 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
             GroupByResponse response = analyticsRepository.query(queryBuilder.build());
             return convert(response);
+        });
+    }
+
+    @Override
+    public long getCacheHits() {
+        return (openCache == null) ? 0 : openCache.stats().hitCount() + closedCache.stats().hitCount();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return (openCache == null) ? 0 : openCache.stats().missCount() + closedCache.stats().missCount();
+    }
+
+    /**
+     * Run the query, or get its result from the cache. Identical queries running at the same time are only sent once
+     * to the repository.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(long to, StringBuilder key, AnalyticsLoader<T> loader) {
+        try {
+            if (openCache == null) {
+                return loader.load();
+            }
+
+            // Data of a bucket may still be indexed for a while after the end of the bucket
+            final boolean closed = to + closedDelay <= System.currentTimeMillis();
+            final Callable<Object> callable = loader::load;
+            return (T) (closed ? closedCache : openCache).get(key.toString(), callable);
         } catch (AnalyticsException ae) {
             logger.error("Unable to calculate analytics: ", ae);
             throw new TechnicalManagementException("Unable to calculate analytics", ae);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            logger.error("Unable to calculate analytics: ", ex.getCause());
+            throw new TechnicalManagementException("Unable to calculate analytics", ex.getCause());
+        }
+    }
+
+    /**
+     * Align the start of the query on the start of its first bucket, so that the queries made a few seconds apart
+     * share the same cache entry.
+     */
+    private static long alignFrom(AbstractQuery query) {
+        return (query.getInterval() > 0) ? query.getFrom() - (query.getFrom() % query.getInterval()) : query.getFrom();
+    }
+
+    /**
+     * Align the end of the query on the end of its last bucket.
+     */
+    private static long alignTo(AbstractQuery query) {
+        final long interval = query.getInterval();
+        if (interval <= 0 || query.getTo() % interval == 0) {
+            return query.getTo();
         }
+        return query.getTo() - (query.getTo() % interval) + interval;
+    }
+
+    private static StringBuilder key(AbstractQuery query, String type, long from, long to) {
+        return new StringBuilder(type)
+                .append('|').append(query.getQuery())
+                .append('|').append(query.getRootField())
+                .append('|').append(query.getRootIdentifier())
+                .append('|').append(query.getInterval())
+                .append('|').append(from)
+                .append('|').append(to);
+    }
+
+    @FunctionalInterface
+    private interface AnalyticsLoader<T> {
+        T load() throws AnalyticsException;
     }
 
     private HistogramAnalytics convert(DateHistogramResponse histogramResponse) {
@@ -184,28 +338,16 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
         if (analyticsBucket.getField().equals("application")) {
             // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(app -> {
-                metadata.put(app, getApplicationMetadata(app));
-            });
-
-            analyticsBucket.setMetadata(metadata);
+            analyticsBucket.setMetadata(new HashMap<>(
+                    referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.APPLICATION, bucket.data().keySet())));
         } else if (analyticsBucket.getField().equals("api")) {
             // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(api -> {
-                metadata.put(api, getAPIMetadata(api));
-            });
-
-            analyticsBucket.setMetadata(metadata);
+            analyticsBucket.setMetadata(new HashMap<>(
+                    referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.API, bucket.data().keySet())));
         } else if (analyticsBucket.getField().equals("tenant")) {
             // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(tenant -> {
-                metadata.put(tenant, getTenantMetadata(tenant));
-            });
-
-            analyticsBucket.setMetadata(metadata);
+            analyticsBucket.setMetadata(new HashMap<>(
+                    referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.TENANT, bucket.data().keySet())));
         }
 
         for (Map.Entry<String, List<Data>> dataBucket : bucket.data().entrySet()) {
@@ -255,17 +397,15 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             // Prepare metadata
             Map<String, Map<String, String>> metadata = new HashMap<>();
             if (topHitsAnalytics.getValues() != null) {
-                for (String key : topHitsAnalytics.getValues().keySet()) {
-                    switch(fieldName) {
-                        case "api": metadata.put(key, getAPIMetadata(key)); break;
-                        case "application": metadata.put(key, getApplicationMetadata(key)); break;
-                        case "plan": metadata.put(key, getPlanMetadata(key)); break;
-                        case "tenant": metadata.put(key, getTenantMetadata(key)); break;
-                        case "geoip.country_iso_code": metadata.put(key, getCountryName(key)); break;
-                        default:
-                            metadata.put(key, getGenericMetadata(key)); break;
-
-                    }
+                final Set<String> keys = topHitsAnalytics.getValues().keySet();
+                switch(fieldName) {
+                    case "api": metadata.putAll(referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.API, keys)); break;
+                    case "application": metadata.putAll(referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.APPLICATION, keys)); break;
+                    case "plan": metadata.putAll(referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.PLAN, keys)); break;
+                    case "tenant": metadata.putAll(referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.TENANT, keys)); break;
+                    case "geoip.country_iso_code": keys.forEach(key -> metadata.put(key, getCountryName(key))); break;
+                    default:
+                        keys.forEach(key -> metadata.put(key, getGenericMetadata(key))); break;
                 }
             }
 
@@ -275,68 +415,6 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return  topHitsAnalytics;
     }
 
-    private Map<String, String> getAPIMetadata(String api) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApiEntity apiEntity = apiService.findById(api);
-            metadata.put("name", apiEntity.getName());
-            metadata.put("version", apiEntity.getVersion());
-        } catch (ApiNotFoundException anfe) {
-            metadata.put("name", "Deleted API");
-            metadata.put("deleted", "true");
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getApplicationMetadata(String application) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApplicationEntity applicationEntity = applicationService.findById(application);
-            metadata.put("name", applicationEntity.getName());
-            if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                metadata.put("deleted", "true");
-            }
-        } catch (ApplicationNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            if (application.equals(APPLICATION_KEYLESS)) {
-                metadata.put("name", "Unknown application (keyless)");
-            } else {
-                metadata.put("name", "Deleted application");
-            }
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getPlanMetadata(String plan) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            PlanEntity planEntity = planService.findById(plan);
-            metadata.put("name", planEntity.getName());
-        } catch (PlanNotFoundException anfe) {
-            metadata.put("deleted", "true");
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getTenantMetadata(String tenant) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            TenantEntity tenantEntity = tenantService.findById(tenant);
-            metadata.put("name", tenantEntity.getName());
-        } catch (TenantNotFoundException tnfe) {
-            metadata.put("deleted", "true");
-        }
-
-        return metadata;
-    }
-
     private Map<String, String> getCountryName(String country_iso) {
         Map<String, String> metadata = new HashMap<>();
 
@@ -194,22 +194,8 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
             ApiKey key = optKey.get();
             if (!key.isRevoked()) {
-                ApiKey previousApiKey = new ApiKey(key);
-                key.setRevoked(true);
-                key.setUpdatedAt(new Date());
-                key.setRevokedAt(key.getUpdatedAt());
-
-                apiKeyRepository.update(key);
-
                 final PlanEntity plan = planService.findById(key.getPlan());
-                // Audit
-                auditService.createApiAuditLog(
-                        plan.getApis().iterator().next(),
-                        Collections.singletonMap(API_KEY, key.getKey()),
-                        APIKEY_REVOKED,
-                        key.getUpdatedAt(),
-                        previousApiKey,
-                        key);
+                revoke(key, plan.getApis().iterator().next(), new Date());
 
                 // notify
                 if (notify) {
@@ -234,6 +220,41 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
         }
     }
 
+    @Override
+    public void revokeBySubscription(String subscription, PlanEntity plan, Date revokedAt) {
+        try {
+            LOGGER.debug("Revoke API Keys of subscription {}", subscription);
+            final String api = plan.getApis().iterator().next();
+            for (ApiKey key : apiKeyRepository.findBySubscription(subscription)) {
+                final Date expireAt = key.getExpireAt();
+                if (!key.isRevoked() && (expireAt == null || !expireAt.after(revokedAt))) {
+                    revoke(key, api, revokedAt);
+                }
+            }
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to revoke keys of subscription {}", subscription, ex);
+            throw new TechnicalManagementException("An error occurs while trying to revoke keys of subscription " + subscription, ex);
+        }
+    }
+
+    private void revoke(ApiKey key, String api, Date revokedAt) throws TechnicalException {
+        ApiKey previousApiKey = new ApiKey(key);
+        key.setRevoked(true);
+        key.setUpdatedAt(revokedAt);
+        key.setRevokedAt(revokedAt);
+
+        apiKeyRepository.update(key);
+
+        // Audit
+        auditService.createApiAuditLog(
+                api,
+                Collections.singletonMap(API_KEY, key.getKey()),
+                APIKEY_REVOKED,
+                key.getUpdatedAt(),
+                previousApiKey,
+                key);
+    }
+
     @Override
     public Set<ApiKeyEntity> findBySubscription(String subscription) {
         try {
@@ -35,12 +35,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.gravitee.repository.management.model.Audit.AuditProperties.METADATA;
 import static io.gravitee.repository.management.model.Metadata.AuditEvent.METADATA_CREATED;
 import static io.gravitee.repository.management.model.Metadata.AuditEvent.METADATA_DELETED;
 import static io.gravitee.repository.management.model.Metadata.AuditEvent.METADATA_UPDATED;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * @author Azize ELAMRANI (azize at graviteesource.com)
@@ -63,25 +65,24 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
     @Autowired
     private AuditService auditService;
 
+    private final AtomicLong version = new AtomicLong();
+
     @Override
     public List<ApiMetadataEntity> findAllByApi(final String apiId) {
         try {
             LOGGER.debug("Find all metadata by api ID {}", apiId);
             final List<MetadataEntity> defaultMetadata = metadataService.findAllDefault();
-            final List<String> defaultMetadataKeys = defaultMetadata.stream().map(MetadataEntity::getKey).collect(toList());
+            final Set<String> defaultMetadataKeys = defaultMetadata.stream().map(MetadataEntity::getKey).collect(toSet());
 
             final List<Metadata> apiMetadata = metadataRepository.findByReferenceTypeAndReferenceId(MetadataReferenceType.API, apiId);
+            final Map<String, Metadata> apiMetadataByKey = new HashMap<>(apiMetadata.size());
+            apiMetadata.forEach(metadata -> apiMetadataByKey.putIfAbsent(metadata.getKey(), metadata));
 
-            final List<ApiMetadataEntity> allMetadata = new ArrayList<>();
+            final List<ApiMetadataEntity> allMetadata = new ArrayList<>(defaultMetadata.size() + apiMetadata.size());
 
             allMetadata.addAll(defaultMetadata.stream()
-                    .map(metadata -> {
-                        final Optional<Metadata> optApiMetadata = apiMetadata.stream()
-                                .filter(metadataEntity -> metadata.getKey().equals(metadataEntity.getKey()))
-                                .findAny();
-                        return convert(optApiMetadata, metadata, null);
-                    }).collect(toList()));
-
+                    .map(metadata -> convert(Optional.ofNullable(apiMetadataByKey.get(metadata.getKey())), metadata, null))
+                    .collect(toList()));
 
             allMetadata.addAll(apiMetadata.stream()
                     .filter(metadata -> !defaultMetadataKeys.contains(metadata.getKey()))
@@ -127,6 +128,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
         final ApiMetadataEntity apiMetadata = findByIdAndApi(metadataId, apiId);
         try {
             metadataRepository.delete(metadataId, apiMetadata.getApiId(), MetadataReferenceType.API);
+            version.incrementAndGet();
             // Audit
             auditService.createApiAuditLog(
                     apiId,
@@ -167,6 +169,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
             metadata.setCreatedAt(now);
             metadata.setUpdatedAt(now);
             metadataRepository.create(metadata);
+            version.incrementAndGet();
             // Audit
             auditService.createApiAuditLog(
                     apiEntity.getId(),
@@ -209,6 +212,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
             if (apiMetadata.isPresent()) {
                 metadata.setUpdatedAt(now);
                 savedMetadata = metadataRepository.update(metadata);
+                version.incrementAndGet();
                 // Audit
                 auditService.createApiAuditLog(
                         apiEntity.getId(),
@@ -221,6 +225,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
                 metadata.setCreatedAt(now);
                 metadata.setUpdatedAt(now);
                 savedMetadata = metadataRepository.create(metadata);
+                version.incrementAndGet();
                 // Audit
                 auditService.createApiAuditLog(
                         apiEntity.getId(),
@@ -241,6 +246,11 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
         }
     }
 
+    @Override
+    public long getVersion() {
+        return version.get() + metadataService.getVersion();
+    }
+
     private ApiMetadataEntity convert(final Optional<Metadata> optMetadata, final MetadataEntity defaultMetadata, final String apiId) {
         final Metadata metadata;
         if (optMetadata.isPresent()) {
@@ -20,7 +20,11 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.definition.model.EndpointGroup;
 import io.gravitee.definition.model.Path;
@@ -39,6 +43,7 @@ import io.gravitee.management.model.notification.GenericNotificationConfigEntity
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.model.plan.PlanQuery;
 import io.gravitee.management.service.*;
+import io.gravitee.management.service.event.ApiEvent;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.management.service.notification.HookScope;
@@ -54,14 +59,15 @@ import io.gravitee.repository.management.model.Visibility;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.xml.bind.DatatypeConverter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -84,10 +90,19 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * @author GraviteeSource Team
  */
 @Component
-public class ApiServiceImpl extends TransactionalService implements ApiService {
+public class ApiServiceImpl extends TransactionalService implements ApiService, InitializingBean,
+        EventListener<ApiEvent, ApiEntity> {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(ApiServiceImpl.class);
 
+    private final static ApiFieldExclusionFilter LIGHT_API_FILTER =
+            new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build();
+    /**
+     * Pictures are served apart, by the {@link PictureService}.
+     */
+    private final static ApiFieldExclusionFilter NO_PICTURE_FILTER =
+            new ApiFieldExclusionFilter.Builder().excludePicture().build();
+
     @Autowired
     private ApiRepository apiRepository;
     @Autowired
@@ -126,6 +141,33 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     private NotifierService notifierService;
     @Autowired
     private SwaggerService swaggerService;
+    @Autowired
+    private EventManager eventManager;
+    @Autowired
+    private PictureService pictureService;
+    @Autowired
+    private RatingService ratingService;
+    @Value("${api.context-path.index.ttl:60000}")
+    private long contextPathIndexTtl;
+
+    private final ContextPathIndex contextPathIndex = new ContextPathIndex();
+
+    /**
+     * Fingerprint of the deployment required fields of the current version of each API, see
+     * {@link #isSynchronized(String)}.
+     */
+    private final Cache<String, DeploymentFingerprint> deploymentFingerprints = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    /**
+     * Template model of each API, see {@link #findByIdForTemplates(String)}. It is rebuilt when the API or any
+     * metadata has changed, and at least every minute to follow the changes of primary owner.
+     */
+    private final Cache<String, TemplateModel> templateModels = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
 
     @Override
     public ApiEntity create(NewApiEntity newApiEntity, String userId) throws ApiAlreadyExistsException {
@@ -227,6 +269,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 membership.setCreatedAt(repoApi.getCreatedAt());
                 membership.setUpdatedAt(repoApi.getCreatedAt());
                 membershipRepository.create(membership);
+                membershipService.invalidateMemberPermissions(primaryOwner.getId());
                 // create the default mail notification
                 if (primaryOwner.getEmail() != null && !primaryOwner.getEmail().isEmpty()) {
                     GenericNotificationConfigEntity notificationConfigEntity = new GenericNotificationConfigEntity();
@@ -240,7 +283,9 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 }
 
                 //TODO add membership log
-                return convert(createdApi, primaryOwner);
+                ApiEntity createdApiEntity = convert(createdApi, primaryOwner);
+                indexContextPath(createdApiEntity);
+                return createdApiEntity;
             } else {
                 LOGGER.error("Unable to create API {} because of previous error.", api.getName());
                 throw new TechnicalManagementException("Unable to create API " + api.getName());
@@ -263,25 +308,56 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             newContextPath = newContextPath.substring(0, newContextPath.length() - 1);
         }
 
-        final int indexOfEndOfNewSubContextPath = newContextPath.lastIndexOf('/', 1);
-        final String newSubContextPath = newContextPath.substring(0, indexOfEndOfNewSubContextPath <= 0 ?
-                newContextPath.length() : indexOfEndOfNewSubContextPath) + '/';
+        final String newSubContextPath = getSubContextPath(newContextPath);
 
-        final boolean contextPathExists = apiRepository.search(null).stream()
-                .filter(api -> !api.getId().equals(apiId))
-                .anyMatch(api -> {
-                    final String contextPath = convert(api, null).getProxy().getContextPath();
-                    final int indexOfEndOfSubContextPath = contextPath.lastIndexOf('/', 1);
-                    final String subContextPath = contextPath.substring(0, indexOfEndOfSubContextPath <= 0 ?
-                            contextPath.length() : indexOfEndOfSubContextPath) + '/';
+        if (!contextPathIndex.isLoaded(contextPathIndexTtl)) {
+            loadContextPathIndex();
+        }
 
-                    return subContextPath.startsWith(newSubContextPath) || newSubContextPath.startsWith(subContextPath);
-                });
-        if (contextPathExists) {
+        if (contextPathIndex.conflicts(newSubContextPath, apiId)) {
             throw new ApiContextPathAlreadyExistsException(newSubContextPath);
         }
     }
 
+    private void loadContextPathIndex() throws TechnicalException {
+        final Map<String, String> subContextPaths = new HashMap<>();
+        apiRepository.search(null).forEach(api -> {
+            final Proxy proxy = convert(api, null).getProxy();
+            if (proxy != null && proxy.getContextPath() != null) {
+                subContextPaths.put(api.getId(), getSubContextPath(proxy.getContextPath()));
+            }
+        });
+        contextPathIndex.load(subContextPaths);
+    }
+
+    private void indexContextPath(final ApiEntity api) {
+        if (api.getProxy() != null && api.getProxy().getContextPath() != null) {
+            contextPathIndex.put(api.getId(), getSubContextPath(api.getProxy().getContextPath()));
+        }
+    }
+
+    private String getSubContextPath(final String contextPath) {
+        final int indexOfEndOfSubContextPath = contextPath.lastIndexOf('/', 1);
+        return contextPath.substring(0, indexOfEndOfSubContextPath <= 0 ?
+                contextPath.length() : indexOfEndOfSubContextPath) + '/';
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Context paths of the APIs created or updated from other nodes are received through the sync events
+        eventManager.subscribeForEvents(this, ApiEvent.class);
+    }
+
+    @Override
+    public void onEvent(io.gravitee.common.event.Event<ApiEvent, ApiEntity> event) {
+        switch (event.type()) {
+            case DEPLOY:
+            case UPDATE:
+                indexContextPath(event.content());
+                break;
+        }
+    }
+
     @Override
     public ApiEntity findById(String apiId) {
         try {
@@ -290,19 +366,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             Optional<Api> api = apiRepository.findById(apiId);
 
             if (api.isPresent()) {
-                Optional<Membership> primaryOwnerMembership = membershipRepository.findByReferenceAndRole(
-                        MembershipReferenceType.API,
-                        api.get().getId(),
-                        RoleScope.API,
-                        SystemRole.PRIMARY_OWNER.name())
-                        .stream()
-                        .findFirst();
-                if (!primaryOwnerMembership.isPresent()) {
-                    LOGGER.error("The API {} doesn't have any primary owner.", apiId);
-                    throw new TechnicalException("The API " + apiId + " doesn't have any primary owner.");
-                }
-
-                return convert(api.get(), userService.findById(primaryOwnerMembership.get().getUserId()));
+                return convertWithPrimaryOwner(api.get());
             }
 
             throw new ApiNotFoundException(apiId);
@@ -312,6 +376,22 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         }
     }
 
+    private ApiEntity convertWithPrimaryOwner(Api api) throws TechnicalException {
+        Optional<Membership> primaryOwnerMembership = membershipRepository.findByReferenceAndRole(
+                MembershipReferenceType.API,
+                api.getId(),
+                RoleScope.API,
+                SystemRole.PRIMARY_OWNER.name())
+                .stream()
+                .findFirst();
+        if (!primaryOwnerMembership.isPresent()) {
+            LOGGER.error("The API {} doesn't have any primary owner.", api.getId());
+            throw new TechnicalException("The API " + api.getId() + " doesn't have any primary owner.");
+        }
+
+        return convert(api, userService.findById(primaryOwnerMembership.get().getUserId()));
+    }
+
     @Override
     public Set<ApiEntity> findByVisibility(io.gravitee.management.model.Visibility visibility) {
         try {
@@ -338,8 +418,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     public Set<ApiEntity> findAllLight() {
         try {
             LOGGER.debug("Find all APIs without some fields (definition, picture...)");
-            return convert(apiRepository.search(null,
-                    new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build()));
+            return convert(apiRepository.search(null, LIGHT_API_FILTER));
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to find all APIs light", ex);
             throw new TechnicalManagementException("An error occurs while trying to find all APIs light", ex);
@@ -350,22 +429,88 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     public Set<ApiEntity> findByUser(String userId, ApiQuery apiQuery) {
         try {
             LOGGER.debug("Find APIs by user {}", userId);
-            final String[] groupIds = membershipRepository
-                    .findByUserAndReferenceType(userId, MembershipReferenceType.GROUP).stream()
-                    .filter(m -> m.getRoles().keySet().contains(RoleScope.API.getId()))
-                    .map(Membership::getReferenceId)
-                    .toArray(String[]::new);
-            final ApiCriteria.Builder criteria = queryToCriteria(apiQuery).visibility(PUBLIC).ids(userId);
-            if (groupIds != null && groupIds.length > 0 && groupIds[0] != null) {
-                criteria.groups(groupIds);
-            }
-            return convert(apiRepository.search(criteria.build()));
+            return convert(apiRepository.search(userCriteria(userId, apiQuery), NO_PICTURE_FILTER));
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to find APIs for user {}", userId, ex);
             throw new TechnicalManagementException("An error occurs while trying to find APIs for user " + userId, ex);
         }
     }
 
+    @Override
+    public Set<String> findIdsByUser(String userId) {
+        try {
+            LOGGER.debug("Find API ids by user {}", userId);
+            return withPrimaryOwner(apiRepository.search(userCriteria(userId, null), LIGHT_API_FILTER))
+                    .map(Api::getId)
+                    .collect(Collectors.toSet());
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find API ids for user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find API ids for user " + userId, ex);
+        }
+    }
+
+    @Override
+    public Set<ApiEntity> findSummaries(String userId, ApiQuery apiQuery) {
+        try {
+            LOGGER.debug("Find API summaries by user {}", userId);
+            final ApiCriteria criteria = (userId == null) ?
+                    queryToCriteria(apiQuery).build() : userCriteria(userId, apiQuery);
+            // No definition to parse and no primary owner user to look for
+            return withPrimaryOwner(apiRepository.search(criteria, LIGHT_API_FILTER))
+                    .map(this::convert)
+                    .collect(Collectors.toSet());
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find API summaries for user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find API summaries for user " + userId, ex);
+        }
+    }
+
+    @Override
+    public long countByUser(String userId, String roleName) {
+        try {
+            LOGGER.debug("Count APIs of user {} with role {}", userId, roleName);
+            return membershipRepository.findByUserAndReferenceTypeAndRole(
+                    userId, MembershipReferenceType.API, RoleScope.API, roleName).size();
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to count APIs of user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to count APIs of user " + userId, ex);
+        }
+    }
+
+    /**
+     * Skip the APIs without primary owner, as {@link #convert(List)} does, with a single membership query.
+     */
+    private Stream<Api> withPrimaryOwner(final List<Api> apis) throws TechnicalException {
+        if (apis == null || apis.isEmpty()) {
+            return Stream.empty();
+        }
+        final Set<String> ownedApiIds = membershipRepository.findByReferencesAndRole(
+                MembershipReferenceType.API,
+                apis.stream().map(Api::getId).collect(toList()),
+                RoleScope.API,
+                SystemRole.PRIMARY_OWNER.name())
+                .stream()
+                .map(Membership::getReferenceId)
+                .collect(Collectors.toSet());
+        if (ownedApiIds.size() < apis.size()) {
+            LOGGER.error("{} apis has no identified primary owners.", apis.size() - ownedApiIds.size());
+        }
+        return apis.stream().filter(api -> ownedApiIds.contains(api.getId()));
+    }
+
+    private ApiCriteria userCriteria(String userId, ApiQuery apiQuery) throws TechnicalException {
+        final String[] groupIds = membershipRepository
+                .findByUserAndReferenceType(userId, MembershipReferenceType.GROUP).stream()
+                .filter(m -> m.getRoles().keySet().contains(RoleScope.API.getId()))
+                .map(Membership::getReferenceId)
+                .toArray(String[]::new);
+        final ApiCriteria.Builder criteria = queryToCriteria(apiQuery).visibility(PUBLIC).ids(userId);
+        if (groupIds != null && groupIds.length > 0 && groupIds[0] != null) {
+            criteria.groups(groupIds);
+        }
+        return criteria.build();
+    }
+
     @Override
     public ApiEntity update(String apiId, UpdateApiEntity updateApiEntity) {
         try {
@@ -404,6 +549,13 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 }
 
                 Api updatedApi = apiRepository.update(api);
+                if (updateApiEntity.getPicture() != null) {
+                    pictureService.evict(PictureService.Type.API, apiId);
+                }
+                // The members of the groups may have gained or lost access to the API
+                if (!Objects.equals(apiToUpdate.getGroups(), api.getGroups())) {
+                    membershipService.invalidateMemberPermissions();
+                }
 
                 // Audit
                 auditService.createApiAuditLog(
@@ -414,7 +566,9 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                         apiToUpdate,
                         updatedApi);
 
-                return convert(singletonList(updatedApi)).iterator().next();
+                ApiEntity updatedApiEntity = convert(singletonList(updatedApi)).iterator().next();
+                indexContextPath(updatedApiEntity);
+                return updatedApiEntity;
             } else {
                 LOGGER.error("Unable to update API {} because of previous error.", api.getId());
                 throw new TechnicalManagementException("Unable to update API " + apiId);
@@ -465,6 +619,9 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
                 // Delete API
                 apiRepository.delete(apiId);
+                contextPathIndex.remove(apiId);
+                pictureService.evict(PictureService.Type.API, apiId);
+                ratingService.evictSummary(apiId);
                 // Delete top API
                 topApiService.delete(apiId);
                 // Audit
@@ -524,7 +681,11 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     public boolean isSynchronized(String apiId) {
         try {
             // 1_ First, check the API state
-            ApiEntity api = findById(apiId);
+            Optional<Api> optApi = apiRepository.findById(apiId);
+            if (!optApi.isPresent()) {
+                throw new ApiNotFoundException(apiId);
+            }
+            final Api api = optApi.get();
 
             Map<String, Object> properties = new HashMap<>();
             properties.put(Event.EventProperties.API_ID.getValue(), apiId);
@@ -537,18 +698,18 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 // According to page size, we know that we have only one element in the list
                 EventEntity lastEvent = events.getContent().get(0);
 
-                //TODO: Done only for backward compatibility with 0.x. Must be removed later (1.1.x ?)
-                boolean enabled = objectMapper.getDeserializationConfig().isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-                objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-                Api payloadEntity = objectMapper.readValue(lastEvent.getPayload(), Api.class);
-                objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, enabled);
-
-                final ApiEntity deployedApi = convert(payloadEntity);
-                // Remove policy description from sync check
-                removeDescriptionFromPolicies(api);
-                removeDescriptionFromPolicies(deployedApi);
+                String deployedFingerprint = (lastEvent.getProperties() == null) ? null :
+                        lastEvent.getProperties().get(ApiSynchronizationProcessor.DEPLOYMENT_FINGERPRINT);
+                if (deployedFingerprint == null) {
+                    // Events created before the fingerprint was stored with them
+                    //TODO: Done only for backward compatibility with 0.x. Must be removed later (1.1.x ?)
+                    Api payloadEntity = objectMapper.readerFor(Api.class)
+                            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                            .readValue(lastEvent.getPayload());
+                    deployedFingerprint = apiSynchronizationProcessor.fingerprint(convert(payloadEntity));
+                }
 
-                boolean sync = apiSynchronizationProcessor.processCheckSynchronization(deployedApi, api);
+                boolean sync = deployedFingerprint != null && deployedFingerprint.equals(getDeploymentFingerprint(api));
 
                 // 2_ If API definition is synchronized, check if there is any modification for API's plans
                 // but only for published or closed plan
@@ -568,15 +729,23 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         return false;
     }
 
-    private void removeDescriptionFromPolicies(final ApiEntity api) {
-        if (api.getPaths() != null) {
-            api.getPaths().forEach((s, path) -> {
-                if (path.getRules() != null) {
-                    path.getRules().forEach(rule -> rule.setDescription(""));
-                }
-            });
+    /**
+     * @return the fingerprint of the current version of the API, only computed once per update of the API.
+     */
+    private String getDeploymentFingerprint(Api api) {
+        final DeploymentFingerprint cached = deploymentFingerprints.getIfPresent(api.getId());
+        if (cached != null && Objects.equals(cached.updatedAt, api.getUpdatedAt())) {
+            return cached.value;
         }
+        return putDeploymentFingerprint(api.getId(), api.getUpdatedAt(), convert(api));
+    }
 
+    private String putDeploymentFingerprint(String apiId, Date updatedAt, ApiEntity api) {
+        final String fingerprint = apiSynchronizationProcessor.fingerprint(api);
+        if (fingerprint != null) {
+            deploymentFingerprints.put(apiId, new DeploymentFingerprint(updatedAt, fingerprint));
+        }
+        return fingerprint;
     }
 
     @Override
@@ -612,9 +781,15 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             apiValue.setDeployedAt(apiValue.getUpdatedAt());
             apiValue = apiRepository.update(apiValue);
 
+            final ApiEntity deployedApi = convert(singletonList(apiValue)).iterator().next();
+
             Map<String, String> properties = new HashMap<>();
             properties.put(Event.EventProperties.API_ID.getValue(), apiValue.getId());
             properties.put(Event.EventProperties.USER.getValue(), userId);
+            final String fingerprint = putDeploymentFingerprint(apiId, apiValue.getUpdatedAt(), deployedApi);
+            if (fingerprint != null) {
+                properties.put(ApiSynchronizationProcessor.DEPLOYMENT_FINGERPRINT, fingerprint);
+            }
 
             // Clear useless field for history
             apiValue.setPicture(null);
@@ -622,7 +797,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             // And create event
             eventService.create(eventType, objectMapper.writeValueAsString(apiValue), properties);
 
-            return convert(singletonList(apiValue)).iterator().next();
+            return deployedApi;
         } else {
             throw new ApiNotFoundException(apiId);
         }
@@ -654,6 +829,12 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 Map<String, String> properties = new HashMap<>();
                 properties.put(Event.EventProperties.API_ID.getValue(), lastPublishedAPI.getId());
                 properties.put(Event.EventProperties.USER.getValue(), userId);
+                // The definition is the published one, so is its fingerprint
+                if (event.getProperties() != null
+                        && event.getProperties().get(ApiSynchronizationProcessor.DEPLOYMENT_FINGERPRINT) != null) {
+                    properties.put(ApiSynchronizationProcessor.DEPLOYMENT_FINGERPRINT,
+                            event.getProperties().get(ApiSynchronizationProcessor.DEPLOYMENT_FINGERPRINT));
+                }
 
                 // Clear useless field for history
                 lastPublishedAPI.setPicture(null);
@@ -802,11 +983,22 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             if (membersDefinition != null && membersDefinition.isArray()) {
                 MemberEntity memberAsPrimaryOwner = null;
 
+                final List<MemberToImport> membersToImport = new ArrayList<>(membersDefinition.size());
                 for (final JsonNode memberNode : membersDefinition) {
-                    MemberToImport memberEntity = objectMapper.readValue(memberNode.toString(), MemberToImport.class);
-                    Collection<SearchableUser> idpUsers = identityService.search(memberEntity.getUsername());
+                    membersToImport.add(objectMapper.readValue(memberNode.toString(), MemberToImport.class));
+                }
 
-                    if (!idpUsers.isEmpty()) {
+                // Search all the members at once
+                final Map<String, Collection<SearchableUser>> idpUsersByUsername = identityService.search(
+                        membersToImport.stream()
+                                .map(MemberToImport::getUsername)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet()));
+
+                for (final MemberToImport memberEntity : membersToImport) {
+                    Collection<SearchableUser> idpUsers = idpUsersByUsername.get(memberEntity.getUsername());
+
+                    if (idpUsers != null && !idpUsers.isEmpty()) {
                         SearchableUser user = idpUsers.iterator().next();
 
                         if (!members.contains(memberEntity)
@@ -887,21 +1079,20 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
     @Override
     public InlinePictureEntity getPicture(String apiId) {
-        ApiEntity apiEntity = findById(apiId);
-        InlinePictureEntity imageEntity = new InlinePictureEntity();
-        if (apiEntity.getPicture() == null) {
+        return getPicture(apiId, null, null);
+    }
+
+    @Override
+    public InlinePictureEntity getPicture(String apiId, String version, Integer size) {
+        InlinePictureEntity imageEntity = pictureService.getPicture(PictureService.Type.API, apiId, version, size);
+        if (imageEntity == null) {
+            imageEntity = new InlinePictureEntity();
             imageEntity.setType("image/png");
             try {
                 imageEntity.setContent(IOUtils.toByteArray(new FileInputStream(defaultIcon)));
             } catch (IOException ioe) {
                 LOGGER.error("Default icon for API does not exist", ioe);
             }
-
-        } else {
-            String[] parts = apiEntity.getPicture().split(";", 2);
-            imageEntity.setType(parts[0].split(":")[1]);
-            String base64Content = apiEntity.getPicture().split(",", 2)[1];
-            imageEntity.setContent(DatatypeConverter.parseBase64Binary(base64Content));
         }
 
         return imageEntity;
@@ -909,7 +1100,9 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
     @Override
     public void deleteViewFromAPIs(final String viewId) {
-        findAll().forEach(api -> {
+        final ApiQuery query = new ApiQuery();
+        query.setView(viewId);
+        findSummaries(null, query).forEach(api -> {
             if (api.getViews() != null && api.getViews().contains(viewId)) {
                 removeView(api.getId(), viewId);
             }
@@ -944,17 +1137,48 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
     @Override
     public void deleteTagFromAPIs(final String tagId) {
-        findAll().forEach(api -> {
-            if (api.getTags() != null && api.getTags().contains(tagId)) {
-                removeTag(api.getId(), tagId);
-            }
-        });
+        try {
+            // Tags are only stored in the definition: only parse the ones that may contain the tag
+            final String quotedTagId = '"' + tagId + '"';
+            apiRepository.search(null, NO_PICTURE_FILTER).stream()
+                    .filter(api -> api.getDefinition() != null && api.getDefinition().contains(quotedTagId))
+                    .map(this::convert)
+                    .filter(api -> api.getTags() != null && api.getTags().contains(tagId))
+                    .forEach(api -> removeTag(api, tagId));
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to remove tag {} from APIs", tagId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to remove tag " + tagId + " from APIs", ex);
+        }
     }
 
     @Override
     public ApiModelEntity findByIdForTemplates(String apiId) {
-        final ApiEntity apiEntity = findById(apiId);
+        try {
+            LOGGER.debug("Find API model by ID: {}", apiId);
 
+            // Read the version first so that a model built during a metadata change is never cached as up to date
+            final long metadataVersion = apiMetadataService.getVersion();
+            final Optional<Api> api = apiRepository.findById(apiId);
+            if (!api.isPresent()) {
+                throw new ApiNotFoundException(apiId);
+            }
+
+            final TemplateModel cached = templateModels.getIfPresent(apiId);
+            if (cached != null && cached.metadataVersion == metadataVersion
+                    && Objects.equals(cached.updatedAt, api.get().getUpdatedAt())) {
+                return cached.value;
+            }
+
+            final ApiModelEntity apiModelEntity = convertForTemplates(convertWithPrimaryOwner(api.get()));
+            templateModels.put(apiId, new TemplateModel(api.get().getUpdatedAt(), metadataVersion, apiModelEntity));
+            return apiModelEntity;
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find an API model using its ID: {}", apiId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find an API model using its ID: " + apiId, ex);
+        }
+    }
+
+    private ApiModelEntity convertForTemplates(ApiEntity apiEntity) {
         final ApiModelEntity apiModelEntity = new ApiModelEntity();
 
         apiModelEntity.setId(apiEntity.getId());
@@ -978,7 +1202,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         apiModelEntity.setProperties(apiEntity.getProperties());
         apiModelEntity.setProxy(apiEntity.getProxy());
 
-        final List<ApiMetadataEntity> metadataList = apiMetadataService.findAllByApi(apiId);
+        final List<ApiMetadataEntity> metadataList = apiMetadataService.findAllByApi(apiEntity.getId());
 
         if (metadataList != null) {
             final Map<String, String> mapMetadata = new HashMap<>(metadataList.size());
@@ -1016,7 +1240,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     public Collection<ApiEntity> search(final ApiQuery query) {
         try {
             LOGGER.debug("Search APIs by {}", query);
-            return convert(apiRepository.search(queryToCriteria(query).build())).stream()
+            return convert(apiRepository.search(queryToCriteria(query).build(), NO_PICTURE_FILTER)).stream()
                     .filter(api -> query.getTag() == null || (api.getTags() != null && api.getTags().contains(query.getTag())))
                     .filter(api -> query.getContextPath() == null || query.getContextPath().equals(api.getProxy().getContextPath()))
                     .collect(toList());
@@ -1050,14 +1274,13 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         return builder;
     }
 
-    private void removeTag(String apiId, String tagId) throws TechnicalManagementException {
+    private void removeTag(ApiEntity apiEntity, String tagId) throws TechnicalManagementException {
         try {
-            ApiEntity apiEntity = this.findById(apiId);
             apiEntity.getTags().remove(tagId);
-            update(apiId, ApiService.convert(apiEntity));
+            update(apiEntity.getId(), ApiService.convert(apiEntity));
         } catch (Exception ex) {
-            LOGGER.error("An error occurs while removing tag from API: {}", apiId, ex);
-            throw new TechnicalManagementException("An error occurs while removing tag from API: " + apiId, ex);
+            LOGGER.error("An error occurs while removing tag from API: {}", apiEntity.getId(), ex);
+            throw new TechnicalManagementException("An error occurs while removing tag from API: " + apiEntity.getId(), ex);
         }
     }
 
@@ -1253,6 +1476,28 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         return lifecycleState;
     }
 
+    private static final class DeploymentFingerprint {
+        private final Date updatedAt;
+        private final String value;
+
+        private DeploymentFingerprint(Date updatedAt, String value) {
+            this.updatedAt = updatedAt;
+            this.value = value;
+        }
+    }
+
+    private static final class TemplateModel {
+        private final Date updatedAt;
+        private final long metadataVersion;
+        private final ApiModelEntity value;
+
+        private TemplateModel(Date updatedAt, long metadataVersion, ApiModelEntity value) {
+            this.updatedAt = updatedAt;
+            this.metadataVersion = metadataVersion;
+            this.value = value;
+        }
+    }
+
     private static class MemberToImport {
         private String username;
         private String role;
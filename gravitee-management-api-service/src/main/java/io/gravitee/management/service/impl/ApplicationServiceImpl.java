@@ -65,6 +65,9 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
     @Autowired
     private MembershipRepository membershipRepository;
 
+    @Autowired
+    private MembershipService membershipService;
+
     @Autowired
     private GroupService groupService;
 
@@ -246,6 +249,7 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             membership.setCreatedAt(application.getCreatedAt());
             membership.setUpdatedAt(application.getCreatedAt());
             membershipRepository.create(membership);
+            membershipService.invalidateMemberPermissions(userId);
             // create the default mail notification
             UserEntity userEntity = userService.findById(userId);
             if (userEntity.getEmail() != null && !userEntity.getEmail().isEmpty()) {
@@ -299,6 +303,10 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             application.setUpdatedAt(new Date());
 
             Application updatedApplication =  applicationRepository.update(application);
+            // The members of the groups may have gained or lost access to the application
+            if (!Objects.equals(optApplicationToUpdate.get().getGroups(), application.getGroups())) {
+                membershipService.invalidateMemberPermissions();
+            }
 
             // Audit
             auditService.createApplicationAuditLog(
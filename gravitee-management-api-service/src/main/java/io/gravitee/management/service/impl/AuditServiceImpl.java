@@ -24,6 +24,8 @@ import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.audit.AuditEntity;
 import io.gravitee.management.model.audit.AuditQuery;
 import io.gravitee.management.service.AuditService;
+import io.gravitee.management.service.ReferenceMetadataResolver;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.*;
 import io.gravitee.repository.management.api.search.AuditCriteria.Builder;
@@ -31,11 +33,17 @@ import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static io.gravitee.management.service.impl.MetadataServiceImpl.getDefautReferenceId;
@@ -45,30 +53,43 @@ import static io.gravitee.management.service.impl.MetadataServiceImpl.getDefautR
  * @author GraviteeSource Team
  */
 @Component
-public class AuditServiceImpl extends AbstractService implements AuditService {
+public class AuditServiceImpl extends AbstractService implements AuditService, InitializingBean, DisposableBean {
 
     private final Logger LOGGER = LoggerFactory.getLogger(AuditServiceImpl.class);
 
+    /**
+     * Time during which the writer waits for an audit log before checking whether it has been stopped.
+     */
+    private static final long POLL_TIMEOUT = 500;
+
     @Autowired
     private AuditRepository auditRepository;
 
     @Autowired
-    private PageRepository pageRepository;
+    private MetadataRepository metadataRepository;
 
     @Autowired
-    private PlanRepository planRepository;
+    private ReferenceMetadataResolver referenceMetadataResolver;
 
     @Autowired
-    private MetadataRepository metadataRepository;
+    private ObjectMapper mapper;
 
-    @Autowired
-    private GroupRepository groupRepository;
+    @Value("${audit.queue.capacity:10000}")
+    private int queueCapacity;
 
-    @Autowired
-    private UserRepository userRepository;
+    @Value("${audit.batch.size:100}")
+    private int batchSize;
 
-    @Autowired
-    private ObjectMapper mapper;
+    @Value("${audit.shutdown.timeout:10000}")
+    private long shutdownTimeout;
+
+    private BlockingQueue<PendingAudit> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong overflowedAudits = new AtomicLong();
 
     @Override
     public MetadataPage<AuditEntity> search(AuditQuery query) {
@@ -109,25 +130,34 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     }
 
     private Map<String, String> getMetadata(List<AuditEntity> content) {
-        Map<String, String> metadata = new HashMap<>();
+        // resolve the referenced entities in batch, by type
+        Map<ReferenceMetadataResolver.Type, Set<String>> references = new EnumMap<>(ReferenceMetadataResolver.Type.class);
         for (AuditEntity auditEntity : content) {
-            //add user's display name
-            String metadataKey = "USER:"+auditEntity.getUser()+":name";
-            String name = auditEntity.getUser();
-            try {
-                Optional<User> optUser = userRepository.findById(auditEntity.getUser());
-                if (optUser.isPresent()) {
-                    if (optUser.get().getFirstname() != null && optUser.get().getLastname() != null) {
-                        name = optUser.get().getFirstname() + " " + optUser.get().getLastname();
-                    } else {
-                        name = optUser.get().getUsername();
+            references.computeIfAbsent(ReferenceMetadataResolver.Type.USER, type -> new HashSet<>()).add(auditEntity.getUser());
+            if (auditEntity.getProperties() != null) {
+                for (Map.Entry<String, String> property : auditEntity.getProperties().entrySet()) {
+                    ReferenceMetadataResolver.Type type = getReferenceType(property.getKey());
+                    if (type != null) {
+                        references.computeIfAbsent(type, t -> new HashSet<>()).add(property.getValue());
                     }
                 }
-            } catch (TechnicalException e) {
-                LOGGER.error("Error finding metadata {}", auditEntity.getUser());
-
             }
-            metadata.put(metadataKey, name);
+        }
+        Map<ReferenceMetadataResolver.Type, Map<String, Map<String, String>>> resolvedReferences = new EnumMap<>(ReferenceMetadataResolver.Type.class);
+        references.forEach((type, ids) -> {
+            try {
+                resolvedReferences.put(type, referenceMetadataResolver.resolve(type, ids));
+            } catch (TechnicalManagementException e) {
+                LOGGER.error("Error finding metadata {}", ids);
+                resolvedReferences.put(type, Collections.emptyMap());
+            }
+        });
+
+        Map<String, String> metadata = new HashMap<>();
+        for (AuditEntity auditEntity : content) {
+            //add user's display name
+            String metadataKey = "USER:"+auditEntity.getUser()+":name";
+            metadata.put(metadataKey, getName(resolvedReferences, ReferenceMetadataResolver.Type.USER, auditEntity.getUser()));
 
             //add property metadata
             if (auditEntity.getProperties() != null) {
@@ -138,55 +168,26 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                             add("name").
                             toString();
                     if (!metadata.containsKey(metadataKey)) {
-                        name = property.getValue();
-                        try {
-                            switch (Audit.AuditProperties.valueOf(property.getKey())) {
-                                case PAGE:
-                                    Optional<io.gravitee.repository.management.model.Page> optPage = pageRepository.findById(property.getValue());
-                                    if (optPage.isPresent()) {
-                                        name = optPage.get().getName();
-                                    }
-                                    break;
-                                case PLAN:
-                                    Optional<Plan> optPlan = planRepository.findById(property.getValue());
-                                    if (optPlan.isPresent()) {
-                                        name = optPlan.get().getName();
-                                    }
-                                    break;
-                                case METADATA:
-                                    MetadataReferenceType refType = (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType()))
-                                            ? MetadataReferenceType.API :
-                                            (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) ?
-                                                    MetadataReferenceType.APPLICATION :
-                                                    MetadataReferenceType.DEFAULT;
-                                    String refId = refType.equals(MetadataReferenceType.DEFAULT) ? getDefautReferenceId() : auditEntity.getReferenceId();
-
-                                    Optional<Metadata> optMetadata = metadataRepository.findById(property.getValue(), refId, refType);
-                                    if (optMetadata.isPresent()) {
-                                        name = optMetadata.get().getName();
-                                    }
-                                    break;
-                                case GROUP:
-                                    Optional<Group> optGroup = groupRepository.findById(property.getValue());
-                                    if (optGroup.isPresent()) {
-                                        name = optGroup.get().getName();
-                                    }
-                                    break;
-                                case USER:
-                                    Optional<User> optUser = userRepository.findById(property.getValue());
-                                    if (optUser.isPresent()) {
-                                        if (optUser.get().getFirstname() != null && optUser.get().getLastname() != null) {
-                                            name = optUser.get().getFirstname() + " " + optUser.get().getLastname();
-                                        } else {
-                                            name = optUser.get().getUsername();
-                                        }
-                                    }
-                                default:
-                                    break;
+                        String name = property.getValue();
+                        ReferenceMetadataResolver.Type type = getReferenceType(property.getKey());
+                        if (type != null) {
+                            name = getName(resolvedReferences, type, property.getValue());
+                        } else if (Audit.AuditProperties.METADATA.name().equals(property.getKey())) {
+                            try {
+                                MetadataReferenceType refType = (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType()))
+                                        ? MetadataReferenceType.API :
+                                        (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) ?
+                                                MetadataReferenceType.APPLICATION :
+                                                MetadataReferenceType.DEFAULT;
+                                String refId = refType.equals(MetadataReferenceType.DEFAULT) ? getDefautReferenceId() : auditEntity.getReferenceId();
+
+                                Optional<Metadata> optMetadata = metadataRepository.findById(property.getValue(), refId, refType);
+                                if (optMetadata.isPresent()) {
+                                    name = optMetadata.get().getName();
+                                }
+                            } catch (TechnicalException e) {
+                                LOGGER.error("Error finding metadata {}", metadataKey);
                             }
-                        } catch (TechnicalException e) {
-                            LOGGER.error("Error finding metadata {}", metadataKey);
-                            name = property.getValue();
                         }
                         metadata.put(metadataKey, name);
                     }
@@ -196,6 +197,27 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
         return metadata;
     }
 
+    private ReferenceMetadataResolver.Type getReferenceType(String auditProperty) {
+        switch (Audit.AuditProperties.valueOf(auditProperty)) {
+            case PAGE:
+                return ReferenceMetadataResolver.Type.PAGE;
+            case PLAN:
+                return ReferenceMetadataResolver.Type.PLAN;
+            case GROUP:
+                return ReferenceMetadataResolver.Type.GROUP;
+            case USER:
+                return ReferenceMetadataResolver.Type.USER;
+            default:
+                return null;
+        }
+    }
+
+    private String getName(Map<ReferenceMetadataResolver.Type, Map<String, Map<String, String>>> resolvedReferences,
+                           ReferenceMetadataResolver.Type type, String id) {
+        Map<String, String> resolved = resolvedReferences.getOrDefault(type, Collections.emptyMap()).get(id);
+        return (resolved == null || resolved.get("name") == null) ? id : resolved.get("name");
+    }
+
     @Override
     public void createApiAuditLog(String apiId, Map<Audit.AuditProperties,String> properties, Audit.AuditEvent event, Date createdAt,
                                   Object oldValue, Object newValue) {
@@ -257,37 +279,167 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                 newValue);
     }
 
-    @Async
-    protected void create(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
-                          Audit.AuditEvent event, String userId, Date createdAt,
-                          Object oldValue, Object newValue) {
+    private void create(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
+                        Audit.AuditEvent event, String userId, Date createdAt,
+                        Object oldValue, Object newValue) {
+
+        evictReferences(referenceType, referenceId, properties);
+
+        // The audited values may still be changed by the caller once this method returns, so they are serialized
+        // on the caller thread and only the diff is left to the writer
+        PendingAudit pendingAudit = new PendingAudit(referenceType, referenceId,
+                properties == null ? null : new HashMap<>(properties), event, userId, createdAt,
+                toNode(oldValue), toNode(newValue));
+        if (queue == null || !running) {
+            // writer not started or stopped
+            write(pendingAudit);
+            return;
+        }
 
-        Audit audit = new Audit();
-        audit.setId(UUID.toString(UUID.random()));
-        audit.setUser(userId);
-        audit.setCreatedAt(createdAt);
-        if (properties != null) {
-            Map<String, String> stringStringMap = new HashMap<>(properties.size());
-            properties.forEach((auditProperties, s) -> stringStringMap.put(auditProperties.name(), s));
-            audit.setProperties(stringStringMap);
+        if (!queue.offer(pendingAudit)) {
+            // the writer is behind: the caller writes its audit log itself rather than losing it
+            overflowedAudits.incrementAndGet();
+            write(pendingAudit);
+        } else if (!running) {
+            // stopped while queueing: the writer and the shutdown flush may both be over already
+            flush();
         }
-        audit.setReferenceType(referenceType);
-        audit.setReferenceId(referenceId);
-        audit.setEvent(event.name());
+    }
 
-        ObjectNode oldNode = oldValue == null
-                ? mapper.createObjectNode()
-                : mapper.convertValue(oldValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
-        ObjectNode newNode = newValue == null
+    private ObjectNode toNode(Object value) {
+        return value == null
                 ? mapper.createObjectNode()
-                : mapper.convertValue(newValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
+                : mapper.convertValue(value, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void destroy() {
+        if (writer != null) {
+            // the writer is not interrupted so that the audit log being written is not lost: it stops by itself
+            // once its current batch is written
+            running = false;
+            boolean interrupted = false;
+            try {
+                writer.join(shutdownTimeout);
+            } catch (InterruptedException ie) {
+                // flush anyway, and restore the interruption afterwards
+                interrupted = true;
+            }
+            if (!queue.isEmpty()) {
+                LOGGER.warn("{} audit logs have not been written by the worker before shutdown, writing them now", queue.size());
+                flush();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long getOverflowedAudits() {
+        return overflowedAudits.get();
+    }
+
+    public int getQueueSize() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void drain() {
+        final List<PendingAudit> batch = new ArrayList<>(batchSize);
+        while (running) {
+            final PendingAudit pendingAudit;
+            try {
+                pendingAudit = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                // remaining audit logs are flushed by destroy()
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pendingAudit != null) {
+                batch.add(pendingAudit);
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(this::write);
+                batch.clear();
+            }
+        }
+    }
 
-        audit.setPatch(JsonDiff.asJson(oldNode, newNode).toString());
+    /**
+     * Writes the queued audit logs on the calling thread.
+     */
+    private void flush() {
+        final List<PendingAudit> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        remaining.forEach(this::write);
+    }
 
+    private void write(PendingAudit pendingAudit) {
         try {
+            Audit audit = new Audit();
+            audit.setId(UUID.toString(UUID.random()));
+            audit.setUser(pendingAudit.userId);
+            audit.setCreatedAt(pendingAudit.createdAt);
+            if (pendingAudit.properties != null) {
+                Map<String, String> stringStringMap = new HashMap<>(pendingAudit.properties.size());
+                pendingAudit.properties.forEach((auditProperties, s) -> stringStringMap.put(auditProperties.name(), s));
+                audit.setProperties(stringStringMap);
+            }
+            audit.setReferenceType(pendingAudit.referenceType);
+            audit.setReferenceId(pendingAudit.referenceId);
+            audit.setEvent(pendingAudit.event.name());
+
+            audit.setPatch(JsonDiff.asJson(pendingAudit.oldValue, pendingAudit.newValue).toString());
+
             auditRepository.create(audit);
         } catch (TechnicalException e) {
             LOGGER.error("Error occurs during the creation of an Audit Log {}.", e);
+        } catch (Exception e) {
+            LOGGER.error("Unexpected error while creating the audit log {} on {} {}",
+                    pendingAudit.event, pendingAudit.referenceType, pendingAudit.referenceId, e);
+        }
+    }
+
+    /**
+     * Every change of an entity is audited, so the audited references are evicted from the metadata cache.
+     */
+    private void evictReferences(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties) {
+        switch (referenceType) {
+            case API:
+                referenceMetadataResolver.evict(ReferenceMetadataResolver.Type.API, referenceId);
+                break;
+            case APPLICATION:
+                referenceMetadataResolver.evict(ReferenceMetadataResolver.Type.APPLICATION, referenceId);
+                break;
+            default:
+                break;
+        }
+        if (properties != null) {
+            properties.forEach((property, id) -> {
+                switch (property) {
+                    case API:
+                        referenceMetadataResolver.evict(ReferenceMetadataResolver.Type.API, id);
+                        break;
+                    case APPLICATION:
+                        referenceMetadataResolver.evict(ReferenceMetadataResolver.Type.APPLICATION, id);
+                        break;
+                    case TENANT:
+                        referenceMetadataResolver.evict(ReferenceMetadataResolver.Type.TENANT, id);
+                        break;
+                    default:
+                        ReferenceMetadataResolver.Type type = getReferenceType(property.name());
+                        if (type != null) {
+                            referenceMetadataResolver.evict(type, id);
+                        }
+                }
+            });
         }
     }
 
@@ -309,4 +461,27 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     private String getAuthenticatedUsernameOrSystem() {
         return isAuthenticated() ? getAuthenticatedUsername() : "system";
     }
+
+    private static final class PendingAudit {
+        private final Audit.AuditReferenceType referenceType;
+        private final String referenceId;
+        private final Map<Audit.AuditProperties,String> properties;
+        private final Audit.AuditEvent event;
+        private final String userId;
+        private final Date createdAt;
+        private final ObjectNode oldValue;
+        private final ObjectNode newValue;
+
+        private PendingAudit(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
+                             Audit.AuditEvent event, String userId, Date createdAt, ObjectNode oldValue, ObjectNode newValue) {
+            this.referenceType = referenceType;
+            this.referenceId = referenceId;
+            this.properties = properties;
+            this.event = event;
+            this.userId = userId;
+            this.createdAt = createdAt;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
 }
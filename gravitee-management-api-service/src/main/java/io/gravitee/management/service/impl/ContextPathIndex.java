@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix tree of the sub context paths (context path followed by a '/') of all the APIs.
+ *
+ * Two sub context paths are in conflict when one of them starts with the other, which can be checked by walking
+ * the tree along the characters of the candidate path only.
+ *
+ * @author GraviteeSource Team
+ */
+public class ContextPathIndex {
+
+    private final Node root = new Node();
+
+    private final Map<String, String> subContextPaths = new HashMap<>();
+
+    private long loadedAt = -1;
+
+    public synchronized void put(final String apiId, final String subContextPath) {
+        remove(apiId);
+
+        Node node = root;
+        node.size++;
+        for (int i = 0; i < subContextPath.length(); i++) {
+            node = node.children.computeIfAbsent(subContextPath.charAt(i), c -> new Node());
+            node.size++;
+        }
+        node.apis.add(apiId);
+        subContextPaths.put(apiId, subContextPath);
+    }
+
+    public synchronized void remove(final String apiId) {
+        final String subContextPath = subContextPaths.remove(apiId);
+        if (subContextPath == null) {
+            return;
+        }
+
+        Node node = root;
+        node.size--;
+        for (int i = 0; i < subContextPath.length(); i++) {
+            final Node child = node.children.get(subContextPath.charAt(i));
+            if (--child.size == 0) {
+                node.children.remove(subContextPath.charAt(i));
+                return;
+            }
+            node = child;
+        }
+        node.apis.remove(apiId);
+    }
+
+    /**
+     * Check if the given sub context path starts with, or is the start of, the sub context path of an API other than
+     * the excluded one.
+     */
+    public synchronized boolean conflicts(final String subContextPath, final String excludedApiId) {
+        Node node = root;
+        for (int i = 0; i < subContextPath.length(); i++) {
+            // An existing sub context path is a prefix of the new one
+            if (hasOtherApi(node, excludedApiId)) {
+                return true;
+            }
+            node = node.children.get(subContextPath.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+
+        // The new sub context path is a prefix of (or equal to) existing ones
+        int size = node.size;
+        final String excludedSubContextPath = (excludedApiId == null) ? null : subContextPaths.get(excludedApiId);
+        if (excludedSubContextPath != null && excludedSubContextPath.startsWith(subContextPath)) {
+            size--;
+        }
+        return size > 0;
+    }
+
+    public synchronized boolean isLoaded(final long maxAge) {
+        return loadedAt != -1 && System.currentTimeMillis() - loadedAt < maxAge;
+    }
+
+    public synchronized void load(final Map<String, String> subContextPaths) {
+        root.children.clear();
+        root.apis.clear();
+        root.size = 0;
+        this.subContextPaths.clear();
+        subContextPaths.forEach(this::put);
+        loadedAt = System.currentTimeMillis();
+    }
+
+    private boolean hasOtherApi(final Node node, final String excludedApiId) {
+        return node.apis.size() > 1 || (node.apis.size() == 1 && !node.apis.contains(excludedApiId));
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<String> apis = new HashSet<>();
+        private int size;
+    }
+}
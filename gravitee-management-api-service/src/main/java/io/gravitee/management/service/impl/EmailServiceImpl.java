@@ -25,19 +25,29 @@ import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import javax.activation.MimetypesFileTypeMap;
+import javax.mail.internet.MimeMessage;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -46,15 +56,22 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.springframework.ui.freemarker.FreeMarkerTemplateUtils.processTemplateIntoString;
 
 /**
+ * Asynchronous emails are queued and sent by a dedicated worker, in batches sharing the same SMTP connection.
+ *
  * @author Azize ELAMRANI (azize.elamrani at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class EmailServiceImpl extends TransactionalService implements EmailService {
+public class EmailServiceImpl extends TransactionalService implements EmailService, InitializingBean, DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailServiceImpl.class);
 
+    /**
+     * Time during which the sender waits for an email before checking whether it has been stopped.
+     */
+    private static final long POLL_TIMEOUT = 500;
+
     @Autowired
     private JavaMailSender mailSender;
     @Autowired
@@ -67,75 +84,250 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
     private boolean enabled;
     @Value("${email.from}")
     private String defaultFrom;
+    @Value("${email.queue.capacity:1000}")
+    private int queueCapacity;
+    @Value("${email.batch.size:50}")
+    private int batchSize;
+    @Value("${email.shutdown.timeout:10000}")
+    private long shutdownTimeout;
 
-    public void sendEmailNotification(final EmailNotification emailNotification) {
-        if (enabled) {
-            try {
-                final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
+    private BlockingQueue<EmailNotification> queue;
 
-                final Template template = freemarkerConfiguration.getTemplate(emailNotification.getTemplate());
-                final String content = processTemplateIntoString(template, emailNotification.getParams());
+    private Thread sender;
 
-                final String from = isNull(emailNotification.getFrom()) || emailNotification.getFrom().isEmpty()
-                        ? defaultFrom
-                        : emailNotification.getFrom();
+    private volatile boolean running;
 
-                if (isEmpty(emailNotification.getFromName())) {
-                    mailMessage.setFrom(from);
-                } else {
-                    mailMessage.setFrom(from, emailNotification.getFromName());
-                }
+    /**
+     * Content of the images inlined in the emails, by path, read again when the file changes.
+     */
+    private final Map<String, InlineResource> inlineResources = new ConcurrentHashMap<>();
 
-                mailMessage.setTo(emailNotification.getTo());
-                if (emailNotification.isCopyToSender() && emailNotification.getFrom() != null) {
-                    mailMessage.setBcc(emailNotification.getFrom());
-                }
-                mailMessage.setSubject(format(subject, emailNotification.getSubject()));
+    private final AtomicLong sentEmails = new AtomicLong();
 
-                final String html = addResourcesInMessage(mailMessage, content);
+    private final AtomicLong failedEmails = new AtomicLong();
 
-                LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}",
-                        emailNotification.getTo(), emailNotification.getSubject(), html);
+    private final AtomicLong sendLatency = new AtomicLong();
 
-                mailSender.send(mailMessage.getMimeMessage());
+    public void sendEmailNotification(final EmailNotification emailNotification) {
+        if (enabled) {
+            try {
+                final MimeMessage mimeMessage = prepare(emailNotification);
+                final long start = System.currentTimeMillis();
+                mailSender.send(mimeMessage);
+                sent(1, start);
             } catch (final Exception ex) {
+                failedEmails.incrementAndGet();
                 LOGGER.error("Error while sending email notification", ex);
                 throw new TechnicalManagementException("Error while sending email notification", ex);
             }
         }
     }
 
-    @Async
     public void sendAsyncEmailNotification(final EmailNotification emailNotification) {
-        sendEmailNotification(emailNotification);
+        if (enabled) {
+            if (queue == null || !running || !queue.offer(emailNotification)) {
+                // sender not started, stopped or queue full: send it from the caller thread
+                LOGGER.debug("Email queue is not available, sending the email to {} synchronously", (Object) emailNotification.getTo());
+                try {
+                    sendEmailNotification(emailNotification);
+                } catch (TechnicalManagementException tme) {
+                    // already logged
+                }
+            } else if (!running) {
+                // stopped while queueing: the sender and the shutdown flush may both be over already
+                flush();
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            queue = new LinkedBlockingQueue<>(queueCapacity);
+            running = true;
+            sender = new Thread(this::drain, "email-sender");
+            sender.setDaemon(true);
+            sender.start();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (sender != null) {
+            // the sender is not interrupted so that the batch being sent is not cut off: it stops by itself once
+            // its current batch is sent
+            running = false;
+            boolean interrupted = false;
+            try {
+                sender.join(shutdownTimeout);
+            } catch (InterruptedException ie) {
+                // flush anyway, and restore the interruption afterwards
+                interrupted = true;
+            }
+            if (!queue.isEmpty()) {
+                LOGGER.warn("{} emails have not been sent by the worker before shutdown, sending them now", queue.size());
+                flush();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public int getQueueSize() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getSentEmails() {
+        return sentEmails.get();
+    }
+
+    public long getFailedEmails() {
+        return failedEmails.get();
+    }
+
+    /**
+     * @return the average time spent by the SMTP server to accept an email, in milliseconds.
+     */
+    public long getAverageSendLatency() {
+        final long sent = sentEmails.get();
+        return sent == 0 ? 0 : sendLatency.get() / sent;
+    }
+
+    private void drain() {
+        final List<EmailNotification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            final EmailNotification emailNotification;
+            try {
+                emailNotification = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                // remaining emails are sent by destroy()
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (emailNotification != null) {
+                batch.add(emailNotification);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Sends the queued emails on the calling thread, in batches.
+     */
+    private void flush() {
+        final List<EmailNotification> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(final List<EmailNotification> batch) {
+        final List<MimeMessage> mimeMessages = new ArrayList<>(batch.size());
+        for (EmailNotification emailNotification : batch) {
+            try {
+                mimeMessages.add(prepare(emailNotification));
+            } catch (final Exception ex) {
+                failedEmails.incrementAndGet();
+                LOGGER.error("Error while preparing email notification", ex);
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        try {
+            // All the messages are sent through the same SMTP connection
+            mailSender.send(mimeMessages.toArray(new MimeMessage[mimeMessages.size()]));
+            sent(mimeMessages.size(), start);
+        } catch (final MailSendException ex) {
+            final int failed = ex.getFailedMessages().isEmpty() ? mimeMessages.size() : ex.getFailedMessages().size();
+            failedEmails.addAndGet(failed);
+            sent(mimeMessages.size() - failed, start);
+            LOGGER.error("Error while sending {} email notifications", failed, ex);
+        } catch (final Exception ex) {
+            failedEmails.addAndGet(mimeMessages.size());
+            LOGGER.error("Error while sending {} email notifications", mimeMessages.size(), ex);
+        }
+    }
+
+    private void sent(final int count, final long start) {
+        if (count > 0) {
+            sentEmails.addAndGet(count);
+            sendLatency.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    private MimeMessage prepare(final EmailNotification emailNotification) throws Exception {
+        final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
+
+        final Template template = freemarkerConfiguration.getTemplate(emailNotification.getTemplate());
+        final String content = processTemplateIntoString(template, emailNotification.getParams());
+
+        final String from = isNull(emailNotification.getFrom()) || emailNotification.getFrom().isEmpty()
+                ? defaultFrom
+                : emailNotification.getFrom();
+
+        if (isEmpty(emailNotification.getFromName())) {
+            mailMessage.setFrom(from);
+        } else {
+            mailMessage.setFrom(from, emailNotification.getFromName());
+        }
+
+        mailMessage.setTo(emailNotification.getTo());
+        if (emailNotification.isCopyToSender() && emailNotification.getFrom() != null) {
+            mailMessage.setBcc(emailNotification.getFrom());
+        }
+        mailMessage.setSubject(format(subject, emailNotification.getSubject()));
+
+        final String html = addResourcesInMessage(mailMessage, content);
+
+        LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}",
+                emailNotification.getTo(), emailNotification.getSubject(), html);
+
+        return mailMessage.getMimeMessage();
     }
 
     private String addResourcesInMessage(final MimeMessageHelper mailMessage, final String htmlText) throws Exception {
         final Document document = Jsoup.parse(htmlText);
 
-        final List<String> resources = new ArrayList<>();
-
         final Elements imageElements = document.getElementsByTag("img");
-        resources.addAll(imageElements.stream()
+        final List<String> resources = imageElements.stream()
                 .filter(imageElement -> imageElement.hasAttr("src"))
                 .map(imageElement -> {
                     final String src = imageElement.attr("src");
                     imageElement.attr("src", "cid:" + src);
                     return src;
                 })
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
 
         final String html = document.html();
         mailMessage.setText(html, true);
 
         for (final String res : resources) {
-            final FileSystemResource templateResource = new FileSystemResource(new File(templatesPath, res));
-            mailMessage.addInline(res, templateResource, getContentTypeByFileName(res));
+            final InlineResource inlineResource = getInlineResource(res);
+            mailMessage.addInline(res, inlineResource.resource, inlineResource.contentType);
         }
 
         return html;
     }
 
+    private InlineResource getInlineResource(final String res) throws Exception {
+        final File file = new File(templatesPath, res);
+        final long lastModified = file.lastModified();
+        InlineResource inlineResource = inlineResources.get(res);
+        if (inlineResource == null || inlineResource.lastModified != lastModified) {
+            inlineResource = new InlineResource(
+                    new ByteArrayResource(Files.readAllBytes(file.toPath())), getContentTypeByFileName(res), lastModified);
+            inlineResources.put(res, inlineResource);
+        }
+        return inlineResource;
+    }
+
     private String getContentTypeByFileName(final String fileName) {
         if (fileName == null) {
             return "";
@@ -144,4 +336,16 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
         }
         return MimetypesFileTypeMap.getDefaultFileTypeMap().getContentType(fileName);
     }
-}
\ No newline at end of file
+
+    private static final class InlineResource {
+        private final ByteArrayResource resource;
+        private final String contentType;
+        private final long lastModified;
+
+        private InlineResource(ByteArrayResource resource, String contentType, long lastModified) {
+            this.resource = resource;
+            this.contentType = contentType;
+            this.lastModified = lastModified;
+        }
+    }
+}
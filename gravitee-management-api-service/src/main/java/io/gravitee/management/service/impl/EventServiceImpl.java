@@ -30,12 +30,14 @@ import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.Event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.Event.EventProperties.API_ID;
@@ -46,7 +48,7 @@ import static org.springframework.util.CollectionUtils.isEmpty;
  * @author Titouan COMPIEGNE
  */
 @Component
-public class EventServiceImpl extends TransactionalService implements EventService {
+public class EventServiceImpl extends TransactionalService implements EventService, InitializingBean {
 
     private final Logger LOGGER = LoggerFactory.getLogger(EventServiceImpl.class);
 
@@ -55,6 +57,17 @@ public class EventServiceImpl extends TransactionalService implements EventServi
     @Autowired
     private UserService userService;
 
+    private String hostAddress;
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            hostAddress = InetAddress.getLocalHost().getHostAddress();
+        } catch (UnknownHostException uhe) {
+            LOGGER.warn("Unable to resolve the server IP address, it will be resolved again on event creation", uhe);
+        }
+    }
+
     @Override
     public EventEntity findById(String id) {
         try {
@@ -77,7 +90,7 @@ public class EventServiceImpl extends TransactionalService implements EventServi
     public EventEntity create(NewEventEntity newEventEntity) {
         String hostAddress = "";
         try {
-            hostAddress = InetAddress.getLocalHost().getHostAddress();
+            hostAddress = getHostAddress();
             LOGGER.debug("Create {} for server {}", newEventEntity, hostAddress);
 
             Event event = convert(newEventEntity);
@@ -121,10 +134,6 @@ public class EventServiceImpl extends TransactionalService implements EventServi
         }
     }
 
-    private Set<EventEntity> findByProperty(String property, String value) {
-        return convert(eventRepository.search(new EventCriteria.Builder().property(property, value).build()));
-    }
-
     @Override
     public Page<EventEntity> search(List<EventType> eventTypes,
                                     Map<String, Object> properties, long from, long to, int page, int size) {
@@ -146,7 +155,7 @@ public class EventServiceImpl extends TransactionalService implements EventServi
                 builder.build(),
                 new PageableBuilder().pageNumber(page).pageSize(size).build());
 
-        List<EventEntity> content = pageEvent.getContent().stream().map(this::convert).collect(Collectors.toList());
+        List<EventEntity> content = convert(pageEvent.getContent());
 
         return new Page<>(content, page, size, pageEvent.getTotalElements());
     }
@@ -154,7 +163,20 @@ public class EventServiceImpl extends TransactionalService implements EventServi
     @Override
     public Collection<EventEntity> search(final EventQuery query) {
         LOGGER.debug("Search APIs by {}", query);
-        return convert(eventRepository.search(queryToCriteria(query).build()));
+        return new HashSet<>(convert(eventRepository.search(queryToCriteria(query).build())));
+    }
+
+    @Override
+    public void search(final EventQuery query, final int pageSize, final Consumer<EventEntity> consumer) {
+        LOGGER.debug("Search events by {}, {} at a time", query, pageSize);
+        final EventCriteria criteria = queryToCriteria(query).build();
+        int page = 0;
+        Page<Event> pageEvent;
+        do {
+            pageEvent = eventRepository.search(criteria, new PageableBuilder().pageNumber(page).pageSize(pageSize).build());
+            convert(pageEvent.getContent()).forEach(consumer);
+            page++;
+        } while (pageEvent.getContent().size() == pageSize && (long) page * pageSize < pageEvent.getTotalElements());
     }
 
     private EventCriteria.Builder queryToCriteria(EventQuery query) {
@@ -181,11 +203,23 @@ public class EventServiceImpl extends TransactionalService implements EventServi
         return builder;
     }
 
-    private Set<EventEntity> convert(List<Event> events) {
-        return events.stream().map(this::convert).collect(Collectors.toSet());
+    /**
+     * Convert the given events, resolving all the users referenced by them at once.
+     */
+    private List<EventEntity> convert(List<Event> events) {
+        final Map<String, UserEntity> users = findUsers(events.stream()
+                .map(this::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList()));
+        return events.stream().map(event -> convert(event, users)).collect(Collectors.toList());
     }
 
     private EventEntity convert(Event event) {
+        return convert(Collections.singletonList(event)).get(0);
+    }
+
+    private EventEntity convert(Event event, Map<String, UserEntity> users) {
         EventEntity eventEntity = new EventEntity();
         eventEntity.setId(event.getId());
         eventEntity.setType(io.gravitee.management.model.EventType.valueOf(event.getType().toString()));
@@ -195,24 +229,48 @@ public class EventServiceImpl extends TransactionalService implements EventServi
         eventEntity.setCreatedAt(event.getCreatedAt());
         eventEntity.setUpdatedAt(event.getUpdatedAt());
 
-        if (event.getProperties() != null) {
-            final String userId = event.getProperties().get(Event.EventProperties.USER.getValue());
-            if (userId != null && !userId.isEmpty()) {
-                try {
-                    eventEntity.setUser(userService.findById(userId));
-                } catch (UserNotFoundException unfe) {
-                    UserEntity user = new UserEntity();
-                    user.setSource("system");
-                    user.setId(userId);
-                    user.setUsername("system");
-                    eventEntity.setUser(user);
-                }
+        final String userId = getUserId(event);
+        if (userId != null) {
+            UserEntity user = users.get(userId);
+            if (user == null) {
+                user = new UserEntity();
+                user.setSource("system");
+                user.setId(userId);
+                user.setUsername("system");
             }
+            eventEntity.setUser(user);
         }
 
         return eventEntity;
     }
 
+    private String getUserId(Event event) {
+        if (event.getProperties() == null) {
+            return null;
+        }
+        final String userId = event.getProperties().get(Event.EventProperties.USER.getValue());
+        return (userId == null || userId.isEmpty()) ? null : userId;
+    }
+
+    private Map<String, UserEntity> findUsers(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return userService.findByIds(userIds).stream()
+                    .collect(Collectors.toMap(UserEntity::getId, user -> user, (user1, user2) -> user1));
+        } catch (UserNotFoundException unfe) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private String getHostAddress() throws UnknownHostException {
+        if (hostAddress == null) {
+            hostAddress = InetAddress.getLocalHost().getHostAddress();
+        }
+        return hostAddress;
+    }
+
     private Event convert(NewEventEntity newEventEntity) {
         Event event = new Event();
         event.setType(io.gravitee.repository.management.model.EventType.valueOf(newEventEntity.getType().toString()));
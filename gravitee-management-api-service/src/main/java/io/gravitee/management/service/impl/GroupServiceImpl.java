@@ -309,6 +309,7 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
             });
             //remove group
             groupRepository.delete(groupId);
+            membershipService.invalidateMemberPermissions();
 
             // Audit
             auditService.createPortalAuditLog(
@@ -342,24 +343,14 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
 
             // for public apis, default authorized groups are all groups,
             // for private apis, default authorized groups are all apis groups
-            Set<String> authorizedGroups = Collections.emptySet();
-            if (Visibility.PRIVATE.equals(api.getVisibility()) && api.getGroups() != null && !api.getGroups().isEmpty()) {
-                authorizedGroups = new HashSet<>(api.getGroups());
-            }
+            final Set<String> userGroups = membershipService.getUserGroupIds(username, RoleScope.API);
+            final Set<String> excluded = new HashSet<>(excludedGroups);
             if (Visibility.PUBLIC.equals(api.getVisibility())) {
-                try {
-                    authorizedGroups = groupRepository.findAll().stream().map(Group::getId).collect(Collectors.toSet());
-                } catch (TechnicalException ex) {
-                    logger.error("An error occurs while trying to find all groups", ex);
-                    throw new TechnicalManagementException("An error occurs while trying to find all groups", ex);
-                }
+                return isMemberOfNotExcludedGroup(userGroups, excluded);
             }
-
-            authorizedGroups.removeAll(excludedGroups);
-            for (String authorizedGroupId : authorizedGroups) {
-                if (membershipService.getMember(MembershipReferenceType.GROUP, authorizedGroupId, username, RoleScope.API) != null) {
-                    return true;
-                }
+            if (Visibility.PRIVATE.equals(api.getVisibility()) && api.getGroups() != null && !api.getGroups().isEmpty()) {
+                return api.getGroups().stream()
+                        .anyMatch(group -> userGroups.contains(group) && !excluded.contains(group));
             }
             return false;
         }
@@ -375,25 +366,20 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
 
         if (excludedGroups != null && !excludedGroups.isEmpty()) {
             // for public apis, default authorized groups are all groups,
-            Set<String> authorizedGroups;
-            try {
-                authorizedGroups = groupRepository.findAll().stream().map(Group::getId).collect(Collectors.toSet());
-            } catch (TechnicalException ex) {
-                logger.error("An error occurs while trying to find all groups", ex);
-                throw new TechnicalManagementException("An error occurs while trying to find all groups", ex);
-            }
-
-            authorizedGroups.removeAll(excludedGroups);
-            for (String authorizedGroupId : authorizedGroups) {
-                if (membershipService.getMember(MembershipReferenceType.GROUP, authorizedGroupId, username, RoleScope.API) != null) {
-                    return true;
-                }
-            }
-            return false;
+            return isMemberOfNotExcludedGroup(membershipService.getUserGroupIds(username, RoleScope.API),
+                    new HashSet<>(excludedGroups));
         }
         return true;
     }
 
+    /**
+     * Authorized groups are all the groups but the excluded ones: the memberships of a group being removed with the
+     * group, the groups of the user are enough to check it, without loading all the groups.
+     */
+    private boolean isMemberOfNotExcludedGroup(Set<String> userGroups, Set<String> excludedGroups) {
+        return userGroups.stream().anyMatch(group -> !excludedGroups.contains(group));
+    }
+
     @Override
     public Set<GroupEntity> findByUser(String user) {
         try {
@@ -17,12 +17,17 @@ package io.gravitee.management.service.impl;
 
 import io.gravitee.management.idp.api.identity.SearchableUser;
 import io.gravitee.management.idp.core.authentication.IdentityManager;
+import io.gravitee.management.idp.core.authentication.IdentitySearchException;
 import io.gravitee.management.model.providers.User;
 import io.gravitee.management.service.IdentityService;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,6 +37,8 @@ import java.util.Optional;
 @Component
 public class IdentityServiceImpl implements IdentityService {
 
+    private final Logger LOGGER = LoggerFactory.getLogger(IdentityServiceImpl.class);
+
     @Autowired
     private IdentityManager identityManager;
 
@@ -40,6 +47,16 @@ public class IdentityServiceImpl implements IdentityService {
         return identityManager.search(query);
     }
 
+    @Override
+    public Map<String, Collection<SearchableUser>> search(Collection<String> queries) {
+        try {
+            return identityManager.search(queries);
+        } catch (IdentitySearchException ise) {
+            LOGGER.error("An error occurs while trying to search users", ise);
+            throw new TechnicalManagementException("An error occurs while trying to search users", ise);
+        }
+    }
+
     @Override
     public Optional<User> findByReference(String reference) {
         Optional<io.gravitee.management.idp.api.identity.User> optUser = identityManager.lookup(reference);
@@ -28,7 +28,6 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -45,6 +44,8 @@ public class InstanceServiceImpl implements InstanceService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static final int EVENTS_PAGE_SIZE = 100;
+
     private static final List<EventType> instancesAllState = new ArrayList<>();
 
     {
@@ -66,47 +67,47 @@ public class InstanceServiceImpl implements InstanceService {
         } else {
             query.setTypes(instancesRunningOnly);
         }
-        final Collection<EventEntity> events = eventService.search(query);
+        final Instant nowMinusXMinutes = Instant.now().minus(5, ChronoUnit.MINUTES);
+        final List<InstanceListItem> instances = new ArrayList<>();
+        eventService.search(query, EVENTS_PAGE_SIZE, event -> instances.add(convert(event, nowMinusXMinutes)));
+        return instances;
+    }
 
-        Instant nowMinusXMinutes = Instant.now().minus(5, ChronoUnit.MINUTES);
-        return events.stream().map(
-                event -> {
-                    Map<String, String> props = event.getProperties();
-                    InstanceListItem instance = new InstanceListItem(props.get("id"));
-                    instance.setEvent(event.getId());
-                    instance.setLastHeartbeatAt(new Date(Long.parseLong(props.get("last_heartbeat_at"))));
-                    instance.setStartedAt(new Date(Long.parseLong(props.get("started_at"))));
-
-                    if (event.getPayload() != null) {
-                        try {
-                            InstanceInfo info = objectMapper.readValue(event.getPayload(), InstanceInfo.class);
-                            instance.setHostname(info.getHostname());
-                            instance.setIp(info.getIp());
-                            instance.setPort(info.getPort());
-                            instance.setVersion(info.getVersion());
-                            instance.setTags(info.getTags());
-                            instance.setTenant(info.getTenant());
-                            instance.setOperatingSystemName(info.getSystemProperties().get("os.name"));
-                        } catch (IOException ioe) {
-                            LOGGER.error("Unexpected error while getting instance informations from event payload", ioe);
-                        }
-                    }
-
-                    if (event.getType() == EventType.GATEWAY_STARTED) {
-                        instance.setState(InstanceState.STARTED);
-                        // If last heartbeat timestamp is < now - 5m, set as unknown state
-                        Instant lastHeartbeat = Instant.ofEpochMilli(instance.getLastHeartbeatAt().getTime());
-                        if (lastHeartbeat.isBefore(nowMinusXMinutes)) {
-                            instance.setState(InstanceState.UNKNOWN);
-                        }
-                    } else {
-                        instance.setState(InstanceState.STOPPED);
-                        instance.setStoppedAt(new Date(Long.parseLong(props.get("stopped_at"))));
-                    }
-
-                    return instance;
-                }
-        ).collect(Collectors.toList());
+    private InstanceListItem convert(EventEntity event, Instant nowMinusXMinutes) {
+        Map<String, String> props = event.getProperties();
+        InstanceListItem instance = new InstanceListItem(props.get("id"));
+        instance.setEvent(event.getId());
+        instance.setLastHeartbeatAt(new Date(Long.parseLong(props.get("last_heartbeat_at"))));
+        instance.setStartedAt(new Date(Long.parseLong(props.get("started_at"))));
+
+        if (event.getPayload() != null) {
+            try {
+                InstanceInfo info = objectMapper.readValue(event.getPayload(), InstanceInfo.class);
+                instance.setHostname(info.getHostname());
+                instance.setIp(info.getIp());
+                instance.setPort(info.getPort());
+                instance.setVersion(info.getVersion());
+                instance.setTags(info.getTags());
+                instance.setTenant(info.getTenant());
+                instance.setOperatingSystemName(info.getSystemProperties().get("os.name"));
+            } catch (IOException ioe) {
+                LOGGER.error("Unexpected error while getting instance informations from event payload", ioe);
+            }
+        }
+
+        if (event.getType() == EventType.GATEWAY_STARTED) {
+            instance.setState(InstanceState.STARTED);
+            // If last heartbeat timestamp is < now - 5m, set as unknown state
+            Instant lastHeartbeat = Instant.ofEpochMilli(instance.getLastHeartbeatAt().getTime());
+            if (lastHeartbeat.isBefore(nowMinusXMinutes)) {
+                instance.setState(InstanceState.UNKNOWN);
+            }
+        } else {
+            instance.setState(InstanceState.STOPPED);
+            instance.setStoppedAt(new Date(Long.parseLong(props.get("stopped_at"))));
+        }
+
+        return instance;
     }
 
     @Override
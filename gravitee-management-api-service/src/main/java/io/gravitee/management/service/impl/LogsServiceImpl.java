@@ -15,18 +15,11 @@
  */
 package io.gravitee.management.service.impl;
 
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.ApplicationEntity;
-import io.gravitee.management.model.InstanceListItem;
-import io.gravitee.management.model.PlanEntity;
 import io.gravitee.management.model.analytics.query.LogQuery;
 import io.gravitee.management.model.log.*;
 import io.gravitee.management.model.log.extended.Request;
 import io.gravitee.management.model.log.extended.Response;
 import io.gravitee.management.service.*;
-import io.gravitee.management.service.exceptions.ApiNotFoundException;
-import io.gravitee.management.service.exceptions.ApplicationNotFoundException;
-import io.gravitee.management.service.exceptions.PlanNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.repository.analytics.AnalyticsException;
 import io.gravitee.repository.analytics.query.DateRangeBuilder;
@@ -34,17 +27,13 @@ import io.gravitee.repository.analytics.query.IntervalBuilder;
 import io.gravitee.repository.analytics.query.QueryBuilders;
 import io.gravitee.repository.analytics.query.tabular.TabularResponse;
 import io.gravitee.repository.log.api.LogRepository;
-import io.gravitee.repository.management.model.ApplicationStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -59,22 +48,11 @@ public class LogsServiceImpl implements LogsService {
      */
     private final Logger logger = LoggerFactory.getLogger(LogsServiceImpl.class);
 
-    private static final String APPLICATION_KEYLESS = "1";
-
     @Autowired
     private LogRepository logRepository;
 
     @Autowired
-    private ApiService apiService;
-
-    @Autowired
-    private ApplicationService applicationService;
-
-    @Autowired
-    private PlanService planService;
-
-    @Autowired
-    private InstanceService instanceService;
+    private ReferenceMetadataResolver referenceMetadataResolver;
 
     @Override
     public SearchLogResponse findByApi(String api, LogQuery query) {
@@ -101,19 +79,24 @@ public class LogsServiceImpl implements LogsService {
             // Add metadata (only if they are results)
             if (response.getSize() > 0) {
                 Map<String, Map<String, String>> metadata = new HashMap<>();
+                Set<String> applications = new HashSet<>();
+                Set<String> plans = new HashSet<>();
 
                 logResponse.getLogs().forEach(logItem -> {
                     String application = logItem.getApplication();
                     String plan = logItem.getPlan();
 
                     if (application != null) {
-                        metadata.computeIfAbsent(application, getApplicationMetadata(application));
+                        applications.add(application);
                     }
                     if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+                        plans.add(plan);
                     }
                 });
 
+                addMetadata(metadata, ReferenceMetadataResolver.Type.APPLICATION, applications);
+                addMetadata(metadata, ReferenceMetadataResolver.Type.PLAN, plans);
+
                 logResponse.setMetadata(metadata);
             }
 
@@ -159,19 +142,24 @@ public class LogsServiceImpl implements LogsService {
             // Add metadata (only if they are results)
             if (response.getSize() > 0) {
                 Map<String, Map<String, String>> metadata = new HashMap<>();
+                Set<String> apis = new HashSet<>();
+                Set<String> plans = new HashSet<>();
 
                 logResponse.getLogs().forEach(logItem -> {
                     String api = logItem.getApi();
                     String plan = logItem.getPlan();
 
                     if (api != null) {
-                        metadata.computeIfAbsent(api, getAPIMetadata(api));
+                        apis.add(api);
                     }
                     if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+                        plans.add(plan);
                     }
                 });
 
+                addMetadata(metadata, ReferenceMetadataResolver.Type.API, apis);
+                addMetadata(metadata, ReferenceMetadataResolver.Type.PLAN, plans);
+
                 logResponse.setMetadata(metadata);
             }
 
@@ -192,81 +180,10 @@ public class LogsServiceImpl implements LogsService {
         }
     }
 
-    private Function<String, Map<String, String>> getAPIMetadata(String api) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApiEntity apiEntity = apiService.findById(api);
-                metadata.put("name", apiEntity.getName());
-                metadata.put("version", apiEntity.getVersion());
-            } catch (ApiNotFoundException anfe) {
-                metadata.put("name", "Deleted API");
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
-    }
-
-    private Function<String, Map<String, String>> getApplicationMetadata(String application) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApplicationEntity applicationEntity = applicationService.findById(application);
-                metadata.put("name", applicationEntity.getName());
-                if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                    metadata.put("deleted", "true");
-                }
-            } catch (ApplicationNotFoundException anfe) {
-                metadata.put("deleted", "true");
-                if (application.equals(APPLICATION_KEYLESS)) {
-                    metadata.put("name", "Unknown application (keyless)");
-                } else {
-                    metadata.put("name", "Deleted application");
-                }
-            }
-
-            return metadata;
-        };
-    }
-
-    private Function<String, Map<String, String>> getPlanMetadata(String plan) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                PlanEntity planEntity = planService.findById(plan);
-                metadata.put("name", planEntity.getName());
-            } catch (PlanNotFoundException anfe) {
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
-    }
-
-    private Function<String, Map<String, String>> getGatewayMetadata(String gateway) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            Optional<InstanceListItem> instanceOptional = instanceService.findInstances(true).stream()
-                    .filter(instanceListItem -> instanceListItem.getId().equals(gateway))
-                    .findFirst();
-
-            if (instanceOptional.isPresent()) {
-                metadata.put("hostname", instanceOptional.get().getHostname());
-                metadata.put("ip", instanceOptional.get().getIp());
-                if (instanceOptional.get().getTenant() != null) {
-                    metadata.put("tenant", instanceOptional.get().getTenant());
-                }
-            } else {
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
+    private void addMetadata(Map<String, Map<String, String>> metadata, ReferenceMetadataResolver.Type type, Set<String> ids) {
+        if (!ids.isEmpty()) {
+            referenceMetadataResolver.resolve(type, ids).forEach(metadata::putIfAbsent);
+        }
     }
 
     private ApiRequestItem toApiRequestItem(io.gravitee.repository.log.model.Log log) {
@@ -332,13 +249,13 @@ public class LogsServiceImpl implements LogsService {
         String gateway = log.getGateway();
 
         if (application != null) {
-            metadata.computeIfAbsent(application, getApplicationMetadata(application));
+            addMetadata(metadata, ReferenceMetadataResolver.Type.APPLICATION, Collections.singleton(application));
         }
         if (plan != null) {
-            metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+            addMetadata(metadata, ReferenceMetadataResolver.Type.PLAN, Collections.singleton(plan));
         }
         if (gateway != null) {
-            metadata.computeIfAbsent(gateway, getGatewayMetadata(gateway));
+            addMetadata(metadata, ReferenceMetadataResolver.Type.GATEWAY, Collections.singleton(gateway));
         }
 
         req.setMetadata(metadata);
@@ -397,13 +314,13 @@ public class LogsServiceImpl implements LogsService {
         String gateway = log.getGateway();
 
         if (api != null) {
-            metadata.computeIfAbsent(api, getAPIMetadata(api));
+            addMetadata(metadata, ReferenceMetadataResolver.Type.API, Collections.singleton(api));
         }
         if (plan != null) {
-            metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+            addMetadata(metadata, ReferenceMetadataResolver.Type.PLAN, Collections.singleton(plan));
         }
         if (gateway != null) {
-            metadata.computeIfAbsent(gateway, getGatewayMetadata(gateway));
+            addMetadata(metadata, ReferenceMetadataResolver.Type.GATEWAY, Collections.singleton(gateway));
         }
 
         req.setMetadata(metadata);
@@ -15,8 +15,13 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.permissions.PermissionSet;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.model.providers.User;
 import io.gravitee.management.service.*;
@@ -24,7 +29,11 @@ import io.gravitee.management.service.builder.EmailNotificationBuilder;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.notification.NotificationParamsBuilder;
 import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
 import io.gravitee.repository.management.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +41,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.gravitee.management.model.permissions.SystemRole.PRIMARY_OWNER;
@@ -48,6 +59,36 @@ public class MembershipServiceImpl extends AbstractService implements Membership
 
     private final Logger LOGGER = LoggerFactory.getLogger(MembershipServiceImpl.class);
 
+    private static final long PERMISSIONS_CACHE_TTL = 10;
+    private static final long PERMISSIONS_CACHE_SIZE = 10_000;
+
+    /**
+     * Short-lived cache of the resolved member permissions, evicted each time a membership of the user changes.
+     */
+    private final Cache<MemberPermissionsKey, Map<String, char[]>> permissionsCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(PERMISSIONS_CACHE_TTL, TimeUnit.SECONDS)
+            .maximumSize(PERMISSIONS_CACHE_SIZE)
+            .build();
+
+    private static final long REFERENCES_CACHE_TTL = 60;
+
+    /**
+     * Ids of the references on which a user has been granted a permission, evicted each time a membership of the user
+     * changes, or when the roles or the groups of the references change.
+     */
+    private final Cache<ReferenceIdsKey, Set<String>> referenceIdsCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(REFERENCES_CACHE_TTL, TimeUnit.SECONDS)
+            .maximumSize(PERMISSIONS_CACHE_SIZE)
+            .build();
+
+    /**
+     * Ids of the groups of each user, by role scope, evicted each time a membership of the user changes.
+     */
+    private final Cache<UserGroupsKey, Set<String>> userGroupsCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(REFERENCES_CACHE_TTL, TimeUnit.SECONDS)
+            .maximumSize(PERMISSIONS_CACHE_SIZE)
+            .build();
+
     @Autowired
     private UserService userService;
 
@@ -60,6 +101,12 @@ public class MembershipServiceImpl extends AbstractService implements Membership
     @Autowired
     private MembershipRepository membershipRepository;
 
+    @Autowired
+    private ApiRepository apiRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
     @Autowired
     private RoleService roleService;
 
@@ -227,6 +274,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 updatedMembership.getRoles().put(role.getScope().getId(), role.getName());
                 updatedMembership.setUpdatedAt(updateDate);
                 returnedMembership = membershipRepository.update(optionalMembership.get());
+                invalidateMemberPermissions(userEntity.getId());
                 createAuditLog(MEMBERSHIP_UPDATED, updatedMembership.getUpdatedAt(), previousMembership, updatedMembership);
             } else {
                 Membership membership = new Membership(userEntity.getId(), reference.getId(), reference.getType());
@@ -234,6 +282,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 membership.setCreatedAt(updateDate);
                 membership.setUpdatedAt(updateDate);
                 returnedMembership = membershipRepository.create(membership);
+                invalidateMemberPermissions(userEntity.getId());
                 createAuditLog(MEMBERSHIP_CREATED, membership.getCreatedAt(), null, membership);
 
                 if (userEntity.getEmail() != null && !userEntity.getEmail().isEmpty()) {
@@ -268,6 +317,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             }
             Membership membership = new Membership(userId, referenceId, referenceType);
             membershipRepository.delete(membership);
+            invalidateMemberPermissions(userId);
             createAuditLog(MEMBERSHIP_DELETED, new Date(), membership, null);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete member {} for {} {}", userId, referenceType, referenceId, ex);
@@ -344,6 +394,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                     throw new MemberWithoutRoleException(membership.getUserId());
                 } else {
                     membershipRepository.update(membership);
+                    invalidateMemberPermissions(userId);
                     createAuditLog(MEMBERSHIP_UPDATED, membership.getUpdatedAt(), previousMembership, membership);
                     return true;
                 }
@@ -363,6 +414,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 membership.getRoles().put(roleScope.getId(), newRole);
                 membershipRepository.update(membership);
             }
+            invalidateMemberPermissions();
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to remove role {} {}", roleScope, roleName, ex);
             throw new TechnicalManagementException("An error occurs while trying to remove role " + roleScope + " " + roleName, ex);
@@ -375,47 +427,144 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             for(Membership membership : membershipRepository.findByUser(userId)) {
                 membershipRepository.delete(membership);
             }
+            invalidateMemberPermissions(userId);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to remove user {}", userId, ex);
             throw new TechnicalManagementException("An error occurs while trying to remove user " + userId, ex);
         }
     }
 
+    @Override
+    public Set<String> getReferenceIdsWithPermission(String userId, RolePermission permission, RolePermissionAction... acls) {
+        try {
+            return referenceIdsCache.get(new ReferenceIdsKey(userId, permission, PermissionSet.mask(acls)),
+                    () -> loadReferenceIdsWithPermission(userId, permission, acls));
+        } catch (ExecutionException ex) {
+            LOGGER.error("An error occurs while trying to find references with permission {} for user {}", permission, userId, ex.getCause());
+            throw new TechnicalManagementException("An error occurs while trying to find references with permission " + permission + " for user " + userId, ex.getCause());
+        }
+    }
+
+    @Override
+    public Set<String> getUserGroupIds(String userId, RoleScope roleScope) {
+        try {
+            return userGroupsCache.get(new UserGroupsKey(userId, roleScope), () -> Collections.unmodifiableSet(
+                    membershipRepository.findByUserAndReferenceType(userId, MembershipReferenceType.GROUP)
+                            .stream()
+                            .filter(membership -> membership.getRoles() != null
+                                    && membership.getRoles().get(roleScope.getId()) != null)
+                            .map(Membership::getReferenceId)
+                            .collect(Collectors.toSet())));
+        } catch (ExecutionException ex) {
+            LOGGER.error("An error occurs while trying to find groups of user {}", userId, ex.getCause());
+            throw new TechnicalManagementException("An error occurs while trying to find groups of user " + userId, ex.getCause());
+        }
+    }
+
+    @Override
+    public void invalidateMemberPermissions() {
+        permissionsCache.invalidateAll();
+        referenceIdsCache.invalidateAll();
+        userGroupsCache.invalidateAll();
+    }
+
+    @Override
+    public void invalidateMemberPermissions(String userId) {
+        permissionsCache.asMap().keySet().removeIf(key -> key.userId.equals(userId));
+        referenceIdsCache.asMap().keySet().removeIf(key -> key.userId.equals(userId));
+        userGroupsCache.asMap().keySet().removeIf(key -> key.userId.equals(userId));
+    }
+
+    /**
+     * Same rules as {@link PermissionServiceImpl#hasPermission}: the role of a direct membership always wins over the
+     * roles of the groups of the reference. Only memberships and reference ids are read, no entity is converted.
+     */
+    private Set<String> loadReferenceIdsWithPermission(String userId, RolePermission permission, RolePermissionAction... acls) throws TechnicalException {
+        final MembershipReferenceType referenceType;
+        final RoleScope roleScope;
+        switch (permission.getScope()) {
+            case API:
+                referenceType = API;
+                roleScope = RoleScope.API;
+                break;
+            case APPLICATION:
+                referenceType = APPLICATION;
+                roleScope = RoleScope.APPLICATION;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported permission scope " + permission.getScope());
+        }
+
+        final Map<String, Boolean> grantedRoles = new HashMap<>();
+        final Set<String> directReferenceIds = new HashSet<>();
+        final Set<String> referenceIds = new HashSet<>();
+        for (Membership membership : membershipRepository.findByUserAndReferenceType(userId, referenceType)) {
+            final String roleName = membership.getRoles().get(roleScope.getId());
+            if (roleName != null) {
+                directReferenceIds.add(membership.getReferenceId());
+                if (isGranted(grantedRoles, roleScope, roleName, permission, acls)) {
+                    referenceIds.add(membership.getReferenceId());
+                }
+            }
+        }
+
+        final List<String> groupIds = new ArrayList<>();
+        for (Membership membership : membershipRepository.findByUserAndReferenceType(userId, MembershipReferenceType.GROUP)) {
+            final String roleName = membership.getRoles().get(roleScope.getId());
+            if (roleName != null && isGranted(grantedRoles, roleScope, roleName, permission, acls)) {
+                groupIds.add(membership.getReferenceId());
+            }
+        }
+
+        if (!groupIds.isEmpty()) {
+            final Set<String> groupReferenceIds;
+            if (referenceType == API) {
+                groupReferenceIds = apiRepository.search(
+                        new ApiCriteria.Builder().groups(groupIds.toArray(new String[groupIds.size()])).build(),
+                        new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                        .stream().map(Api::getId).collect(Collectors.toSet());
+            } else {
+                groupReferenceIds = applicationRepository.findByGroups(groupIds, ApplicationStatus.ACTIVE)
+                        .stream().map(Application::getId).collect(Collectors.toSet());
+            }
+            groupReferenceIds.stream().filter(id -> !directReferenceIds.contains(id)).forEach(referenceIds::add);
+        }
+
+        return Collections.unmodifiableSet(referenceIds);
+    }
+
+    private boolean isGranted(Map<String, Boolean> grantedRoles, RoleScope roleScope, String roleName,
+                              RolePermission permission, RolePermissionAction... acls) {
+        return grantedRoles.computeIfAbsent(roleName, name -> roleService.hasPermission(
+                roleService.findById(roleScope, name).getPermissions(), permission.getPermission(), acls));
+    }
+
     private Map<String, char[]> getMemberPermissions(MembershipReferenceType membershipReferenceType, String referenceId, String userId, Set<String> groups, RoleScope roleScope) {
+        final MemberPermissionsKey key = new MemberPermissionsKey(userId, membershipReferenceType, referenceId, groups);
+        Map<String, char[]> permissions = permissionsCache.getIfPresent(key);
+        if (permissions == null) {
+            permissions = loadMemberPermissions(membershipReferenceType, referenceId, userId, groups, roleScope);
+            permissionsCache.put(key, permissions);
+        }
+        return permissions;
+    }
+
+    private Map<String, char[]> loadMemberPermissions(MembershipReferenceType membershipReferenceType, String referenceId, String userId, Set<String> groups, RoleScope roleScope) {
         MemberEntity member = this.getMember(membershipReferenceType, referenceId, userId, roleScope);
         if (member != null) {
             return member.getPermissions();
         } else if (groups != null) {
-            Map<String, Set<Character>> mergedPermissions = new HashMap<>();
+            final io.gravitee.management.model.permissions.RoleScope scope =
+                    io.gravitee.management.model.permissions.RoleScope.valueOf(roleScope.name());
+            PermissionSet mergedPermissions = null;
             for (String groupid : groups) {
                 member = this.getMember(MembershipReferenceType.GROUP, groupid, userId, roleScope);
                 if (member != null) {
-                    for (Map.Entry<String, char[]> perm : member.getPermissions().entrySet()) {
-                        if (mergedPermissions.containsKey(perm.getKey())) {
-                            Set<Character> previousCRUD = mergedPermissions.get(perm.getKey());
-                            for (char c : perm.getValue()) {
-                                previousCRUD.add(c);
-                            }
-                        } else {
-                            HashSet<Character> crudAsSet = new HashSet<>();
-                            for (char c : perm.getValue()) {
-                                crudAsSet.add(c);
-                            }
-                            mergedPermissions.put(perm.getKey(), crudAsSet);
-                        }
-                    }
+                    PermissionSet permissions = PermissionSet.of(scope, member.getPermissions());
+                    mergedPermissions = (mergedPermissions == null) ? permissions : mergedPermissions.merge(permissions);
                 }
             }
-            Map<String, char[]> permissions = new HashMap<>(mergedPermissions.size());
-            mergedPermissions.forEach((String k, Set<Character> v) -> {
-                Character[] characters = v.toArray(new Character[v.size()]);
-                char[] chars = new char[characters.length];
-                for (int i = 0; i < characters.length; i++) {
-                    chars[i] = characters[i];
-                }
-                permissions.put(k, chars);
-            });
-            return permissions;
+            return (mergedPermissions == null) ? PermissionSet.of(scope, (Map<String, char[]>) null) : mergedPermissions;
         }
         return Collections.emptyMap();
     }
@@ -549,4 +698,85 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 break;
         }
     }
+
+    private static final class ReferenceIdsKey {
+        private final String userId;
+        private final RolePermission permission;
+        private final int acls;
+
+        private ReferenceIdsKey(String userId, RolePermission permission, int acls) {
+            this.userId = userId;
+            this.permission = permission;
+            this.acls = acls;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ReferenceIdsKey that = (ReferenceIdsKey) o;
+            return Objects.equals(userId, that.userId) &&
+                    permission == that.permission &&
+                    acls == that.acls;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, permission, acls);
+        }
+    }
+
+    private static final class UserGroupsKey {
+        private final String userId;
+        private final RoleScope roleScope;
+
+        private UserGroupsKey(String userId, RoleScope roleScope) {
+            this.userId = userId;
+            this.roleScope = roleScope;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            UserGroupsKey that = (UserGroupsKey) o;
+            return Objects.equals(userId, that.userId) &&
+                    roleScope == that.roleScope;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, roleScope);
+        }
+    }
+
+    private static final class MemberPermissionsKey {
+        private final String userId;
+        private final MembershipReferenceType referenceType;
+        private final String referenceId;
+        private final Set<String> groups;
+
+        private MemberPermissionsKey(String userId, MembershipReferenceType referenceType, String referenceId, Set<String> groups) {
+            this.userId = userId;
+            this.referenceType = referenceType;
+            this.referenceId = referenceId;
+            this.groups = (groups == null) ? null : new HashSet<>(groups);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MemberPermissionsKey that = (MemberPermissionsKey) o;
+            return Objects.equals(userId, that.userId) &&
+                    referenceType == that.referenceType &&
+                    Objects.equals(referenceId, that.referenceId) &&
+                    Objects.equals(groups, that.groups);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, referenceType, referenceId, groups);
+        }
+    }
 }
@@ -40,6 +40,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.Audit.AuditProperties.METADATA;
@@ -65,6 +66,8 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
     @Autowired
     private AuditService auditService;
 
+    private final AtomicLong version = new AtomicLong();
+
     @Override
     public List<MetadataEntity> findAllDefault() {
         try {
@@ -102,6 +105,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             metadata.setCreatedAt(now);
             metadata.setUpdatedAt(now);
             metadataRepository.create(metadata);
+            version.incrementAndGet();
             // Audit
             auditService.createPortalAuditLog(
                     Collections.singletonMap(METADATA, metadata.getKey()),
@@ -134,6 +138,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             final Date now = new Date();
             metadata.setUpdatedAt(now);
             metadataRepository.update(metadata);
+            version.incrementAndGet();
             // Audit
             auditService.createPortalAuditLog(
                     Collections.singletonMap(METADATA, metadata.getKey()),
@@ -154,6 +159,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             final Optional<Metadata> optMetadata = metadataRepository.findById(key, DEFAUT_REFERENCE_ID, MetadataReferenceType.DEFAULT);
             if (optMetadata.isPresent()) {
                 metadataRepository.delete(key, DEFAUT_REFERENCE_ID, MetadataReferenceType.DEFAULT);
+                version.incrementAndGet();
                 // Audit
                 auditService.createPortalAuditLog(
                         Collections.singletonMap(METADATA, key),
@@ -198,6 +204,11 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
         }
     }
 
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
     @Override
     public void checkMetadataFormat(final MetadataFormat format, final String value) {
         if (isBlank(value)) {
@@ -16,6 +16,8 @@
 package io.gravitee.management.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.Gson;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
@@ -46,7 +48,9 @@ import io.gravitee.repository.management.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
@@ -56,6 +60,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.Audit.AuditProperties.PAGE;
@@ -70,7 +75,7 @@ import static java.util.Collections.emptyList;
  * @author Guillaume Gillon
  */
 @Component
-public class PageServiceImpl extends TransactionalService implements PageService, ApplicationContextAware {
+public class PageServiceImpl extends TransactionalService implements PageService, ApplicationContextAware, InitializingBean {
 
 	private static final Gson gson = new Gson();
 
@@ -106,6 +111,40 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	@Autowired
 	private AuditService auditService;
 
+	@Autowired
+	private ApiMetadataService apiMetadataService;
+
+	@Value("${pages.templates.cache.size:1000}")
+	private long templatesCacheSize = 1000;
+
+	@Value("${pages.rendered.cache.size:1000}")
+	private long renderedCacheSize = 1000;
+
+	@Value("${pages.rendered.cache.ttl:60000}")
+	private long renderedCacheTtl = 60000;
+
+	/**
+	 * Compiled templates, by page id.
+	 */
+	private Cache<String, CompiledTemplate> templates;
+
+	/**
+	 * Rendered page contents, by page id. They are rendered again when the page content, the API or any metadata has
+	 * changed, and after a while to follow the changes of the API which do not update it, like its template model.
+	 */
+	private Cache<String, RenderedTemplate> renderedTemplates;
+
+	@Override
+	public void afterPropertiesSet() {
+		templates = CacheBuilder.newBuilder()
+				.maximumSize(templatesCacheSize)
+				.build();
+		renderedTemplates = CacheBuilder.newBuilder()
+				.maximumSize(renderedCacheSize)
+				.expireAfterWrite(renderedCacheTtl, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
 	@Override
 	public List<PageListItem> findApiPagesByApi(String apiId) {
 	    return findApiPagesByApiAndHomepage(apiId, null, null);
@@ -250,22 +289,51 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	private void transformWithTemplate(final PageEntity pageEntity, final String api) {
 		if (pageEntity.getContent() != null) {
 			try {
-				Template template = new Template(pageEntity.getId(), pageEntity.getContent(), freemarkerConfiguration);
+				// Read the version first so that a page rendered during a metadata change is never cached as up to date
+				final long metadataVersion = apiMetadataService.getVersion();
+				final ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
+
+				RenderedTemplate rendered = renderedTemplates.getIfPresent(pageEntity.getId());
+				if (rendered == null
+						|| !rendered.matches(pageEntity.getContent(), apiEntity.getUpdatedAt(), metadataVersion)) {
+					Template template = getTemplate(pageEntity);
 
-				ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
-				Map<String, Object> model = new HashMap<>();
-				model.put("api", apiEntity);
+					Map<String, Object> model = new HashMap<>();
+					model.put("api", apiEntity);
 
-				final String content =
-						FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+					final String content =
+							FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
 
-				pageEntity.setContent(content);
+					rendered = new RenderedTemplate(pageEntity.getContent(), apiEntity.getUpdatedAt(), metadataVersion, content);
+					renderedTemplates.put(pageEntity.getId(), rendered);
+				}
+
+				pageEntity.setContent(rendered.content);
 			} catch (IOException | TemplateException ex) {
 				logger.error("An error occurs while transforming page content for {}", pageEntity.getId(), ex);
 			}
 		}
 	}
 
+	private Template getTemplate(final PageEntity pageEntity) throws IOException {
+		CompiledTemplate compiled = templates.getIfPresent(pageEntity.getId());
+		if (compiled == null || !compiled.source.equals(pageEntity.getContent())) {
+			compiled = new CompiledTemplate(pageEntity.getContent(),
+					new Template(pageEntity.getId(), pageEntity.getContent(), freemarkerConfiguration));
+			templates.put(pageEntity.getId(), compiled);
+		}
+		return compiled.template;
+	}
+
+	private void evictTemplates(final String pageId) {
+		if (templates == null) {
+			// caches not initialized by the container
+			return;
+		}
+		templates.invalidate(pageId);
+		renderedTemplates.invalidate(pageId);
+	}
+
 	@Override
 	public PageEntity createApiPage(String apiId, NewPageEntity newPageEntity) {
 		try {
@@ -420,9 +488,11 @@ public class PageServiceImpl extends TransactionalService implements PageService
 			// if order change, reorder all pages
 			if (page.getOrder() != pageToUpdate.getOrder()) {
 				reorderAndSavePages(page);
+				evictTemplates(pageId);
 				return null;
 			} else {
 				Page updatedPage = pageRepository.update(page);
+				evictTemplates(pageId);
 				createAuditLog(page.getApi(), PAGE_UPDATED, page.getUpdatedAt(), pageToUpdate, page);
 				return convert(updatedPage);
 			}
@@ -509,6 +579,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
 			}
 
 			pageRepository.delete(pageId);
+			evictTemplates(pageId);
             createAuditLog(optPage.get().getApi(), PAGE_DELETED, new Date(), optPage.get(), null);
 			if(io.gravitee.repository.management.model.PageType.FOLDER.equals(optPage.get().getType())) {
                 pageRepository.removeAllFolderParentWith(pageId, optPage.get().getApi());
@@ -754,4 +825,33 @@ public class PageServiceImpl extends TransactionalService implements PageService
 			);
 		}
 	}
+
+	private static final class CompiledTemplate {
+		private final String source;
+		private final Template template;
+
+		private CompiledTemplate(String source, Template template) {
+			this.source = source;
+			this.template = template;
+		}
+	}
+
+	private static final class RenderedTemplate {
+		private final String source;
+		private final Date apiUpdatedAt;
+		private final long metadataVersion;
+		private final String content;
+
+		private RenderedTemplate(String source, Date apiUpdatedAt, long metadataVersion, String content) {
+			this.source = source;
+			this.apiUpdatedAt = apiUpdatedAt;
+			this.metadataVersion = metadataVersion;
+			this.content = content;
+		}
+
+		private boolean matches(String source, Date apiUpdatedAt, long metadataVersion) {
+			return this.metadataVersion == metadataVersion && Objects.equals(this.apiUpdatedAt, apiUpdatedAt)
+					&& this.source.equals(source);
+		}
+	}
 }
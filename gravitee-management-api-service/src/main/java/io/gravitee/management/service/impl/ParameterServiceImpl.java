@@ -24,10 +24,16 @@ import io.gravitee.repository.management.api.ParameterRepository;
 import io.gravitee.repository.management.model.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -41,12 +47,15 @@ import static java.util.Collections.*;
 import static java.util.stream.Collectors.toList;
 
 /**
+ * Parameters are kept in memory: they are all loaded on startup, updated when saved, and reloaded periodically to
+ * get the changes made by the other management nodes.
+ *
  * @author Azize ELAMRANI (azize at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class ParameterServiceImpl extends TransactionalService implements ParameterService {
+public class ParameterServiceImpl extends TransactionalService implements ParameterService, InitializingBean, DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ParameterServiceImpl.class);
 
@@ -57,6 +66,65 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
     @Inject
     private AuditService auditService;
 
+    @Value("${parameters.refresh.interval:5000}")
+    private long refreshInterval;
+
+    /**
+     * Values of the stored parameters by key, null until the parameters have been loaded.
+     */
+    private volatile Map<String, String> parameters;
+
+    private ScheduledExecutorService refresher;
+
+    @Override
+    public void afterPropertiesSet() {
+        refresh();
+        if (refreshInterval > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "parameters-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Synchronized with {@link #updateParameter(String, String, boolean)} so that the values read before a local
+     * update cannot be published after it.
+     */
+    synchronized void refresh() {
+        try {
+            final List<Parameter> storedParameters =
+                    parameterRepository.findAll(stream(Key.values()).map(Key::key).collect(toList()));
+            final Map<String, String> values = new HashMap<>(storedParameters.size());
+            storedParameters.forEach(parameter -> values.put(parameter.getKey(), parameter.getValue()));
+            parameters = unmodifiableMap(values);
+        } catch (final Exception ex) {
+            LOGGER.error("An error occurs while trying to load parameters", ex);
+        }
+    }
+
+    private synchronized void updateParameter(final String key, final String value, final boolean deleted) {
+        final Map<String, String> values = parameters;
+        if (values != null) {
+            final Map<String, String> updatedValues = new HashMap<>(values);
+            if (deleted) {
+                updatedValues.remove(key);
+            } else {
+                updatedValues.put(key, value);
+            }
+            parameters = unmodifiableMap(updatedValues);
+        }
+    }
+
     @Override
     public boolean findAsBoolean(final Key key) {
         final List<String> values = findAll(key);
@@ -91,6 +159,10 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
 
     @Override
     public <T> List<T> findAll(final Key key, final Function<String, T> mapper, final Predicate<String> filter) {
+        final Map<String, String> values = parameters;
+        if (values != null) {
+            return splitValue(values.get(key.key()), mapper, filter);
+        }
         try {
             final Optional<Parameter> optionalParameter = parameterRepository.findById(key.key());
             if (optionalParameter.isPresent()) {
@@ -106,6 +178,14 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
 
     @Override
     public <T> Map<String, List<T>> findAll(List<Key> keys, Function<String, T> mapper, Predicate<String> filter) {
+        final Map<String, String> values = parameters;
+        if (values != null) {
+            Map<String, List<T>> result = new HashMap<>();
+            keys.stream()
+                    .filter(key -> values.containsKey(key.key()))
+                    .forEach(key -> result.put(key.key(), splitValue(values.get(key.key()), mapper, filter)));
+            return result.isEmpty() ? emptyMap() : result;
+        }
         try {
             List<Parameter> parameters = parameterRepository.findAll(keys.stream().map(Key::key).collect(toList()));
             if (parameters.isEmpty()) {
@@ -146,9 +226,11 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
             if (updateMode) {
                 if (value == null) {
                     parameterRepository.delete(key.key());
+                    updateParameter(key.key(), null, true);
                     return null;
                 } else {
                     final Parameter updatedParameter = parameterRepository.update(parameter);
+                    updateParameter(updatedParameter.getKey(), updatedParameter.getValue(), false);
                     auditService.createPortalAuditLog(
                             singletonMap(PARAMETER, updatedParameter.getKey()),
                             PARAMETER_UPDATED,
@@ -162,6 +244,7 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
                     return null;
                 }
                 final Parameter savedParameter = parameterRepository.create(parameter);
+                updateParameter(savedParameter.getKey(), savedParameter.getValue(), false);
                 auditService.createPortalAuditLog(
                         singletonMap(PARAMETER, savedParameter.getKey()),
                         PARAMETER_CREATED,
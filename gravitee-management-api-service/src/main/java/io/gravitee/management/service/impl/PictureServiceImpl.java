@@ -0,0 +1,270 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.gravitee.management.model.InlinePictureEntity;
+import io.gravitee.management.service.PictureService;
+import io.gravitee.management.service.exceptions.ApiNotFoundException;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.exceptions.UserNotFoundException;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.UserRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.xml.bind.DatatypeConverter;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pictures are decoded once, their digest is computed once, and the thumbnails are generated once, then everything is
+ * kept in a cache bounded by the number of bytes of the pictures. A cached picture is only served for the version it
+ * has been loaded with: otherwise its reference is read again, and the picture only decoded again when its version has
+ * changed.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class PictureServiceImpl implements PictureService, InitializingBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(PictureServiceImpl.class);
+
+    @Autowired
+    private ApiRepository apiRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${pictures.cache.weight:52428800}")
+    private long cacheWeight;
+
+    @Value("${pictures.cache.ttl:600000}")
+    private long cacheTtl;
+
+    @Value("${pictures.thumbnail.sizes:32,64,128,256}")
+    private String thumbnailSizes;
+
+    private int[] sizes;
+
+    /**
+     * Versioned picture of each reference, without picture when it has no inline picture.
+     */
+    private Cache<String, VersionedPicture> pictures;
+
+    /**
+     * Thumbnails, by reference, digest and version of the picture, and size.
+     */
+    private Cache<String, InlinePictureEntity> thumbnails;
+
+    @Override
+    public void afterPropertiesSet() {
+        sizes = Arrays.stream(thumbnailSizes.split(","))
+                .map(String::trim)
+                .filter(size -> !size.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+        pictures = CacheBuilder.newBuilder()
+                .maximumWeight(cacheWeight)
+                .weigher((String key, VersionedPicture picture) ->
+                        picture.picture == null ? 0 : picture.picture.getContent().length)
+                .expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+                .build();
+        thumbnails = CacheBuilder.newBuilder()
+                .maximumWeight(cacheWeight)
+                .weigher((String key, InlinePictureEntity thumbnail) -> thumbnail.getContent().length)
+                .expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public InlinePictureEntity getPicture(Type type, String id, String version, Integer size) {
+        if (version != null) {
+            final VersionedPicture cached = pictures.getIfPresent(key(type, id));
+            if (cached != null && version.equals(cached.version)) {
+                return scale(type, id, cached.picture, size);
+            }
+        }
+        return scale(type, id, load(type, id), size);
+    }
+
+    @Override
+    public InlinePictureEntity getPicture(Type type, String id, Date updatedAt, String picture, Integer size) {
+        if (!isInline(picture)) {
+            return null;
+        }
+        return scale(type, id, get(type, id, PictureService.version(updatedAt), picture), size);
+    }
+
+    private InlinePictureEntity scale(Type type, String id, InlinePictureEntity picture, Integer size) {
+        final int thumbnailSize = thumbnailSize(size);
+        if (picture == null || thumbnailSize == -1) {
+            return picture;
+        }
+        try {
+            return thumbnails.get(key(type, id) + ':' + picture.getDigest() + ':' + picture.getVersion() + ':' + thumbnailSize,
+                    () -> thumbnail(picture, thumbnailSize));
+        } catch (ExecutionException ee) {
+            LOGGER.warn("Unable to generate a {}px thumbnail of the picture of {} {}", thumbnailSize, type, id, ee.getCause());
+            return picture;
+        }
+    }
+
+    @Override
+    public void evict(Type type, String id) {
+        // the thumbnails of the previous picture are not served anymore, and expire
+        pictures.invalidate(key(type, id));
+    }
+
+    private InlinePictureEntity load(Type type, String id) {
+        try {
+            switch (type) {
+                case API:
+                    final List<Api> apis = apiRepository.search(new ApiCriteria.Builder().ids(id).build(),
+                            new ApiFieldExclusionFilter.Builder().excludeDefinition().build());
+                    if (apis.isEmpty()) {
+                        throw new ApiNotFoundException(id);
+                    }
+                    return get(type, id, PictureService.version(apis.get(0).getUpdatedAt()), apis.get(0).getPicture());
+                case USER:
+                    final User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+                    return get(type, id, PictureService.version(user.getUpdatedAt()), user.getPicture());
+                default:
+                    throw new IllegalArgumentException("Unsupported picture type " + type);
+            }
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to load the picture of {} {}", type, id, ex);
+            throw new TechnicalManagementException("An error occurs while trying to load the picture of " + type + ' ' + id, ex);
+        }
+    }
+
+    /**
+     * @return the cached picture of the reference if it has the given version, the given picture decoded otherwise.
+     */
+    private InlinePictureEntity get(Type type, String id, String version, String dataUri) {
+        final VersionedPicture cached = pictures.getIfPresent(key(type, id));
+        if (cached != null && version != null && version.equals(cached.version)) {
+            return cached.picture;
+        }
+
+        final InlinePictureEntity picture = decode(dataUri);
+        if (picture != null) {
+            picture.setVersion(version);
+        }
+        pictures.put(key(type, id), new VersionedPicture(version, picture));
+        return picture;
+    }
+
+    private static boolean isInline(String dataUri) {
+        // No picture, or an external URL otherwise
+        return dataUri != null && dataUri.startsWith("data:");
+    }
+
+    private InlinePictureEntity decode(String dataUri) {
+        if (!isInline(dataUri)) {
+            return null;
+        }
+        try {
+            final InlinePictureEntity picture = new InlinePictureEntity();
+            final String[] parts = dataUri.split(";", 2);
+            picture.setType(parts[0].split(":")[1]);
+            picture.setContent(DatatypeConverter.parseBase64Binary(dataUri.split(",", 2)[1]));
+            picture.setDigest(Hashing.sha256().hashBytes(picture.getContent()).toString());
+            return picture;
+        } catch (Exception ex) {
+            LOGGER.warn("Unable to decode picture", ex);
+            return null;
+        }
+    }
+
+    /**
+     * @return the smallest configured thumbnail size which is at least the requested one, -1 for the original picture.
+     */
+    private int thumbnailSize(Integer size) {
+        if (size != null && size > 0) {
+            for (int thumbnailSize : sizes) {
+                if (thumbnailSize >= size) {
+                    return thumbnailSize;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static InlinePictureEntity thumbnail(InlinePictureEntity picture, int size) throws IOException {
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(picture.getContent()));
+        if (image == null || (image.getWidth() <= size && image.getHeight() <= size)) {
+            // Unsupported format (svg...) or already small enough
+            return picture;
+        }
+
+        final double ratio = Math.min((double) size / image.getWidth(), (double) size / image.getHeight());
+        final int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        final int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        final BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "png", baos);
+
+        final InlinePictureEntity thumbnail = new InlinePictureEntity();
+        thumbnail.setType("image/png");
+        thumbnail.setContent(baos.toByteArray());
+        thumbnail.setDigest(picture.getDigest() + '-' + size);
+        thumbnail.setVersion(picture.getVersion());
+        return thumbnail;
+    }
+
+    private static String key(Type type, String id) {
+        return type.name() + ':' + id;
+    }
+
+    private static final class VersionedPicture {
+        private final String version;
+        private final InlinePictureEntity picture;
+
+        private VersionedPicture(String version, InlinePictureEntity picture) {
+            this.version = version;
+            this.picture = picture;
+        }
+    }
+}
@@ -18,10 +18,13 @@ package io.gravitee.management.service.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.definition.model.Path;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.parameters.Key;
+import io.gravitee.management.model.plan.PlanClosingEntity;
 import io.gravitee.management.model.plan.PlanQuery;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.ParameterService;
@@ -33,11 +36,18 @@ import io.gravitee.repository.management.api.PlanRepository;
 import io.gravitee.repository.management.model.Plan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.Audit.AuditProperties.PLAN;
@@ -50,7 +60,7 @@ import static java.util.Collections.emptySet;
  * @author GraviteeSource Team
  */
 @Component
-public class PlanServiceImpl extends TransactionalService implements PlanService {
+public class PlanServiceImpl extends TransactionalService implements PlanService, InitializingBean, DisposableBean {
 
     /**
      * Logger.
@@ -72,6 +82,21 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
     @Autowired
     private ParameterService parameterService;
 
+    @Value("${plan.close.background.threshold:1000}")
+    private long closeInBackgroundThreshold = 1000;
+
+    @Value("${plan.close.resume.delay:3600000}")
+    private long closeResumeDelay = 3600000;
+
+    /**
+     * Background closings of the subscriptions of the plans, kept for an hour once ended.
+     */
+    private final Cache<String, PlanClosing> closings = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
+    private ExecutorService closer;
+
     private static final List<PlanSecurityEntity> DEFAULT_SECURITY_LIST =
             Collections.unmodifiableList(Arrays.asList(
                     new PlanSecurityEntity("oauth2", "OAuth2", "oauth2"),
@@ -80,6 +105,22 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
                     new PlanSecurityEntity("key_less", "Keyless (public)", "")
             ));
 
+    @Override
+    public void afterPropertiesSet() {
+        closer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "plan-closer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (closer != null) {
+            closer.shutdownNow();
+        }
+    }
+
     @Override
     public PlanEntity findById(String plan) {
         try {
@@ -290,13 +331,10 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
 
             // Close active subscriptions and reject pending
             if (plan.getSecurity() != Plan.PlanSecurityType.KEY_LESS) {
-                subscriptionService.findByPlan(planId)
-                        .stream()
-                        .filter(subscriptionEntity -> subscriptionEntity.getStatus() == SubscriptionStatus.ACCEPTED)
-                        .forEach(subscription -> subscriptionService.close(subscription.getId()));
+                final Collection<SubscriptionEntity> subscriptions = subscriptionService.findByPlan(planId);
 
                 final String planName = plan.getName();
-                subscriptionService.findByPlan(planId)
+                subscriptions
                         .stream()
                         .filter(subscriptionEntity -> subscriptionEntity.getStatus() == SubscriptionStatus.PENDING)
                         .forEach(subscription -> {
@@ -306,6 +344,16 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
                             processSubscriptionEntity.setReason("Plan " + planName + " has been closed.");
                             subscriptionService.process(processSubscriptionEntity, userId);
                         });
+
+                final long acceptedSubscriptions = subscriptions
+                        .stream()
+                        .filter(subscriptionEntity -> subscriptionEntity.getStatus() == SubscriptionStatus.ACCEPTED)
+                        .count();
+                if (acceptedSubscriptions > closeInBackgroundThreshold) {
+                    closeSubscriptionsInBackground(planId, acceptedSubscriptions);
+                } else if (acceptedSubscriptions > 0) {
+                    subscriptionService.closeByPlan(planId, null);
+                }
             }
 
             // Save plan
@@ -331,6 +379,62 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
         }
     }
 
+    @Override
+    public PlanClosingEntity findClosing(String plan) {
+        final PlanClosing closing = closings.getIfPresent(plan);
+        return (closing == null) ? null : closing.toEntity();
+    }
+
+    @Override
+    public void resumeClosings() {
+        // A closing may still be running on another node for a while after the plan has been closed
+        final long closedBefore = System.currentTimeMillis() - closeResumeDelay;
+        subscriptionService.pollAcceptedSubscriptionsByPlan().forEach((planId, subscriptions) -> {
+            final PlanClosing closing = closings.getIfPresent(planId);
+            if (closing != null && closing.endedAt == null) {
+                // still running on this node
+                return;
+            }
+            try {
+                final Optional<Plan> optPlan = planRepository.findById(planId);
+                if (optPlan.isPresent() && optPlan.get().getStatus() == Plan.Status.CLOSED
+                        && optPlan.get().getClosedAt() != null && optPlan.get().getClosedAt().getTime() < closedBefore) {
+                    logger.warn("{} subscriptions of the closed plan {} are still accepted, resume their closing",
+                            subscriptions, planId);
+                    closeSubscriptionsInBackground(planId, subscriptions);
+                }
+            } catch (TechnicalException ex) {
+                logger.error("An error occurs while trying to resume the closing of the subscriptions of plan {}", planId, ex);
+            }
+        });
+    }
+
+    private void closeSubscriptionsInBackground(String planId, long subscriptions) {
+        logger.info("Close the {} subscriptions of plan {} in background", subscriptions, planId);
+        final PlanClosing closing = new PlanClosing(planId, subscriptions);
+        closings.put(planId, closing);
+        // The subscriptions are closed on behalf of the current user, who is the author of their audit logs
+        closer.execute(new DelegatingSecurityContextRunnable(() -> {
+            try {
+                subscriptionService.closeByPlan(planId, closed -> {
+                    closing.closedSubscriptions = closed;
+                    if (closed % 1000 == 0) {
+                        logger.info("{} / {} subscriptions of plan {} closed", closed, subscriptions, planId);
+                    }
+                });
+            } catch (Exception ex) {
+                logger.error("An error occurs while trying to close subscriptions of plan {} in background, {} / {} closed",
+                        planId, closing.closedSubscriptions, subscriptions, ex);
+                closing.error = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+                closing.failed = true;
+            } finally {
+                closing.endedAt = new Date();
+                // Keep the result available for a while after the end of the closing
+                closings.put(planId, closing);
+            }
+        }));
+    }
+
     @Override
     public void delete(String plan) {
         try {
@@ -558,4 +662,31 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
             throw new UnauthorizedPlanSecurityTypeException(securityType);
         }
     }
+
+    private static final class PlanClosing {
+        private final String plan;
+        private final long subscriptions;
+        private final Date startedAt = new Date();
+        private volatile long closedSubscriptions;
+        private volatile Date endedAt;
+        private volatile boolean failed;
+        private volatile String error;
+
+        private PlanClosing(String plan, long subscriptions) {
+            this.plan = plan;
+            this.subscriptions = subscriptions;
+        }
+
+        private PlanClosingEntity toEntity() {
+            final PlanClosingEntity entity = new PlanClosingEntity();
+            entity.setPlan(plan);
+            entity.setSubscriptions(subscriptions);
+            entity.setClosedSubscriptions(closedSubscriptions);
+            entity.setStartedAt(startedAt);
+            entity.setEndedAt(endedAt);
+            entity.setFailed(failed);
+            entity.setError(error);
+            return entity;
+        }
+    }
 }
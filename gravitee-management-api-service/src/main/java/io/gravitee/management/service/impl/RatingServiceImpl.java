@@ -15,6 +15,11 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
@@ -35,13 +40,17 @@ import io.gravitee.repository.management.model.Rating;
 import io.gravitee.repository.management.model.RatingAnswer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
-import java.util.OptionalDouble;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.Comparator.comparing;
 import static java.util.Comparator.reverseOrder;
@@ -53,7 +62,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * @author GraviteeSource Team
  */
 @Component
-public class RatingServiceImpl extends AbstractService implements RatingService {
+public class RatingServiceImpl extends AbstractService implements RatingService, InitializingBean, DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RatingServiceImpl.class);
 
@@ -77,6 +86,53 @@ public class RatingServiceImpl extends AbstractService implements RatingService
     @Autowired
     private ApiService apiService;
 
+    /**
+     * Time after which the rating aggregates of an API are reloaded in background, so that ratings done through
+     * another node are eventually taken into account.
+     */
+    @Value("${rating.summary.ttl:300000}")
+    private long summaryTtl = 300000;
+
+    @Value("${rating.summary.size:10000}")
+    private long summaryCacheSize = 10000;
+
+    private ExecutorService refresher;
+
+    private LoadingCache<String, RatingAggregate> aggregates;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Version of the last rating change of each API. An aggregate loaded before it, by a reload running while the
+     * rating was changed, is outdated.
+     */
+    private Cache<String, Long> changeVersions;
+
+    @Override
+    public void afterPropertiesSet() {
+        refresher = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "rating-summary-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Expired aggregates keep being served while they are reloaded, so that listing APIs never waits for it
+        aggregates = CacheBuilder.newBuilder()
+                .maximumSize(summaryCacheSize)
+                .refreshAfterWrite(summaryTtl, TimeUnit.MILLISECONDS)
+                .build(CacheLoader.asyncReloading(CacheLoader.from(this::loadAggregate), refresher));
+        changeVersions = CacheBuilder.newBuilder()
+                .maximumSize(summaryCacheSize)
+                .expireAfterWrite(2 * summaryTtl, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
     @Override
     public RatingEntity create(final NewRatingEntity ratingEntity) {
         if (!isEnabled()) {
@@ -88,6 +144,7 @@ public class RatingServiceImpl extends AbstractService implements RatingService
                 throw new RatingAlreadyExistsException(ratingEntity.getApi(), getAuthenticatedUsername());
             }
             Rating rating = ratingRepository.create(convert(ratingEntity));
+            ratingChanged(rating.getApi());
             auditService.createApiAuditLog(rating.getApi(), null, Rating.RatingEvent.RATING_CREATED, rating.getCreatedAt(), null, rating);
 
             notifierService.trigger(
@@ -158,17 +215,54 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         if (!isEnabled()) {
             throw new ApiRatingUnavailableException();
         }
+        return getAggregate(api).toSummary(api);
+    }
+
+    @Override
+    public Map<String, RatingSummaryEntity> findSummariesByApis(final Collection<String> apis) {
+        if (!isEnabled()) {
+            throw new ApiRatingUnavailableException();
+        }
+        final Map<String, RatingSummaryEntity> summaries = new HashMap<>(apis.size());
+        for (String api : apis) {
+            summaries.put(api, getAggregate(api).toSummary(api));
+        }
+        return summaries;
+    }
+
+    @Override
+    public void evictSummary(final String api) {
+        aggregates.invalidate(api);
+    }
+
+    private void ratingChanged(final String api) {
+        changeVersions.put(api, versions.incrementAndGet());
+        aggregates.invalidate(api);
+    }
+
+    private RatingAggregate getAggregate(final String api) {
         try {
-            final List<Rating> ratings = ratingRepository.findByApi(api);
-            final RatingSummaryEntity ratingSummary = new RatingSummaryEntity();
-            ratingSummary.setApi(api);
-            ratingSummary.setNumberOfRatings(ratings.size());
-            final OptionalDouble optionalAvg = ratings.stream().mapToInt(Rating::getRate).average();
-            if (optionalAvg.isPresent()) {
-                ratingSummary.setAverageRate(optionalAvg.getAsDouble());
+            RatingAggregate aggregate = aggregates.getUnchecked(api);
+            final Long changeVersion = changeVersions.getIfPresent(api);
+            if (changeVersion != null && aggregate.version < changeVersion) {
+                // Published by a reload started before the last rating change
+                aggregates.invalidate(api);
+                aggregate = aggregates.getUnchecked(api);
             }
-            ratingSummary.setNumberOfRatingsByRate(ratings.stream().collect(groupingBy(Rating::getRate, counting())));
-            return ratingSummary;
+            return aggregate;
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private RatingAggregate loadAggregate(final String api) {
+        try {
+            final RatingAggregate aggregate = new RatingAggregate(versions.get());
+            ratingRepository.findByApi(api).forEach(rating -> aggregate.add(rating.getRate()));
+            return aggregate;
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurred while trying to find summary rating for api {}", api, ex);
             throw new TechnicalManagementException("An error occurred while trying to find summary rating for api " + api, ex);
@@ -216,6 +310,7 @@ public class RatingServiceImpl extends AbstractService implements RatingService
                 rating.setComment(ratingEntity.getComment());
             }
             Rating updatedRating = ratingRepository.update(rating);
+            ratingChanged(rating.getApi());
             auditService.createApiAuditLog(rating.getApi(), null, Rating.RatingEvent.RATING_UPDATED, updatedRating.getUpdatedAt(), oldRating, updatedRating);
             return convert(updatedRating);
         } catch (TechnicalException ex) {
@@ -232,6 +327,7 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         try {
             Rating rating = findById(id);
             ratingRepository.delete(id);
+            ratingChanged(rating.getApi());
             auditService.createApiAuditLog(rating.getApi(), null, Rating.RatingEvent.RATING_DELETED, new Date(), rating, null);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete rating {}", id, ex);
@@ -337,4 +433,36 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         rating.setUpdatedAt(now);
         return rating;
     }
+
+    /**
+     * Number of ratings, sum of rates and number of ratings by rate of an API.
+     */
+    private static final class RatingAggregate {
+        private final long version;
+        private final Map<Byte, Long> numberOfRatingsByRate = new HashMap<>();
+        private int count;
+        private long sum;
+
+        RatingAggregate(final long version) {
+            this.version = version;
+        }
+
+        synchronized RatingAggregate add(final byte rate) {
+            count++;
+            sum += rate;
+            numberOfRatingsByRate.merge(rate, 1L, Long::sum);
+            return this;
+        }
+
+        synchronized RatingSummaryEntity toSummary(final String api) {
+            final RatingSummaryEntity ratingSummary = new RatingSummaryEntity();
+            ratingSummary.setApi(api);
+            ratingSummary.setNumberOfRatings(count);
+            if (count > 0) {
+                ratingSummary.setAverageRate((double) sum / count);
+            }
+            ratingSummary.setNumberOfRatingsByRate(new HashMap<>(numberOfRatingsByRate));
+            return ratingSummary;
+        }
+    }
 }
@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.management.model.InstanceListItem;
+import io.gravitee.management.service.InstanceService;
+import io.gravitee.management.service.ReferenceMetadataResolver;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.*;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class ReferenceMetadataResolverImpl implements ReferenceMetadataResolver, InitializingBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ReferenceMetadataResolverImpl.class);
+
+    private static final String APPLICATION_KEYLESS = "1";
+
+    @Autowired
+    private ApiRepository apiRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PageRepository pageRepository;
+
+    @Autowired
+    private InstanceService instanceService;
+
+    @Value("${metadata.cache.size:10000}")
+    private long cacheSize;
+
+    @Value("${metadata.cache.ttl:60000}")
+    private long cacheTtl;
+
+    /**
+     * Time to live of the placeholders of missing references, shorter so that a reference created in the meantime
+     * (or seen too early from another node) is soon resolved.
+     */
+    @Value("${metadata.cache.missing.ttl:5000}")
+    private long missingCacheTtl;
+
+    private Cache<String, Map<String, String>> cache;
+
+    private Cache<String, Map<String, String>> missingCache;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+                .build();
+        missingCache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(missingCacheTtl, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public Map<String, Map<String, String>> resolve(Type type, Set<String> ids) {
+        final Map<String, Map<String, String>> metadata = new HashMap<>(ids.size());
+        final Set<String> missingIds = new HashSet<>();
+        for (String id : ids) {
+            Map<String, String> cached = cache.getIfPresent(key(type, id));
+            if (cached == null) {
+                cached = missingCache.getIfPresent(key(type, id));
+            }
+            if (cached != null) {
+                metadata.put(id, cached);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            try {
+                load(type, missingIds).forEach((id, values) -> {
+                    final Map<String, String> unmodifiableValues = Collections.unmodifiableMap(values);
+                    if ("true".equals(values.get("deleted")) && !isKeylessApplication(type, id)) {
+                        missingCache.put(key(type, id), unmodifiableValues);
+                    } else {
+                        cache.put(key(type, id), unmodifiableValues);
+                    }
+                    metadata.put(id, unmodifiableValues);
+                });
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to resolve {} metadata for {}", type, missingIds, ex);
+                throw new TechnicalManagementException("An error occurs while trying to resolve " + type + " metadata", ex);
+            }
+        }
+
+        return metadata;
+    }
+
+    @Override
+    public void evict(Type type, String id) {
+        cache.invalidate(key(type, id));
+        missingCache.invalidate(key(type, id));
+    }
+
+    private Map<String, Map<String, String>> load(Type type, Set<String> ids) throws TechnicalException {
+        final Map<String, Map<String, String>> metadata = new HashMap<>(ids.size());
+
+        switch (type) {
+            case API:
+                final List<Api> apis = apiRepository.search(
+                        new ApiCriteria.Builder().ids(ids.toArray(new String[ids.size()])).build(),
+                        new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build());
+                for (Api api : apis) {
+                    metadata.put(api.getId(), name(api.getName()));
+                    metadata.get(api.getId()).put("version", api.getVersion());
+                }
+                ids.stream().filter(id -> !metadata.containsKey(id)).forEach(id -> {
+                    metadata.put(id, deleted());
+                    metadata.get(id).put("name", "Deleted API");
+                });
+                break;
+            case APPLICATION:
+                for (Application application : applicationRepository.findByIds(new ArrayList<>(ids))) {
+                    metadata.put(application.getId(), name(application.getName()));
+                    if (ApplicationStatus.ARCHIVED.equals(application.getStatus())) {
+                        metadata.get(application.getId()).put("deleted", "true");
+                    }
+                }
+                ids.stream().filter(id -> !metadata.containsKey(id)).forEach(id -> {
+                    metadata.put(id, deleted());
+                    metadata.get(id).put("name", APPLICATION_KEYLESS.equals(id) ?
+                            "Unknown application (keyless)" : "Deleted application");
+                });
+                break;
+            case PLAN:
+                // The plan repository has no finder by ids
+                for (String id : ids) {
+                    final Optional<Plan> optPlan = planRepository.findById(id);
+                    metadata.put(id, optPlan.isPresent() ? name(optPlan.get().getName()) : deleted());
+                }
+                break;
+            case TENANT:
+                // Tenants are few, so they are all read at once
+                for (Tenant tenant : tenantRepository.findAll()) {
+                    if (ids.contains(tenant.getId())) {
+                        metadata.put(tenant.getId(), name(tenant.getName()));
+                    }
+                }
+                ids.stream().filter(id -> !metadata.containsKey(id)).forEach(id -> metadata.put(id, deleted()));
+                break;
+            case GATEWAY:
+                for (InstanceListItem instance : instanceService.findInstances(true)) {
+                    if (ids.contains(instance.getId())) {
+                        final Map<String, String> gateway = new HashMap<>();
+                        gateway.put("hostname", instance.getHostname());
+                        gateway.put("ip", instance.getIp());
+                        if (instance.getTenant() != null) {
+                            gateway.put("tenant", instance.getTenant());
+                        }
+                        metadata.put(instance.getId(), gateway);
+                    }
+                }
+                ids.stream().filter(id -> !metadata.containsKey(id)).forEach(id -> metadata.put(id, deleted()));
+                break;
+            case USER:
+                for (User user : userRepository.findByIds(new ArrayList<>(ids))) {
+                    if (user.getFirstname() != null && user.getLastname() != null) {
+                        metadata.put(user.getId(), name(user.getFirstname() + ' ' + user.getLastname()));
+                    } else {
+                        metadata.put(user.getId(), name(user.getUsername()));
+                    }
+                }
+                ids.stream().filter(id -> !metadata.containsKey(id)).forEach(id -> metadata.put(id, deleted()));
+                break;
+            case GROUP:
+                for (Group group : groupRepository.findByIds(ids)) {
+                    metadata.put(group.getId(), name(group.getName()));
+                }
+                ids.stream().filter(id -> !metadata.containsKey(id)).forEach(id -> metadata.put(id, deleted()));
+                break;
+            case PAGE:
+                // The page repository has no finder by ids
+                for (String id : ids) {
+                    final Optional<Page> optPage = pageRepository.findById(id);
+                    metadata.put(id, optPage.isPresent() ? name(optPage.get().getName()) : deleted());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported reference type " + type);
+        }
+
+        return metadata;
+    }
+
+    private static Map<String, String> name(String name) {
+        final Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", name);
+        return metadata;
+    }
+
+    private static Map<String, String> deleted() {
+        final Map<String, String> metadata = new HashMap<>();
+        metadata.put("deleted", "true");
+        return metadata;
+    }
+
+    private static boolean isKeylessApplication(Type type, String id) {
+        return type == Type.APPLICATION && APPLICATION_KEYLESS.equals(id);
+    }
+
+    private static String key(Type type, String id) {
+        return type.name() + ':' + id;
+    }
+}
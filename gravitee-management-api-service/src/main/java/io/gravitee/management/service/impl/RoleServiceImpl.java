@@ -27,7 +27,6 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.RoleRepository;
 import io.gravitee.repository.management.model.Role;
 import io.gravitee.repository.management.model.RoleScope;
-import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,7 +36,6 @@ import java.awt.*;
 import java.util.*;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static io.gravitee.management.model.permissions.RolePermissionAction.*;
 import static io.gravitee.repository.management.model.Audit.AuditProperties.ROLE;
@@ -185,6 +183,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             Role updatedRole = convert(roleEntity);
             updatedRole.setCreatedAt(role.getCreatedAt());
             RoleEntity entity = convert(roleRepository.update(updatedRole));
+            membershipService.invalidateMemberPermissions();
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
                     ROLE_UPDATED,
@@ -272,22 +271,13 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
 
     @Override
     public boolean hasPermission(Map<String, char[]> userPermissions, Permission permission, RolePermissionAction[] acls) {
-        boolean hasPermission = false;
-        if (userPermissions != null) {
-            Iterator<Map.Entry<String, char[]>> it = userPermissions.entrySet().iterator();
-            while (it.hasNext() && !hasPermission) {
-                Map.Entry<String, char[]> entry = it.next();
-                if (permission.getName().equals(entry.getKey())) {
-                    String crud = Arrays.toString(entry.getValue());
-                    for (RolePermissionAction perm : acls) {
-                        if (crud.indexOf(perm.getId()) != -1) {
-                            hasPermission = true;
-                        }
-                    }
-                }
-            }
+        if (userPermissions == null) {
+            return false;
+        }
+        if (userPermissions instanceof PermissionSet) {
+            return ((PermissionSet) userPermissions).has(permission, acls);
         }
-        return hasPermission;
+        return (PermissionSet.mask(userPermissions.get(permission.getName())) & PermissionSet.mask(acls)) != 0;
     }
 
     private void toggleDefaultRole(RoleScope scope, String newDefaultRoleName) throws TechnicalException {
@@ -369,24 +359,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
     }
 
     private Map<String, char[]> convertPermissions(io.gravitee.management.model.permissions.RoleScope scope, int[] perms) {
-        if (perms == null) {
-            return Collections.emptyMap();
-        }
-        Map<String, char[]> result = new HashMap<>();
-        Stream.of(Permission.findByScope(scope)).forEach(perm -> {
-            for (int action : perms) {
-                if (action / 100 == perm.getMask() / 100) {
-                    List<Character> crud = new ArrayList<>();
-                    for (RolePermissionAction rolePermissionAction : RolePermissionAction.values()) {
-                        if (((action - perm.getMask()) & rolePermissionAction.getMask()) != 0) {
-                            crud.add(rolePermissionAction.getId());
-                        }
-                    }
-                    result.put(perm.getName(), ArrayUtils.toPrimitive(crud.toArray(new Character[crud.size()])));
-                }
-            }
-        });
-        return result;
+        return PermissionSet.of(scope, perms);
     }
 
     private RoleScope convert(io.gravitee.management.model.permissions.RoleScope scope) {
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import java.util.*;
+
+/**
+ * Ending dates of the accepted subscriptions, ordered by date so that the ended subscriptions can be found without
+ * scanning the others.
+ *
+ * Changed or removed subscriptions are not removed from the queue: their outdated entries are skipped when they are
+ * polled, and dropped when the index is loaded again.
+ *
+ * @author GraviteeSource Team
+ */
+public class SubscriptionExpirationIndex {
+
+    private final PriorityQueue<Expiration> expirations = new PriorityQueue<>();
+
+    private final Map<String, Long> endingAts = new HashMap<>();
+
+    private long loadedAt = -1;
+
+    public synchronized void put(final String subscriptionId, final Date endingAt) {
+        if (endingAt == null) {
+            remove(subscriptionId);
+            return;
+        }
+
+        final Long previous = endingAts.put(subscriptionId, endingAt.getTime());
+        if (previous == null || previous != endingAt.getTime()) {
+            expirations.add(new Expiration(subscriptionId, endingAt.getTime()));
+        }
+    }
+
+    public synchronized void remove(final String subscriptionId) {
+        endingAts.remove(subscriptionId);
+    }
+
+    /**
+     * Remove from the index and return the subscriptions ending before the given date.
+     */
+    public synchronized List<String> pollEndedBefore(final long date) {
+        final List<String> subscriptionIds = new ArrayList<>();
+        while (!expirations.isEmpty() && expirations.peek().endingAt < date) {
+            final Expiration expiration = expirations.poll();
+            final Long endingAt = endingAts.get(expiration.subscriptionId);
+            if (endingAt != null && endingAt == expiration.endingAt) {
+                endingAts.remove(expiration.subscriptionId);
+                subscriptionIds.add(expiration.subscriptionId);
+            }
+        }
+        return subscriptionIds;
+    }
+
+    public synchronized boolean isLoaded(final long maxAge) {
+        return loadedAt != -1 && System.currentTimeMillis() - loadedAt < maxAge;
+    }
+
+    public synchronized void load(final Map<String, Date> endingAts) {
+        expirations.clear();
+        this.endingAts.clear();
+        endingAts.forEach(this::put);
+        loadedAt = System.currentTimeMillis();
+    }
+
+    private static class Expiration implements Comparable<Expiration> {
+        private final String subscriptionId;
+        private final long endingAt;
+
+        private Expiration(String subscriptionId, long endingAt) {
+            this.subscriptionId = subscriptionId;
+            this.endingAt = endingAt;
+        }
+
+        @Override
+        public int compareTo(Expiration other) {
+            return Long.compare(endingAt, other.endingAt);
+        }
+    }
+}
@@ -36,10 +36,13 @@ import io.gravitee.repository.management.model.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -88,6 +91,28 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     @Autowired
     private NotifierService notifierService;
 
+    /**
+     * Margin on the update dates of the subscriptions checked since the previous check, for the clock differences
+     * between the nodes and the updates still running during the previous check.
+     */
+    private static final long INDEX_CHECK_MARGIN = 60000;
+
+    @Value("${services.subscriptions.index.ttl:300000}")
+    private long expirationIndexTtl;
+
+    /**
+     * Start of the last load or check of the index.
+     */
+    private volatile long expirationIndexCheckedAt;
+
+    private final SubscriptionExpirationIndex expirationIndex = new SubscriptionExpirationIndex();
+
+    /**
+     * Number of accepted subscriptions by plan, counted when the index has been loaded last, until polled.
+     */
+    private final AtomicReference<Map<String, Long>> acceptedSubscriptionsByPlan =
+            new AtomicReference<>(Collections.emptyMap());
+
     @Override
     public SubscriptionEntity findById(String subscription) {
         try {
@@ -311,6 +336,7 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                 }
 
                 subscription = subscriptionRepository.update(subscription);
+                index(subscription);
                 final PlanEntity plan = planService.findById(subscription.getPlan());
                 createAudit(
                         plan.getApis().iterator().next(),
@@ -383,6 +409,7 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
             }
 
             subscription = subscriptionRepository.update(subscription);
+            index(subscription);
 
             final ApplicationEntity application = applicationService.findById(subscription.getApplication());
             final PlanEntity plan = planService.findById(subscription.getPlan());
@@ -442,51 +469,33 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
             Subscription subscription = optSubscription.get();
 
             if (subscription.getStatus() == Subscription.Status.ACCEPTED) {
-                Subscription previousSubscription = new Subscription(subscription);
-                final Date now = new Date();
-                subscription.setUpdatedAt(now);
-                subscription.setStatus(Subscription.Status.CLOSED);
+                final Date endingAt = subscription.getEndingAt();
+                try {
+                    final Date now = new Date();
+                    final ApplicationEntity application = applicationService.findById(subscription.getApplication());
+                    final PlanEntity plan = planService.findById(subscription.getPlan());
+                    final ApiModelEntity api = apiService.findByIdForTemplates(plan.getApis().iterator().next());
 
-                subscription.setClosedAt(new Date());
+                    subscription = close(subscription, now, plan, api, application);
 
-                subscription = subscriptionRepository.update(subscription);
-
-                // Send an email to subscriber
-                final ApplicationEntity application = applicationService.findById(subscription.getApplication());
-                final PlanEntity plan = planService.findById(subscription.getPlan());
-                String apiId = plan.getApis().iterator().next();
-                final ApiModelEntity api = apiService.findByIdForTemplates(apiId);
-                final PrimaryOwnerEntity owner = application.getPrimaryOwner();
-                final Map<String, Object> params = new NotificationParamsBuilder()
-                        .owner(owner)
-                        .api(api)
-                        .plan(plan)
-                        .application(application)
-                        .build();
-
-                notifierService.trigger(ApiHook.SUBSCRIPTION_CLOSED, apiId, params);
-                notifierService.trigger(ApplicationHook.SUBSCRIPTION_CLOSED, application.getId(), params);
-                createAudit(
-                        apiId,
-                        subscription.getApplication(),
-                        SUBSCRIPTION_CLOSED,
-                        subscription.getUpdatedAt(),
-                        previousSubscription,
-                        subscription);
-
-                // API Keys are automatically revoked
-                Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscription.getId());
-                for (ApiKeyEntity apiKey : apiKeys) {
-                    Date expireAt = apiKey.getExpireAt();
-                    if (!apiKey.isRevoked() && (expireAt == null || expireAt.equals(now) || expireAt.before(now))) {
-                        apiKey.setExpireAt(now);
-                        apiKey.setRevokedAt(now);
-                        apiKey.setRevoked(true);
-                        apiKeyService.revoke(apiKey.getKey(), false);
+                    // API Keys are automatically revoked
+                    Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscription.getId());
+                    for (ApiKeyEntity apiKey : apiKeys) {
+                        Date expireAt = apiKey.getExpireAt();
+                        if (!apiKey.isRevoked() && (expireAt == null || expireAt.equals(now) || expireAt.before(now))) {
+                            apiKey.setExpireAt(now);
+                            apiKey.setRevokedAt(now);
+                            apiKey.setRevoked(true);
+                            apiKeyService.revoke(apiKey.getKey(), false);
+                        }
                     }
-                }
 
-                return convert(subscription);
+                    return convert(subscription);
+                } catch (TechnicalException | RuntimeException ex) {
+                    // Back in the index to be closed again once ended, its status is checked again when polled
+                    expirationIndex.put(subscriptionId, endingAt);
+                    throw ex;
+                }
             }
 
             throw new SubscriptionNotClosableException(subscription);
@@ -497,6 +506,148 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         }
     }
 
+    @Override
+    public int closeByPlan(String planId, IntConsumer progress) {
+        try {
+            logger.debug("Close subscriptions of plan {}", planId);
+
+            final List<Subscription> subscriptions = subscriptionRepository.search(
+                    new SubscriptionCriteria.Builder()
+                            .plans(Collections.singleton(planId))
+                            .statuses(Collections.singleton(Subscription.Status.ACCEPTED))
+                            .build());
+            if (subscriptions.isEmpty()) {
+                return 0;
+            }
+
+            // Shared by all the subscriptions
+            final PlanEntity plan = planService.findById(planId);
+            final ApiModelEntity api = apiService.findByIdForTemplates(plan.getApis().iterator().next());
+            final Map<String, ApplicationEntity> applications = new HashMap<>();
+
+            int closed = 0;
+            for (Subscription subscription : subscriptions) {
+                final Date now = new Date();
+                final ApplicationEntity application =
+                        applications.computeIfAbsent(subscription.getApplication(), applicationService::findById);
+                close(subscription, now, plan, api, application);
+
+                // API Keys are automatically revoked
+                apiKeyService.revokeBySubscription(subscription.getId(), plan, now);
+
+                closed++;
+                if (progress != null) {
+                    progress.accept(closed);
+                }
+            }
+            return closed;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to close subscriptions of plan {}", planId, ex);
+            throw new TechnicalManagementException(String.format(
+                    "An error occurs while trying to close subscriptions of plan %s", planId), ex);
+        }
+    }
+
+    private Subscription close(Subscription subscription, Date now, PlanEntity plan, ApiModelEntity api,
+                               ApplicationEntity application) throws TechnicalException {
+        Subscription previousSubscription = new Subscription(subscription);
+        subscription.setUpdatedAt(now);
+        subscription.setStatus(Subscription.Status.CLOSED);
+        subscription.setClosedAt(now);
+
+        subscription = subscriptionRepository.update(subscription);
+        index(subscription);
+
+        // Send an email to subscriber
+        final String apiId = plan.getApis().iterator().next();
+        final PrimaryOwnerEntity owner = application.getPrimaryOwner();
+        final Map<String, Object> params = new NotificationParamsBuilder()
+                .owner(owner)
+                .api(api)
+                .plan(plan)
+                .application(application)
+                .build();
+
+        notifierService.trigger(ApiHook.SUBSCRIPTION_CLOSED, apiId, params);
+        notifierService.trigger(ApplicationHook.SUBSCRIPTION_CLOSED, application.getId(), params);
+        createAudit(
+                apiId,
+                subscription.getApplication(),
+                SUBSCRIPTION_CLOSED,
+                subscription.getUpdatedAt(),
+                previousSubscription,
+                subscription);
+
+        return subscription;
+    }
+
+    @Override
+    public Collection<SubscriptionEntity> findEndedBefore(Date date) {
+        try {
+            // The index is loaded again from time to time to drop the outdated entries, and the subscriptions updated
+            // by the other nodes since the previous check are indexed in between
+            final long checkedAt = System.currentTimeMillis();
+            if (!expirationIndex.isLoaded(expirationIndexTtl)) {
+                logger.debug("Load the ending dates of the accepted subscriptions");
+                final Map<String, Date> endingAts = new HashMap<>();
+                final Map<String, Long> acceptedByPlan = new HashMap<>();
+                subscriptionRepository.search(
+                        new SubscriptionCriteria.Builder()
+                                .statuses(Collections.singleton(Subscription.Status.ACCEPTED))
+                                .build())
+                        .forEach(subscription -> {
+                            acceptedByPlan.merge(subscription.getPlan(), 1L, Long::sum);
+                            if (subscription.getEndingAt() != null) {
+                                endingAts.put(subscription.getId(), subscription.getEndingAt());
+                            }
+                        });
+                expirationIndex.load(endingAts);
+                acceptedSubscriptionsByPlan.set(acceptedByPlan);
+            } else {
+                subscriptionRepository.search(
+                        new SubscriptionCriteria.Builder()
+                                .statuses(Collections.singleton(Subscription.Status.ACCEPTED))
+                                .from(expirationIndexCheckedAt - INDEX_CHECK_MARGIN)
+                                .build())
+                        .forEach(this::index);
+            }
+            expirationIndexCheckedAt = checkedAt;
+
+            final List<SubscriptionEntity> subscriptions = new ArrayList<>();
+            for (String subscriptionId : expirationIndex.pollEndedBefore(date.getTime())) {
+                // The subscription may have been changed by another node since the index has been loaded
+                final Optional<Subscription> optSubscription = subscriptionRepository.findById(subscriptionId);
+                if (optSubscription.isPresent()) {
+                    final Subscription subscription = optSubscription.get();
+                    if (subscription.getStatus() == Subscription.Status.ACCEPTED
+                            && subscription.getEndingAt() != null && subscription.getEndingAt().before(date)) {
+                        subscriptions.add(convert(subscription));
+                    } else {
+                        index(subscription);
+                    }
+                }
+            }
+            return subscriptions;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to find subscriptions ended before {}", date, ex);
+            throw new TechnicalManagementException(String.format(
+                    "An error occurs while trying to find subscriptions ended before %s", date), ex);
+        }
+    }
+
+    @Override
+    public Map<String, Long> pollAcceptedSubscriptionsByPlan() {
+        return acceptedSubscriptionsByPlan.getAndSet(Collections.emptyMap());
+    }
+
+    private void index(Subscription subscription) {
+        if (subscription.getStatus() == Subscription.Status.ACCEPTED) {
+            expirationIndex.put(subscription.getId(), subscription.getEndingAt());
+        } else {
+            expirationIndex.remove(subscription.getId());
+        }
+    }
+
     @Override
     public void delete(String subscriptionId) {
         try {
@@ -514,6 +665,7 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
 
             // Delete subscription
             subscriptionRepository.delete(subscriptionId);
+            expirationIndex.remove(subscriptionId);
             createAudit(
                     planService.findById(subscription.getPlan()).getApis().iterator().next(),
                     subscription.getApplication(),
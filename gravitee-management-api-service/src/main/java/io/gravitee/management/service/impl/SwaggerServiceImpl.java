@@ -16,6 +16,9 @@
 package io.gravitee.management.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.management.model.api.NewApiEntity;
@@ -33,6 +36,7 @@ import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -42,6 +46,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
@@ -52,7 +57,7 @@ import java.util.stream.Collectors;
  * @author GraviteeSource Team
  */
 @Component
-public class SwaggerServiceImpl implements SwaggerService {
+public class SwaggerServiceImpl implements SwaggerService, InitializingBean {
 
     /**
      * Logger.
@@ -62,6 +67,33 @@ public class SwaggerServiceImpl implements SwaggerService {
     @Value("${swagger.scheme:https}")
     private String defaultScheme;
 
+    @Value("${swagger.cache.weight:10485760}")
+    private long cacheWeight = 10485760;
+
+    /**
+     * Transformed descriptors, by content digest, tryItURL and output format.
+     */
+    private Cache<String, String> transformedContents;
+
+    /**
+     * Specification versions detected while transforming, by content digest.
+     */
+    private final Cache<String, SpecVersion> detectedVersions = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .build();
+
+    private enum SpecVersion {
+        V1, V2, V3
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transformedContents = CacheBuilder.newBuilder()
+                .maximumWeight(cacheWeight)
+                .weigher((String key, String content) -> content.length())
+                .build();
+    }
+
     @Override
     public NewApiEntity prepare(ImportSwaggerDescriptorEntity swaggerDescriptor) {
         NewApiEntity apiEntity;
@@ -139,34 +171,64 @@ public class SwaggerServiceImpl implements SwaggerService {
                 && page.getConfiguration().get("tryItURL") != null
                 && !page.getConfiguration().get("tryItURL").isEmpty()) {
 
-            Object swagger = transformV2(page.getContent(), page.getConfiguration());
+            final boolean json = page.getContentType().equalsIgnoreCase(MediaType.APPLICATION_JSON);
+            final String digest = Hashing.sha256().hashString(page.getContent(), StandardCharsets.UTF_8).toString();
+            final String key = digest + ':' + page.getConfiguration().get("tryItURL") + ':' + (json ? "json" : "yaml");
 
-            if (swagger == null) {
-                swagger = transformV1(page.getContent(), page.getConfiguration());
+            final String transformedContent = transformedContents.getIfPresent(key);
+            if (transformedContent != null) {
+                page.setContent(transformedContent);
+                return;
             }
 
-            if (swagger == null) {
-                swagger = transformV3(page.getContent(), page.getConfiguration());
-            }
+            Object swagger = transform(page.getContent(), page.getConfiguration(), digest);
 
             if (swagger == null) {
                 throw new SwaggerDescriptorException();
             }
 
-            if (page.getContentType().equalsIgnoreCase(MediaType.APPLICATION_JSON)) {
-                try {
-                    page.setContent(Json.pretty().writeValueAsString(swagger));
-                } catch (JsonProcessingException e) {
-                    logger.error("Unexpected error", e);
-                }
-            } else {
-                try {
-                    page.setContent(Yaml.pretty().writeValueAsString(swagger));
-                } catch (JsonProcessingException e) {
-                    logger.error("Unexpected error", e);
+            try {
+                final String content = json ?
+                        Json.pretty().writeValueAsString(swagger) : Yaml.pretty().writeValueAsString(swagger);
+                transformedContents.put(key, content);
+                page.setContent(content);
+            } catch (JsonProcessingException e) {
+                logger.error("Unexpected error", e);
+            }
+        }
+    }
+
+    private Object transform(String content, Map<String, String> config, String digest) {
+        // Parse with the version already detected for this content first
+        final SpecVersion detectedVersion = detectedVersions.getIfPresent(digest);
+        if (detectedVersion != null) {
+            final Object swagger = transform(content, config, detectedVersion);
+            if (swagger != null) {
+                return swagger;
+            }
+        }
+
+        for (SpecVersion version : new SpecVersion[]{SpecVersion.V2, SpecVersion.V1, SpecVersion.V3}) {
+            if (version != detectedVersion) {
+                final Object swagger = transform(content, config, version);
+                if (swagger != null) {
+                    detectedVersions.put(digest, version);
+                    return swagger;
                 }
             }
         }
+        return null;
+    }
+
+    private Object transform(String content, Map<String, String> config, SpecVersion version) {
+        switch (version) {
+            case V1:
+                return transformV1(content, config);
+            case V2:
+                return transformV2(content, config);
+            default:
+                return transformV3(content, config);
+        }
     }
 
     private File createTmpSwagger1File(String content) {
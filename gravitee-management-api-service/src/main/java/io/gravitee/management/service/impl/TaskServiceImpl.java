@@ -16,7 +16,6 @@
 package io.gravitee.management.service.impl;
 
 import io.gravitee.management.model.*;
-import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.pagedresult.Metadata;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 import io.gravitee.management.service.*;
@@ -26,6 +25,7 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
 import io.gravitee.repository.management.model.Api;
 import io.gravitee.repository.management.model.Membership;
 import io.gravitee.repository.management.model.MembershipReferenceType;
@@ -71,6 +71,9 @@ public class TaskServiceImpl extends AbstractService implements TaskService {
     @Autowired
     PlanService planService;
 
+    @Autowired
+    ReferenceMetadataResolver referenceMetadataResolver;
+
     @Override
     public List<TaskEntity> findAll(String userId) {
         if (userId == null) {
@@ -117,11 +120,14 @@ public class TaskServiceImpl extends AbstractService implements TaskService {
             }
 
             // 5. add apiId that comes from group
-            apiIds.addAll(apiRepository
-                    .search(new ApiCriteria.Builder().groups(groupIds.toArray(new String[0])).build())
-                    .stream()
-                    .map(Api::getId)
-                    .collect(Collectors.toSet()));
+            if (!groupIds.isEmpty()) {
+                apiIds.addAll(apiRepository
+                        .search(new ApiCriteria.Builder().groups(groupIds.toArray(new String[0])).build(),
+                                new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                        .stream()
+                        .map(Api::getId)
+                        .collect(Collectors.toSet()));
+            }
 
             // 6. search for PENDING subscriptions
             if (apiIds.isEmpty()) {
@@ -153,10 +159,11 @@ public class TaskServiceImpl extends AbstractService implements TaskService {
             if (!metadata.containsKey(subscription.getPlan())) {
                 PlanEntity planEntity = planService.findById(subscription.getPlan());
                 String apiId = planEntity.getApis().iterator().next();
-                ApiEntity api = apiService.findById(apiId);
                 metadata.put(subscription.getPlan(), "name", planEntity.getName());
                 metadata.put(subscription.getPlan(), "api", apiId);
-                metadata.put(apiId, "name", api.getName());
+                metadata.put(apiId, "name", referenceMetadataResolver
+                        .resolve(ReferenceMetadataResolver.Type.API, Collections.singleton(apiId))
+                        .get(apiId).get("name"));
             }
         });
         return metadata;
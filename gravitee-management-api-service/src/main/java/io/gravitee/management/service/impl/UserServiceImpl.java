@@ -22,6 +22,7 @@ import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.common.Pageable;
 import io.gravitee.management.model.parameters.Key;
+import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.service.*;
 import io.gravitee.management.service.builder.EmailNotificationBuilder;
 import io.gravitee.management.service.common.JWTHelper.Claims;
@@ -48,7 +49,6 @@ import org.springframework.stereotype.Component;
 
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
-import javax.xml.bind.DatatypeConverter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
@@ -99,6 +99,9 @@ public class UserServiceImpl extends AbstractService implements UserService {
     @Autowired
     private ParameterService parameterService;
 
+    @Autowired
+    private PictureService pictureService;
+
     @Value("${user.avatar:${gravitee.home}/assets/default_user_avatar.png}")
     private String defaultAvatar;
 
@@ -290,16 +293,11 @@ public class UserServiceImpl extends AbstractService implements UserService {
             if (picture.matches("^(http|https)://.*$")) {
                 return new UrlPictureEntity(picture);
             } else {
-                try {
-                    InlinePictureEntity imageEntity = new InlinePictureEntity();
-                    String[] parts = picture.split(";", 2);
-                    imageEntity.setType(parts[0].split(":")[1]);
-                    String base64Content = picture.split(",", 2)[1];
-                    imageEntity.setContent(DatatypeConverter.parseBase64Binary(base64Content));
+                InlinePictureEntity imageEntity = pictureService.getPicture(PictureService.Type.USER, id, user.getUpdatedAt(), picture, null);
+                if (imageEntity != null) {
                     return imageEntity;
-                } catch (Exception ex) {
-                    LOGGER.warn("Unable to get user picture for id[{}]", id);
                 }
+                LOGGER.warn("Unable to get user picture for id[{}]", id);
             }
         }
 
@@ -492,6 +490,9 @@ public class UserServiceImpl extends AbstractService implements UserService {
             }
 
             User updatedUser = userRepository.update(user);
+            if (updateUserEntity.getPicture() != null) {
+                pictureService.evict(PictureService.Type.USER, user.getId());
+            }
             auditService.createPortalAuditLog(
                     Collections.singletonMap(USER, user.getUsername()),
                     User.AuditEvent.USER_UPDATED,
@@ -534,10 +535,7 @@ public class UserServiceImpl extends AbstractService implements UserService {
     public void delete(String id) {
         try {
             // If the users is PO of apps or apis, throw an exception
-            long apiCount = apiService.findByUser(id, null)
-                    .stream()
-                    .filter(entity -> entity.getPrimaryOwner().getId().equals(id))
-                    .count();
+            long apiCount = apiService.countByUser(id, SystemRole.PRIMARY_OWNER.name());
             long applicationCount = applicationService.findByUser(id)
                     .stream()
                     .filter(entity -> entity.getPrimaryOwner().getId().equals(id))
@@ -553,6 +551,7 @@ public class UserServiceImpl extends AbstractService implements UserService {
 
             membershipService.removeUser(id);
             userRepository.delete(id);
+            pictureService.evict(PictureService.Type.USER, id);
 
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete user", ex);
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.notifiers;
+
+import io.gravitee.management.service.notification.Hook;
+
+/**
+ * Delivery status of a webhook notification.
+ *
+ * @author GraviteeSource Team
+ */
+public class WebhookDelivery {
+
+    public enum Status {
+        PENDING, RETRYING, DELIVERED, DEAD_LETTER
+    }
+
+    private final String id;
+    private final Hook hook;
+    private final String url;
+    private final long createdAt;
+    private volatile Status status = Status.PENDING;
+    private volatile int attempts;
+    private volatile int lastStatusCode;
+    private volatile String lastError;
+    private volatile long updatedAt;
+
+    public WebhookDelivery(String id, Hook hook, String url) {
+        this.id = id;
+        this.hook = hook;
+        this.url = url;
+        this.createdAt = System.currentTimeMillis();
+        this.updatedAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Hook getHook() {
+        return hook;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int incrementAttempts() {
+        return ++attempts;
+    }
+
+    public int getLastStatusCode() {
+        return lastStatusCode;
+    }
+
+    public void setLastStatusCode(int lastStatusCode) {
+        this.lastStatusCode = lastStatusCode;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "WebhookDelivery{" +
+                "id='" + id + '\'' +
+                ", hook=" + hook +
+                ", url='" + url + '\'' +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                ", lastStatusCode=" + lastStatusCode +
+                ", lastError='" + lastError + '\'' +
+                '}';
+    }
+}
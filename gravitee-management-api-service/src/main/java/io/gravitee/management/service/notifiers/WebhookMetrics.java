@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.notifiers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivery metrics of the webhooks of a hook.
+ *
+ * @author GraviteeSource Team
+ */
+public class WebhookMetrics {
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public void attempt(long latency) {
+        attempts.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    public void delivered() {
+        deliveries.incrementAndGet();
+    }
+
+    public void retried() {
+        retries.incrementAndGet();
+    }
+
+    public void failed() {
+        failures.incrementAndGet();
+    }
+
+    public long getAttempts() {
+        return attempts.get();
+    }
+
+    public long getDeliveries() {
+        return deliveries.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return the average latency of an attempt, in milliseconds.
+     */
+    public long getAverageLatency() {
+        final long count = attempts.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+}
@@ -18,6 +18,7 @@ package io.gravitee.management.service.notifiers;
 import io.gravitee.management.service.notification.Hook;
 import io.gravitee.repository.management.model.GenericNotificationConfig;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -26,4 +27,14 @@ import java.util.Map;
  */
 public interface WebhookNotifierService {
     void trigger(final Hook hook, GenericNotificationConfig genericNotificationConfig, final Map<String, Object> params);
+
+    /**
+     * @return the most recent webhook deliveries which failed after all their attempts.
+     */
+    Collection<WebhookDelivery> findDeadLetters();
+
+    /**
+     * @return the delivery metrics of the webhooks, per hook.
+     */
+    Map<Hook, WebhookMetrics> getMetrics();
 }
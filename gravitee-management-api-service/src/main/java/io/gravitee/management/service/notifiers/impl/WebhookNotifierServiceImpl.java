@@ -15,35 +15,53 @@
  */
 package io.gravitee.management.service.notifiers.impl;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
 import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.service.notification.Hook;
+import io.gravitee.management.service.notifiers.WebhookDelivery;
+import io.gravitee.management.service.notifiers.WebhookMetrics;
 import io.gravitee.management.service.notifiers.WebhookNotifierService;
 import io.gravitee.repository.management.model.GenericNotificationConfig;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.gravitee.management.service.notification.NotificationParamsBuilder.*;
 
 /**
+ * Webhooks are dispatched through one pooled keep-alive HTTP client per target host, the clients of the least
+ * recently used hosts being closed. The number of in-flight deliveries is bounded and extra deliveries wait in a
+ * queue. Any status other than 2xx is a failure: server errors (5xx and 429) and network errors are retried with an
+ * exponential backoff, client errors are not, and the undelivered webhooks are recorded as dead letters.
+ *
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com) 
  * @author GraviteeSource Team
  */
 @Component
-public class WebhookNotifierServiceImpl implements WebhookNotifierService {
+public class WebhookNotifierServiceImpl implements WebhookNotifierService, InitializingBean, DisposableBean {
 
     private final Logger LOGGER = LoggerFactory.getLogger(WebhookNotifierServiceImpl.class);
 
@@ -53,48 +71,209 @@ public class WebhookNotifierServiceImpl implements WebhookNotifierService {
     @Autowired
     private Vertx vertx;
 
+    @Value("${notifiers.webhook.pool.size:10}")
+    private int poolSize;
+
+    @Value("${notifiers.webhook.maxInFlight:100}")
+    private int maxInFlight;
+
+    @Value("${notifiers.webhook.queue.capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${notifiers.webhook.retry.max:3}")
+    private int maxRetries;
+
+    @Value("${notifiers.webhook.retry.delay:1000}")
+    private long retryDelay;
+
+    @Value("${notifiers.webhook.deadLetter.size:100}")
+    private int deadLetterSize;
+
+    @Value("${notifiers.webhook.clients.max:100}")
+    private int maxClients;
+
+    private LoadingCache<Origin, HttpClient> httpClients;
+
+    private final Map<Hook, WebhookMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final Deque<WebhookDelivery> deadLetters = new ConcurrentLinkedDeque<>();
+
+    private final Queue<Dispatch> pendingDispatches = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private Semaphore inFlight;
+
+    @Override
+    public void afterPropertiesSet() {
+        inFlight = new Semaphore(maxInFlight);
+        httpClients = CacheBuilder.newBuilder()
+                .maximumSize(maxClients)
+                .removalListener((RemovalListener<Origin, HttpClient>) notification -> notification.getValue().close())
+                .build(new CacheLoader<Origin, HttpClient>() {
+                    @Override
+                    public HttpClient load(Origin origin) {
+                        return vertx.createHttpClient(new HttpClientOptions()
+                                .setSsl(origin.ssl)
+                                .setTrustAll(true)
+                                .setMaxPoolSize(poolSize)
+                                .setKeepAlive(true)
+                                .setTcpKeepAlive(true)
+                                .setConnectTimeout(GLOBAL_TIMEOUT));
+                    }
+                });
+    }
+
     @Override
     public void trigger(final Hook hook, GenericNotificationConfig genericNotificationConfig, final Map<String, Object> params) {
         if (genericNotificationConfig.getConfig() == null || genericNotificationConfig.getConfig().isEmpty()) {
             LOGGER.error("Webhook Notifier configuration is empty");
             return;
         }
-        URI requestUri = URI.create(genericNotificationConfig.getConfig());
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
+        final URI requestUri = URI.create(genericNotificationConfig.getConfig());
+        final Dispatch dispatch = new Dispatch(
+                new WebhookDelivery(UUID.toString(UUID.random()), hook, requestUri.toString()),
+                requestUri,
+                Buffer.buffer(toJson(hook, params)));
+
+        if (inFlight.tryAcquire()) {
+            send(dispatch);
+        } else if (pendingCount.incrementAndGet() <= queueCapacity) {
+            pendingDispatches.offer(dispatch);
+            // A delivery may have completed in the meantime
+            dispatchPending();
+        } else {
+            pendingCount.decrementAndGet();
+            LOGGER.warn("Too many pending webhooks, dropping {}", dispatch.delivery);
+            dispatch.delivery.setLastError("Too many pending webhooks");
+            metrics(hook).failed();
+            deadLetter(dispatch.delivery);
+        }
+    }
+
+    @Override
+    public Collection<WebhookDelivery> findDeadLetters() {
+        return Collections.unmodifiableCollection(new ArrayList<>(deadLetters));
+    }
+
+    @Override
+    public Map<Hook, WebhookMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
 
-        final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
-                .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
-                .setConnectTimeout(GLOBAL_TIMEOUT);
+    @Override
+    public void destroy() {
+        if (httpClients != null) {
+            httpClients.invalidateAll();
+        }
+    }
 
-        final HttpClient httpClient = vertx.createHttpClient(options);
+    private void send(final Dispatch dispatch) {
+        final WebhookDelivery delivery = dispatch.delivery;
+        final URI requestUri = dispatch.uri;
+        final boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
+        final int port = requestUri.getPort() != -1 ? requestUri.getPort() : (ssl ? 443 : 80);
+        final HttpClient httpClient = httpClients.getUnchecked(new Origin(ssl, requestUri.getHost(), port));
 
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+        delivery.incrementAttempts();
+        final long start = System.currentTimeMillis();
+        final AtomicBoolean completed = new AtomicBoolean();
 
         HttpClientRequest request = httpClient.post(
                 port,
                 requestUri.getHost(),
                 requestUri.toString(),
-                response -> LOGGER.debug("Webhook response status code : {}", response.statusCode())
+                response -> {
+                    LOGGER.debug("Webhook response status code : {}", response.statusCode());
+                    if (completed.compareAndSet(false, true)) {
+                        final int statusCode = response.statusCode();
+                        delivery.setLastStatusCode(statusCode);
+                        if (statusCode >= 200 && statusCode < 300) {
+                            complete(dispatch, start, null, false);
+                        } else {
+                            complete(dispatch, start, "Unexpected status code " + statusCode, isRetryable(statusCode));
+                        }
+                    }
+                }
         );
         request.setTimeout(GLOBAL_TIMEOUT);
-
-        //body
-        String body = toJson(hook, params);
+        request.exceptionHandler(throwable -> {
+            if (completed.compareAndSet(false, true)) {
+                complete(dispatch, start, throwable.getMessage() == null ?
+                        throwable.getClass().getSimpleName() : throwable.getMessage(), true);
+            }
+        });
 
         //headers
         request.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
-        request.putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(body.length()));
-        request.putHeader("X-Gravitee-Event", hook.name());
-        request.putHeader("X-Gravitee-Event-Scope", hook.getScope().name());
-        request.putHeader("X-Gravitee-Request-Id", UUID.toString(UUID.random()));
+        request.putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(dispatch.body.length()));
+        request.putHeader("X-Gravitee-Event", delivery.getHook().name());
+        request.putHeader("X-Gravitee-Event-Scope", delivery.getHook().getScope().name());
+        request.putHeader("X-Gravitee-Request-Id", delivery.getId());
 
-        request.write(body);
-        request.end();
+        request.end(dispatch.body);
+    }
+
+    private void complete(final Dispatch dispatch, final long start, final String error, final boolean retryable) {
+        final WebhookDelivery delivery = dispatch.delivery;
+        final WebhookMetrics hookMetrics = metrics(delivery.getHook());
+        hookMetrics.attempt(System.currentTimeMillis() - start);
+
+        if (error == null) {
+            delivery.setLastError(null);
+            delivery.setStatus(WebhookDelivery.Status.DELIVERED);
+            hookMetrics.delivered();
+            release();
+            return;
+        }
+
+        delivery.setLastError(error);
+        if (retryable && delivery.getAttempts() <= maxRetries) {
+            // Exponential backoff: delay, 2 * delay, 4 * delay...
+            final long delay = retryDelay << (delivery.getAttempts() - 1);
+            LOGGER.debug("Webhook {} failed ({}), retrying in {} ms", delivery.getId(), error, delay);
+            delivery.setStatus(WebhookDelivery.Status.RETRYING);
+            hookMetrics.retried();
+            vertx.setTimer(Math.max(1, delay), timerId -> send(dispatch));
+        } else {
+            LOGGER.error("Unable to deliver webhook {} after {} attempts: {}", delivery, delivery.getAttempts(), error);
+            hookMetrics.failed();
+            deadLetter(delivery);
+            release();
+        }
+    }
+
+    private void release() {
+        inFlight.release();
+        dispatchPending();
+    }
+
+    private void dispatchPending() {
+        while (!pendingDispatches.isEmpty() && inFlight.tryAcquire()) {
+            final Dispatch dispatch = pendingDispatches.poll();
+            if (dispatch == null) {
+                inFlight.release();
+                return;
+            }
+            pendingCount.decrementAndGet();
+            send(dispatch);
+        }
+    }
+
+    private void deadLetter(final WebhookDelivery delivery) {
+        delivery.setStatus(WebhookDelivery.Status.DEAD_LETTER);
+        deadLetters.addFirst(delivery);
+        while (deadLetters.size() > deadLetterSize) {
+            deadLetters.pollLast();
+        }
+    }
+
+    private WebhookMetrics metrics(final Hook hook) {
+        return metrics.computeIfAbsent(hook, h -> new WebhookMetrics());
+    }
+
+    private static boolean isRetryable(final int statusCode) {
+        return statusCode >= 500 || statusCode == 429;
     }
 
     private String toJson(final Hook hook, final Map<String, Object> params) {
@@ -160,4 +339,41 @@ public class WebhookNotifierServiceImpl implements WebhookNotifierService {
 
         return content.encode();
     }
+
+    private static final class Origin {
+        private final boolean ssl;
+        private final String host;
+        private final int port;
+
+        private Origin(boolean ssl, String host, int port) {
+            this.ssl = ssl;
+            this.host = host;
+            this.port = port;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Origin origin = (Origin) o;
+            return ssl == origin.ssl && port == origin.port && Objects.equals(host, origin.host);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ssl, host, port);
+        }
+    }
+
+    private static class Dispatch {
+        private final WebhookDelivery delivery;
+        private final URI uri;
+        private final Buffer body;
+
+        private Dispatch(WebhookDelivery delivery, URI uri, Buffer body) {
+            this.delivery = delivery;
+            this.uri = uri;
+            this.body = body;
+        }
+    }
 }
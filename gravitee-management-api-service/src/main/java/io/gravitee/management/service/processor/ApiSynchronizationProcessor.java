@@ -16,15 +16,19 @@
 package io.gravitee.management.service.processor;
 
 import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
+import java.security.MessageDigest;
+import java.util.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.DeploymentRequired;
@@ -38,37 +42,82 @@ public class ApiSynchronizationProcessor {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ApiSynchronizationProcessor.class);
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    /**
+     * Name of the event property holding the fingerprint of the deployed API.
+     */
+    public static final String DEPLOYMENT_FINGERPRINT = "deployment_fingerprint";
 
-    public boolean processCheckSynchronization(ApiEntity deployedApi, ApiEntity apiToDeploy) {
-        Class<ApiEntity> cl = ApiEntity.class;
-        List<Object> requiredFieldsDeployedApi = new ArrayList<Object>();
-        List<Object> requiredFieldsApiToDeploy = new ArrayList<Object>();
-        for (Field f : cl.getDeclaredFields()) {
+    /**
+     * Fields of {@link ApiEntity} annotated with {@link DeploymentRequired}, sorted by name so that the fingerprint
+     * does not depend on the order returned by reflection.
+     */
+    private static final List<Field> DEPLOYMENT_REQUIRED_FIELDS;
+
+    private static final String PATHS_FIELD = "paths";
+
+    static {
+        final List<Field> fields = new ArrayList<>();
+        for (Field f : ApiEntity.class.getDeclaredFields()) {
             if (f.getAnnotation(DeploymentRequired.class) != null) {
-                boolean previousAccessibleState = f.isAccessible();
                 f.setAccessible(true);
-                try {
-                    requiredFieldsDeployedApi.add(f.get(deployedApi));
-                    requiredFieldsApiToDeploy.add(f.get(apiToDeploy));
-                } catch (Exception e) {
-                    LOGGER.error("Error access API required deployment fields", e);
-                } finally {
-                    f.setAccessible(previousAccessibleState);
-                }
+                fields.add(f);
             }
         }
+        fields.sort(Comparator.comparing(Field::getName));
+        DEPLOYMENT_REQUIRED_FIELDS = Collections.unmodifiableList(fields);
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public boolean processCheckSynchronization(ApiEntity deployedApi, ApiEntity apiToDeploy) {
+        final String deployedFingerprint = fingerprint(deployedApi);
+        return deployedFingerprint != null && deployedFingerprint.equals(fingerprint(apiToDeploy));
+    }
 
+    /**
+     * Compute a stable hash of the fields of the API requiring a deployment when they change. Policy descriptions are
+     * ignored: they are removed from the serialized fields, the API itself is left untouched.
+     *
+     * @return the fingerprint, or null if it can not be computed.
+     */
+    public String fingerprint(ApiEntity api) {
+        final List<Object> requiredFields = new ArrayList<>(DEPLOYMENT_REQUIRED_FIELDS.size());
         try {
-            String requiredFieldsDeployedApiDefinition = objectMapper.writeValueAsString(requiredFieldsDeployedApi);
-            String requiredFieldsApiToDeployDefinition = objectMapper.writeValueAsString(requiredFieldsApiToDeploy);
+            for (Field f : DEPLOYMENT_REQUIRED_FIELDS) {
+                requiredFields.add(f.get(api));
+            }
 
-            return requiredFieldsDeployedApiDefinition.equals(requiredFieldsApiToDeployDefinition);
+            // Serialized to a tree, the map entries being sorted
+            final TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+            objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValue(buffer, requiredFields);
+            final JsonNode tree = objectMapper.readTree(buffer.asParser());
+
+            for (int i = 0; i < DEPLOYMENT_REQUIRED_FIELDS.size(); i++) {
+                if (PATHS_FIELD.equals(DEPLOYMENT_REQUIRED_FIELDS.get(i).getName())) {
+                    removeRuleDescriptions(tree.path(i));
+                }
+            }
+
+            final byte[] definition = objectMapper.writeValueAsBytes(tree);
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(definition));
         } catch (Exception e) {
-            LOGGER.error("Unexpected error while generating API deployment required fields definition", e);
-            return false;
+            LOGGER.error("Unexpected error while generating API deployment required fields fingerprint", e);
+            return null;
         }
     }
 
+    private static void removeRuleDescriptions(JsonNode paths) {
+        for (JsonNode path : paths) {
+            // A path is serialized as its rules, or as an object holding them
+            final JsonNode rules = path.isArray() ? path : path.path("rules");
+            for (JsonNode rule : rules) {
+                if (rule.isObject()) {
+                    ((ObjectNode) rule).remove("description");
+                }
+            }
+        }
+    }
 }
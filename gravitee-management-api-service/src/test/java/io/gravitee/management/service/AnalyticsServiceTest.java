@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.analytics.HitsAnalytics;
+import io.gravitee.management.model.analytics.query.CountQuery;
+import io.gravitee.management.service.impl.AnalyticsServiceImpl;
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.analytics.api.AnalyticsRepository;
+import io.gravitee.repository.analytics.query.count.CountResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsServiceTest {
+
+    private static final long INTERVAL = 60000L;
+
+    @InjectMocks
+    private AnalyticsServiceImpl analyticsService = new AnalyticsServiceImpl();
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+
+    @Mock
+    private ReferenceMetadataResolver referenceMetadataResolver;
+
+    @Mock
+    private CountResponse countResponse;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(analyticsService, "cacheEnabled", true);
+        ReflectionTestUtils.setField(analyticsService, "cacheSize", 10L);
+        ReflectionTestUtils.setField(analyticsService, "cacheTtl", 10000L);
+        ReflectionTestUtils.setField(analyticsService, "closedCacheTtl", 3600000L);
+        analyticsService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldShareResultOfQueriesInTheSameBuckets() throws AnalyticsException {
+        when(countResponse.getCount()).thenReturn(42L);
+        when(analyticsRepository.query(any(io.gravitee.repository.analytics.query.count.CountQuery.class)))
+                .thenReturn(countResponse);
+
+        final long now = System.currentTimeMillis();
+        final long bucket = now - (now % INTERVAL);
+        final HitsAnalytics first = analyticsService.execute(countQuery(bucket - 86400000L + 1, bucket + 1));
+        final HitsAnalytics second = analyticsService.execute(countQuery(bucket - 86400000L + 11, bucket + 11));
+
+        assertEquals(42L, first.getHits());
+        assertEquals(42L, second.getHits());
+        verify(analyticsRepository, times(1)).query(any(io.gravitee.repository.analytics.query.count.CountQuery.class));
+    }
+
+    @Test
+    public void shouldCountCacheHitsAndMisses() throws AnalyticsException {
+        when(analyticsRepository.query(any(io.gravitee.repository.analytics.query.count.CountQuery.class)))
+                .thenReturn(countResponse);
+
+        analyticsService.execute(countQuery(0, 10 * INTERVAL));
+        analyticsService.execute(countQuery(0, 10 * INTERVAL));
+        analyticsService.execute(countQuery(INTERVAL, 10 * INTERVAL));
+
+        assertEquals(1L, analyticsService.getCacheHits());
+        assertEquals(2L, analyticsService.getCacheMisses());
+        verify(analyticsRepository, times(2)).query(any(io.gravitee.repository.analytics.query.count.CountQuery.class));
+    }
+
+    private CountQuery countQuery(long from, long to) {
+        final CountQuery query = new CountQuery();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setInterval(INTERVAL);
+        query.setRootField("api");
+        query.setRootIdentifier("my-api");
+        return query;
+    }
+}
@@ -38,11 +38,15 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.*;
 
 /**
@@ -126,8 +130,7 @@ public class ApiService_CreateOrUpdateWithDefinitionTest {
         MemberEntity memberEntity = new MemberEntity();
         memberEntity.setId(admin.getUsername());
         when(membershipService.addOrUpdateMember(any(), any(), any())).thenReturn(memberEntity);
-        when(identityService.search(admin.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(admin.getUsername())));
-        when(identityService.search(user.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(user.getUsername())));
+        mockIdentities(admin.getUsername(), user.getUsername());
 
         apiService.createOrUpdateWithDefinition(apiEntity, toBeImport, "import");
 
@@ -174,8 +177,7 @@ public class ApiService_CreateOrUpdateWithDefinitionTest {
         when(userService.findByUsername(admin.getUsername(), false)).thenReturn(admin);
         when(userService.findByUsername(user.getUsername(), false)).thenReturn(user);
 
-        when(identityService.search(admin.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(admin.getUsername())));
-        when(identityService.search(user.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(user.getUsername())));
+        mockIdentities(admin.getUsername(), user.getUsername());
 
         return apiEntity;
     }
@@ -352,8 +354,7 @@ public class ApiService_CreateOrUpdateWithDefinitionTest {
         MemberEntity memberEntity = new MemberEntity();
         memberEntity.setId(admin.getUsername());
         when(membershipService.addOrUpdateMember(any(), any(), any())).thenReturn(memberEntity);
-        when(identityService.search(admin.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(admin.getUsername())));
-        when(identityService.search(user.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(user.getUsername())));
+        mockIdentities(admin.getUsername(), user.getUsername());
         when(userService.findById(admin.getUsername())).thenReturn(admin);
 
         apiService.createOrUpdateWithDefinition(null, toBeImport, "admin");
@@ -399,8 +400,7 @@ public class ApiService_CreateOrUpdateWithDefinitionTest {
         MemberEntity memberEntity = new MemberEntity();
         memberEntity.setId(admin.getUsername());
         when(membershipService.addOrUpdateMember(any(), any(), any())).thenReturn(memberEntity);
-        when(identityService.search(admin.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(admin.getUsername())));
-        when(identityService.search(user.getUsername())).thenReturn(Collections.singletonList(new IdOnlySearchableUser(user.getUsername())));
+        mockIdentities(admin.getUsername(), user.getUsername());
 
         apiService.createOrUpdateWithDefinition(null, toBeImport, "admin");
 
@@ -543,6 +543,14 @@ public class ApiService_CreateOrUpdateWithDefinitionTest {
 
     }
 
+    private void mockIdentities(String... usernames) {
+        final Map<String, Collection<SearchableUser>> users = new HashMap<>();
+        for (String username : usernames) {
+            users.put(username, Collections.singletonList(new IdOnlySearchableUser(username)));
+        }
+        when(identityService.search(anyCollectionOf(String.class))).thenReturn(users);
+    }
+
     private static class IdOnlySearchableUser implements SearchableUser {
 
         private final String id;
@@ -65,6 +65,9 @@ public class ApiService_CreateTest {
     @Mock
     private MembershipRepository membershipRepository;
 
+    @Mock
+    private MembershipService membershipService;
+
     @Spy
     private ObjectMapper objectMapper = new GraviteeMapper();
 
@@ -81,6 +81,12 @@ public class ApiService_DeleteTest {
     @Mock
     private TopApiService topApiService;
 
+    @Mock
+    private PictureService pictureService;
+
+    @Mock
+    private RatingService ratingService;
+
     @Before
     public void setUp() {
         PropertyFilter apiMembershipTypeFilter = new ApiPermissionFilter();
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ser.PropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import io.gravitee.definition.jackson.datatype.GraviteeMapper;
+import io.gravitee.management.model.ApiModelEntity;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.service.exceptions.ApiNotFoundException;
@@ -41,11 +42,14 @@ import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Azize Elamrani (azize dot elamrani at gmail dot com)
@@ -74,6 +78,9 @@ public class ApiService_FindByIdTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ApiMetadataService apiMetadataService;
+
     @Before
     public void setUp() {
         PropertyFilter apiMembershipTypeFilter = new ApiPermissionFilter();
@@ -93,6 +100,39 @@ public class ApiService_FindByIdTest {
         assertNotNull(apiEntity);
     }
 
+    @Test
+    public void shouldReuseTemplateModelUntilApiOrMetadataChange() throws TechnicalException {
+        final Date updatedAt = new Date();
+        when(api.getId()).thenReturn(API_ID);
+        when(api.getUpdatedAt()).thenReturn(updatedAt);
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api));
+        Membership po = new Membership(USER_NAME, API_ID, MembershipReferenceType.API);
+        po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
+        when(membershipRepository.findByReferenceAndRole(any(), any(), any(), any()))
+                .thenReturn(Collections.singleton(po));
+        when(apiMetadataService.getVersion()).thenReturn(1L);
+
+        final ApiModelEntity apiModelEntity = apiService.findByIdForTemplates(API_ID);
+        assertNotNull(apiModelEntity);
+        assertSame(apiModelEntity, apiService.findByIdForTemplates(API_ID));
+        verify(apiMetadataService, times(1)).findAllByApi(API_ID);
+        verify(userService, times(1)).findById(USER_NAME);
+
+        when(apiMetadataService.getVersion()).thenReturn(2L);
+        assertNotSame(apiModelEntity, apiService.findByIdForTemplates(API_ID));
+
+        when(api.getUpdatedAt()).thenReturn(new Date(updatedAt.getTime() + 1));
+        apiService.findByIdForTemplates(API_ID);
+        verify(apiMetadataService, times(3)).findAllByApi(API_ID);
+    }
+
+    @Test(expected = ApiNotFoundException.class)
+    public void shouldNotFindTemplateModelBecauseNotExists() throws TechnicalException {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.empty());
+
+        apiService.findByIdForTemplates(API_ID);
+    }
+
     @Test(expected = ApiNotFoundException.class)
     public void shouldNotFindByNameBecauseNotExists() throws TechnicalException {
         when(apiRepository.findById(API_ID)).thenReturn(Optional.empty());
@@ -27,6 +27,7 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
 import io.gravitee.repository.management.model.Api;
 import io.gravitee.repository.management.model.Membership;
 import io.gravitee.repository.management.model.MembershipReferenceType;
@@ -39,6 +40,7 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 
@@ -47,7 +49,10 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -85,8 +90,8 @@ public class ApiService_FindByUserTest {
 
     @Test
     public void shouldFindByUser() throws TechnicalException {
-        when(apiRepository.search(new ApiCriteria.Builder().visibility(PUBLIC).ids(USER_NAME).build()))
-                .thenReturn(singletonList(api));
+        when(apiRepository.search(eq(new ApiCriteria.Builder().visibility(PUBLIC).ids(USER_NAME).build()),
+                any(ApiFieldExclusionFilter.class))).thenReturn(singletonList(api));
 
         Membership membership = new Membership(USER_NAME, api.getId(), MembershipReferenceType.API);
         membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), "USER"));
@@ -116,4 +121,33 @@ public class ApiService_FindByUserTest {
         assertNotNull(apiEntities);
         assertTrue(apiEntities.isEmpty());
     }
+
+    @Test
+    public void shouldFindSummariesByUserWithoutDefinition() throws TechnicalException {
+        Api summary = new Api();
+        summary.setId(API_ID);
+        summary.setName("My API");
+        summary.setViews(Collections.singleton("my-view"));
+        Api withoutPrimaryOwner = new Api();
+        withoutPrimaryOwner.setId("api-without-po");
+        when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
+                .thenReturn(Collections.emptySet());
+        when(apiRepository.search(eq(new ApiCriteria.Builder().visibility(PUBLIC).ids(USER_NAME).build()),
+                any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.asList(summary, withoutPrimaryOwner));
+        Membership po = new Membership(USER_NAME, API_ID, MembershipReferenceType.API);
+        po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
+        when(membershipRepository.findByReferencesAndRole(any(), any(), any(), any()))
+                .thenReturn(Collections.singleton(po));
+
+        final Set<ApiEntity> apiEntities = apiService.findSummaries(USER_NAME, null);
+        final Set<String> apiIds = apiService.findIdsByUser(USER_NAME);
+
+        assertEquals(1, apiEntities.size());
+        final ApiEntity apiEntity = apiEntities.iterator().next();
+        assertEquals("My API", apiEntity.getName());
+        assertEquals(Collections.singleton("my-view"), apiEntity.getViews());
+        assertNull(apiEntity.getPrimaryOwner());
+        assertEquals(Collections.singleton(API_ID), apiIds);
+        verify(userService, never()).findByIds(any());
+    }
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.definition.jackson.datatype.GraviteeMapper;
+import io.gravitee.definition.model.Path;
+import io.gravitee.definition.model.Policy;
+import io.gravitee.definition.model.Rule;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.processor.ApiSynchronizationProcessor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiSynchronizationProcessorTest {
+
+    @InjectMocks
+    private ApiSynchronizationProcessor apiSynchronizationProcessor = new ApiSynchronizationProcessor();
+
+    @Spy
+    private ObjectMapper objectMapper = new GraviteeMapper();
+
+    @Test
+    public void shouldBeSynchronizedWhenOnlyNonDeploymentFieldsChange() {
+        ApiEntity deployedApi = api("My API", "tag1", "tag2");
+        ApiEntity apiToDeploy = api("My renamed API", "tag1", "tag2");
+
+        assertNotNull(apiSynchronizationProcessor.fingerprint(deployedApi));
+        assertEquals(apiSynchronizationProcessor.fingerprint(deployedApi), apiSynchronizationProcessor.fingerprint(apiToDeploy));
+        assertTrue(apiSynchronizationProcessor.processCheckSynchronization(deployedApi, apiToDeploy));
+    }
+
+    @Test
+    public void shouldNotBeSynchronizedWhenDeploymentFieldsChange() {
+        ApiEntity deployedApi = api("My API", "tag1");
+        ApiEntity apiToDeploy = api("My API", "tag1", "tag2");
+
+        assertNotEquals(apiSynchronizationProcessor.fingerprint(deployedApi), apiSynchronizationProcessor.fingerprint(apiToDeploy));
+        assertFalse(apiSynchronizationProcessor.processCheckSynchronization(deployedApi, apiToDeploy));
+    }
+
+    @Test
+    public void shouldIgnorePolicyDescriptionsWithoutChangingThem() {
+        ApiEntity deployedApi = api("My API", "tag1");
+        deployedApi.setPaths(Collections.singletonMap("/", path("Limit the calls", 1)));
+        ApiEntity apiToDeploy = api("My API", "tag1");
+        apiToDeploy.setPaths(Collections.singletonMap("/", path("Limit the calls to one per second", 1)));
+
+        assertEquals(apiSynchronizationProcessor.fingerprint(deployedApi), apiSynchronizationProcessor.fingerprint(apiToDeploy));
+        assertEquals("Limit the calls", deployedApi.getPaths().get("/").getRules().get(0).getDescription());
+        assertEquals("Limit the calls to one per second", apiToDeploy.getPaths().get("/").getRules().get(0).getDescription());
+    }
+
+    @Test
+    public void shouldNotBeSynchronizedWhenPolicyConfigurationChanges() {
+        ApiEntity deployedApi = api("My API", "tag1");
+        deployedApi.setPaths(Collections.singletonMap("/", path("Limit the calls", 1)));
+        ApiEntity apiToDeploy = api("My API", "tag1");
+        apiToDeploy.setPaths(Collections.singletonMap("/", path("Limit the calls", 2)));
+
+        assertNotEquals(apiSynchronizationProcessor.fingerprint(deployedApi), apiSynchronizationProcessor.fingerprint(apiToDeploy));
+    }
+
+    private Path path(String description, int limit) {
+        Policy policy = new Policy();
+        policy.setName("rate-limit");
+        policy.setConfiguration("{\"rate\": {\"limit\": " + limit + ", \"periodTime\": 1, \"periodTimeUnit\": \"SECONDS\"}}");
+        Rule rule = new Rule();
+        rule.setEnabled(true);
+        rule.setDescription(description);
+        rule.setMethods(Collections.singletonList(HttpMethod.GET));
+        rule.setPolicy(policy);
+        Path path = new Path();
+        path.setPath("/");
+        path.setRules(Collections.singletonList(rule));
+        return path;
+    }
+
+    private ApiEntity api(String name, String... tags) {
+        ApiEntity api = new ApiEntity();
+        api.setName(name);
+        api.setTags(new HashSet<>(Arrays.asList(tags)));
+        return api;
+    }
+}
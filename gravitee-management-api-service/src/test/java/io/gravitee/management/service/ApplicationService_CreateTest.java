@@ -62,6 +62,9 @@ public class ApplicationService_CreateTest {
     @Mock
     private MembershipRepository membershipRepository;
 
+    @Mock
+    private MembershipService membershipService;
+
     @Mock
     private UserService userService;
 
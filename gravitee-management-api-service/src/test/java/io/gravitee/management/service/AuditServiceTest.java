@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.management.service.impl.AuditServiceImpl;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.model.Audit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.gravitee.repository.management.model.Parameter.AuditEvent.PARAMETER_CREATED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuditServiceTest {
+
+    @InjectMocks
+    private AuditServiceImpl auditService = new AuditServiceImpl();
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @Mock
+    private ReferenceMetadataResolver referenceMetadataResolver;
+
+    /**
+     * Threads which have written an audit log, in order.
+     */
+    private final List<String> writers = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Released to let the audit writer thread write.
+     */
+    private final CountDownLatch writerReleased = new CountDownLatch(1);
+
+    /**
+     * Counted down once the audit writer thread is writing.
+     */
+    private final CountDownLatch writerStarted = new CountDownLatch(1);
+
+    @Before
+    public void init() throws Exception {
+        ReflectionTestUtils.setField(auditService, "mapper", new ObjectMapper());
+        ReflectionTestUtils.setField(auditService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(auditService, "batchSize", 5);
+        ReflectionTestUtils.setField(auditService, "shutdownTimeout", 10000L);
+
+        when(auditRepository.create(any(Audit.class))).thenAnswer(invocation -> {
+            final String thread = Thread.currentThread().getName();
+            if ("audit-writer".equals(thread)) {
+                writerStarted.countDown();
+                writerReleased.await();
+            }
+            writers.add(thread);
+            return invocation.getArguments()[0];
+        });
+    }
+
+    @After
+    public void tearDown() {
+        writerReleased.countDown();
+        auditService.destroy();
+    }
+
+    @Test
+    public void shouldWriteQueuedAuditLogs() throws Exception {
+        auditService.afterPropertiesSet();
+        writerReleased.countDown();
+
+        createAuditLog();
+        createAuditLog();
+        createAuditLog();
+        auditService.destroy();
+
+        assertEquals(Collections.nCopies(3, "audit-writer"), writers);
+        assertEquals(0, auditService.getOverflowedAudits());
+    }
+
+    @Test
+    public void shouldWriteOnCallerThreadWhenQueueIsFull() throws Exception {
+        ReflectionTestUtils.setField(auditService, "queueCapacity", 1);
+        auditService.afterPropertiesSet();
+
+        createAuditLog();
+        assertTrue(writerStarted.await(1, TimeUnit.SECONDS));
+        // queued, then overflowed
+        createAuditLog();
+        createAuditLog();
+
+        assertEquals(1, auditService.getOverflowedAudits());
+        assertEquals(1, auditService.getQueueSize());
+        assertEquals(Collections.singletonList(Thread.currentThread().getName()), writers);
+
+        writerReleased.countDown();
+        verify(auditRepository, timeout(1000).times(3)).create(any(Audit.class));
+    }
+
+    @Test
+    public void shouldFlushPendingAuditLogsOnShutdown() throws Exception {
+        ReflectionTestUtils.setField(auditService, "shutdownTimeout", 100L);
+        auditService.afterPropertiesSet();
+
+        createAuditLog();
+        assertTrue(writerStarted.await(1, TimeUnit.SECONDS));
+        createAuditLog();
+        createAuditLog();
+
+        auditService.destroy();
+
+        // the pending audit logs are written by the stopping thread
+        assertEquals(Collections.nCopies(2, Thread.currentThread().getName()), writers);
+        assertEquals(0, auditService.getQueueSize());
+
+        // and the audit log being written by the writer is not interrupted
+        writerReleased.countDown();
+        ((Thread) ReflectionTestUtils.getField(auditService, "writer")).join(1000);
+        assertEquals(3, writers.size());
+        assertEquals("audit-writer", writers.get(2));
+    }
+
+    @Test
+    public void shouldWriteOnCallerThreadWhenWriterIsNotStarted() throws Exception {
+        createAuditLog();
+
+        verify(auditRepository).create(any(Audit.class));
+        assertEquals(Collections.singletonList(Thread.currentThread().getName()), writers);
+    }
+
+    private void createAuditLog() {
+        auditService.createPortalAuditLog(Collections.emptyMap(), PARAMETER_CREATED, null, null, null);
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.service.impl.ContextPathIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ContextPathIndexTest {
+
+    private ContextPathIndex contextPathIndex;
+
+    @Before
+    public void init() {
+        contextPathIndex = new ContextPathIndex();
+        contextPathIndex.load(Collections.singletonMap("api1", "/products/sect/"));
+    }
+
+    @Test
+    public void shouldConflictWithSamePath() {
+        assertTrue(contextPathIndex.conflicts("/products/sect/", null));
+    }
+
+    @Test
+    public void shouldConflictWithParentPath() {
+        assertTrue(contextPathIndex.conflicts("/products/", null));
+    }
+
+    @Test
+    public void shouldConflictWithChildPath() {
+        assertTrue(contextPathIndex.conflicts("/products/sect/search/", null));
+    }
+
+    @Test
+    public void shouldNotConflictWithSiblingPath() {
+        assertFalse(contextPathIndex.conflicts("/products/ecom/", null));
+        assertFalse(contextPathIndex.conflicts("/products/sect2/", null));
+    }
+
+    @Test
+    public void shouldNotConflictWithItself() {
+        assertFalse(contextPathIndex.conflicts("/products/sect/", "api1"));
+        assertFalse(contextPathIndex.conflicts("/products/", "api1"));
+    }
+
+    @Test
+    public void shouldConflictWithOtherApiOnSamePath() {
+        contextPathIndex.put("api2", "/products/sect/");
+
+        assertTrue(contextPathIndex.conflicts("/products/sect/", "api1"));
+        assertTrue(contextPathIndex.conflicts("/products/sect/search/", "api1"));
+    }
+
+    @Test
+    public void shouldNotConflictOnceRemoved() {
+        contextPathIndex.remove("api1");
+
+        assertFalse(contextPathIndex.conflicts("/products/sect/", null));
+        assertFalse(contextPathIndex.conflicts("/products/", null));
+    }
+
+    @Test
+    public void shouldReindexUpdatedApi() {
+        contextPathIndex.put("api1", "/orders/");
+
+        assertFalse(contextPathIndex.conflicts("/products/sect/", null));
+        assertTrue(contextPathIndex.conflicts("/orders/", null));
+    }
+}
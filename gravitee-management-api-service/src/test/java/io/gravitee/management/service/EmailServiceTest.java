@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import io.gravitee.management.service.impl.EmailServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EmailServiceTest {
+
+    @InjectMocks
+    private EmailServiceImpl emailService = new EmailServiceImpl();
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Rule
+    public TemporaryFolder templates = new TemporaryFolder();
+
+    @Before
+    public void init() throws Exception {
+        Files.write(templates.newFile("logo.png").toPath(), new byte[] {1, 2, 3});
+
+        final StringTemplateLoader templateLoader = new StringTemplateLoader();
+        templateLoader.putTemplate("welcome.html",
+                "<html><body><img src=\"logo.png\"/><p>Welcome ${name}</p><img alt=\"no source\"/></body></html>");
+        final Configuration configuration = new Configuration(Configuration.VERSION_2_3_28);
+        configuration.setTemplateLoader(templateLoader);
+
+        ReflectionTestUtils.setField(emailService, "freemarkerConfiguration", configuration);
+        ReflectionTestUtils.setField(emailService, "templatesPath", templates.getRoot().getAbsolutePath());
+        ReflectionTestUtils.setField(emailService, "subject", "[Gravitee.io] %s");
+        ReflectionTestUtils.setField(emailService, "enabled", true);
+        ReflectionTestUtils.setField(emailService, "defaultFrom", "noreply@gravitee.io");
+        ReflectionTestUtils.setField(emailService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(emailService, "batchSize", 5);
+        ReflectionTestUtils.setField(emailService, "shutdownTimeout", 10000L);
+
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+    }
+
+    @After
+    public void tearDown() {
+        emailService.destroy();
+    }
+
+    @Test
+    public void shouldInlineImages() throws Exception {
+        emailService.sendEmailNotification(notification());
+
+        final ArgumentCaptor<MimeMessage> message = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(message.capture());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.getValue().writeTo(out);
+        final String raw = out.toString("UTF-8");
+        assertTrue(raw.contains("src=\"cid:logo.png\""));
+        assertTrue(raw.contains("Welcome John"));
+        assertTrue(raw.contains("Content-ID: <logo.png>"));
+        assertEquals(1, emailService.getSentEmails());
+    }
+
+    @Test
+    public void shouldSendQueuedEmailsInBatch() throws Exception {
+        emailService.afterPropertiesSet();
+
+        emailService.sendAsyncEmailNotification(notification());
+        emailService.sendAsyncEmailNotification(notification());
+        // the pending emails are sent before shutdown
+        emailService.destroy();
+
+        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(mailSender, atLeastOnce()).send(Matchers.<MimeMessage>anyVararg());
+        assertEquals(2, emailService.getSentEmails());
+        assertEquals(0, emailService.getQueueSize());
+    }
+
+    @Test
+    public void shouldSendPendingEmailsOnShutdown() throws Exception {
+        ReflectionTestUtils.setField(emailService, "shutdownTimeout", 100L);
+        final List<String> senders = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch senderStarted = new CountDownLatch(1);
+        final CountDownLatch senderReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            final String thread = Thread.currentThread().getName();
+            if ("email-sender".equals(thread)) {
+                senderStarted.countDown();
+                senderReleased.await();
+            }
+            senders.add(thread);
+            return null;
+        }).when(mailSender).send(Matchers.<MimeMessage>anyVararg());
+        emailService.afterPropertiesSet();
+
+        emailService.sendAsyncEmailNotification(notification());
+        assertTrue(senderStarted.await(1, TimeUnit.SECONDS));
+        emailService.sendAsyncEmailNotification(notification());
+        emailService.sendAsyncEmailNotification(notification());
+
+        emailService.destroy();
+
+        // the pending emails are sent in a batch by the stopping thread
+        assertEquals(Collections.singletonList(Thread.currentThread().getName()), senders);
+        assertEquals(0, emailService.getQueueSize());
+
+        // and the batch being sent by the worker is not interrupted
+        senderReleased.countDown();
+        ((Thread) ReflectionTestUtils.getField(emailService, "sender")).join(1000);
+        assertEquals(Arrays.asList(Thread.currentThread().getName(), "email-sender"), senders);
+        assertEquals(3, emailService.getSentEmails());
+    }
+
+    @Test
+    public void shouldSendSynchronouslyWhenSenderIsNotStarted() {
+        emailService.sendAsyncEmailNotification(notification());
+
+        verify(mailSender).send(any(MimeMessage.class));
+        assertEquals(1, emailService.getSentEmails());
+    }
+
+    private static EmailNotification notification() {
+        final EmailNotification emailNotification = new EmailNotification();
+        emailNotification.setTo("john@gravitee.io");
+        emailNotification.setSubject("Welcome");
+        emailNotification.setTemplate("welcome.html");
+        emailNotification.setParams(Collections.singletonMap("name", "John"));
+        return emailNotification;
+    }
+}
@@ -17,13 +17,16 @@ package io.gravitee.management.service;
 
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.management.model.EventEntity;
+import io.gravitee.management.model.EventQuery;
 import io.gravitee.management.model.NewEventEntity;
+import io.gravitee.management.model.UserEntity;
 import io.gravitee.management.service.exceptions.EventNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.EventServiceImpl;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.EventRepository;
 import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
 import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.Event;
 import io.gravitee.repository.management.model.EventType;
@@ -37,8 +40,9 @@ import java.util.*;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -292,4 +296,51 @@ public class EventServiceTest {
         assertTrue("event1".equals(eventPageEntity.getContent().get(0).getId()));
     }
 
+    @Test
+    public void shouldFindEventUsersAtOnce() {
+        when(event.getId()).thenReturn("event1");
+        when(event.getType()).thenReturn(EventType.START_API);
+        when(event.getProperties()).thenReturn(EVENT_PROPERTIES);
+
+        when(event2.getId()).thenReturn("event2");
+        when(event2.getType()).thenReturn(EventType.STOP_API);
+        when(event2.getProperties()).thenReturn(EVENT_PROPERTIES);
+
+        when(eventPage.getTotalElements()).thenReturn(2L);
+        when(eventPage.getContent()).thenReturn(Arrays.asList(event, event2));
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class))).thenReturn(eventPage);
+
+        UserEntity user = new UserEntity();
+        user.setId(EVENT_USERNAME);
+        when(userService.findByIds(Collections.singletonList(EVENT_USERNAME))).thenReturn(Collections.singleton(user));
+
+        Page<EventEntity> eventPageEntity = eventService.search(null, null, 1420070400000L, 1422748800000L, 0, 10);
+
+        assertEquals(user, eventPageEntity.getContent().get(0).getUser());
+        assertEquals(user, eventPageEntity.getContent().get(1).getUser());
+        verify(userService, times(1)).findByIds(anyList());
+        verify(userService, never()).findById(anyString());
+    }
+
+    @Test
+    public void shouldSearchPageByPage() {
+        when(event.getId()).thenReturn("event1");
+        when(event.getType()).thenReturn(EventType.GATEWAY_STARTED);
+        when(event2.getId()).thenReturn("event2");
+        when(event2.getType()).thenReturn(EventType.GATEWAY_STARTED);
+        Event event3 = mock(Event.class);
+        when(event3.getId()).thenReturn("event3");
+        when(event3.getType()).thenReturn(EventType.GATEWAY_STOPPED);
+
+        when(eventRepository.search(any(EventCriteria.class), eq(new PageableBuilder().pageNumber(0).pageSize(2).build())))
+                .thenReturn(new Page<>(Arrays.asList(event, event2), 0, 2, 3));
+        when(eventRepository.search(any(EventCriteria.class), eq(new PageableBuilder().pageNumber(1).pageSize(2).build())))
+                .thenReturn(new Page<>(Collections.singletonList(event3), 1, 1, 3));
+
+        final List<String> eventIds = new ArrayList<>();
+        eventService.search(new EventQuery(), 2, eventEntity -> eventIds.add(eventEntity.getId()));
+
+        assertEquals(Arrays.asList("event1", "event2", "event3"), eventIds);
+        verify(eventRepository, times(2)).search(any(EventCriteria.class), any(Pageable.class));
+    }
 }
@@ -21,7 +21,6 @@ import io.gravitee.management.model.Visibility;
 import io.gravitee.management.service.impl.GroupServiceImpl;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.GroupRepository;
-import io.gravitee.repository.management.model.Group;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import org.junit.Test;
@@ -152,27 +151,18 @@ public class GroupService_IsUserAuthorizedToAccessTest {
                 "user",
                 RoleScope.API)).
                 thenReturn(null);
-        when(membershipService.getMember(
-                MembershipReferenceType.GROUP,
-                "grp2",
-                "user",
-                RoleScope.API)).
-                thenReturn(new MemberEntity());
+        when(membershipService.getUserGroupIds("user", RoleScope.API)).thenReturn(Collections.singleton("grp2"));
 
         boolean userAuthorizedToAccess = groupService.isUserAuthorizedToAccessApiData(api, Collections.singletonList("grp1"), "user");
 
         assertTrue(userAuthorizedToAccess);
-        verify(membershipService, times(2)).getMember(any(), any(), any(), any());
+        verify(membershipService, times(1)).getMember(any(), any(), any(), any());
         verify(membershipService, times(1)).
                 getMember(MembershipReferenceType.API,
                         api.getId(),
                         "user",
                         RoleScope.API);
-        verify(membershipService, times(1)).
-                getMember(MembershipReferenceType.GROUP,
-                        "grp2",
-                        "user",
-                        RoleScope.API);
+        verify(membershipService, times(1)).getUserGroupIds("user", RoleScope.API);
         verify(api, atLeast(2)).getGroups();
         verify(groupRepository, never()).findAll();
     }
@@ -188,27 +178,18 @@ public class GroupService_IsUserAuthorizedToAccessTest {
                 "user",
                 RoleScope.API)).
                 thenReturn(null);
-        when(membershipService.getMember(
-                MembershipReferenceType.GROUP,
-                "grp2",
-                "user",
-                RoleScope.API)).
-                thenReturn(null);
+        when(membershipService.getUserGroupIds("user", RoleScope.API)).thenReturn(Collections.singleton("grp1"));
 
         boolean userAuthorizedToAccess = groupService.isUserAuthorizedToAccessApiData(api, Collections.singletonList("grp1"), "user");
 
         assertFalse(userAuthorizedToAccess);
-        verify(membershipService, times(2)).getMember(any(), any(), any(), any());
+        verify(membershipService, times(1)).getMember(any(), any(), any(), any());
         verify(membershipService, times(1)).
                 getMember(MembershipReferenceType.API,
                         api.getId(),
                         "user",
                         RoleScope.API);
-        verify(membershipService, times(1)).
-                getMember(MembershipReferenceType.GROUP,
-                        "grp2",
-                        "user",
-                        RoleScope.API);
+        verify(membershipService, times(1)).getUserGroupIds("user", RoleScope.API);
         verify(api, atLeast(2)).getGroups();
         verify(groupRepository, never()).findAll();
     }
@@ -217,11 +198,6 @@ public class GroupService_IsUserAuthorizedToAccessTest {
     public void shouldNotBeAuthorizedForPublicApiIfMemberOfUnauthorizedGroups() throws TechnicalException {
         when(api.getVisibility()).thenReturn(Visibility.PUBLIC);
         when(api.getId()).thenReturn("apiId");
-        Group grp1 = new Group();
-        Group grp2 = new Group();
-        grp1.setId("grp1");
-        grp2.setId("grp2");
-        when(groupRepository.findAll()).thenReturn(new HashSet<>(Arrays.asList(grp1, grp2)));
         when(api.getGroups()).thenReturn(new HashSet<>(Arrays.asList("grp1", "grp2")));
         when(membershipService.getMember(
                 MembershipReferenceType.API,
@@ -229,28 +205,30 @@ public class GroupService_IsUserAuthorizedToAccessTest {
                 "user",
                 RoleScope.API)).
                 thenReturn(null);
-        when(membershipService.getMember(
-                MembershipReferenceType.GROUP,
-                "grp2",
-                "user",
-                RoleScope.API)).
-                thenReturn(null);
+        when(membershipService.getUserGroupIds("user", RoleScope.API)).thenReturn(Collections.singleton("grp1"));
 
         boolean userAuthorizedToAccess = groupService.isUserAuthorizedToAccessApiData(api, Collections.singletonList("grp1"), "user");
 
         assertFalse(userAuthorizedToAccess);
-        verify(membershipService, times(2)).getMember(any(), any(), any(), any());
+        verify(membershipService, times(1)).getMember(any(), any(), any(), any());
         verify(membershipService, times(1)).
                 getMember(MembershipReferenceType.API,
                         api.getId(),
                         "user",
                         RoleScope.API);
-        verify(membershipService, times(1)).
-                getMember(MembershipReferenceType.GROUP,
-                        "grp2",
-                        "user",
-                        RoleScope.API);
+        verify(membershipService, times(1)).getUserGroupIds("user", RoleScope.API);
         verify(api, never()).getGroups();
-        verify(groupRepository, times(1)).findAll();
+        verify(groupRepository, never()).findAll();
+    }
+
+    @Test
+    public void shouldBeAuthorizedForPortalDataIfMemberOfNotExcludedGroups() throws TechnicalException {
+        when(membershipService.getUserGroupIds("user", RoleScope.API))
+                .thenReturn(new HashSet<>(Arrays.asList("grp1", "grp2")));
+
+        assertTrue(groupService.isUserAuthorizedToAccessPortalData(Collections.singletonList("grp1"), "user"));
+        assertFalse(groupService.isUserAuthorizedToAccessPortalData(Arrays.asList("grp1", "grp2"), "user"));
+        verify(membershipService, never()).getMember(any(), any(), any(), any());
+        verify(groupRepository, never()).findAll();
     }
 }
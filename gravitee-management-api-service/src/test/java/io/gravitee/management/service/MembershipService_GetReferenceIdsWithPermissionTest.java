@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.RoleEntity;
+import io.gravitee.management.model.permissions.ApiPermission;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.service.impl.MembershipServiceImpl;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MembershipService_GetReferenceIdsWithPermissionTest {
+
+    private static final String USERNAME = "johndoe";
+    private static final String GRANTED_ROLE = "GRANTED";
+    private static final String DENIED_ROLE = "DENIED";
+
+    @InjectMocks
+    private MembershipService membershipService = new MembershipServiceImpl();
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private RoleService roleService;
+
+    @Before
+    public void init() throws Exception {
+        final Map<String, char[]> grantedPermissions = Collections.singletonMap(ApiPermission.ANALYTICS.name(), new char[]{'R'});
+        final Map<String, char[]> deniedPermissions = Collections.emptyMap();
+        final RoleEntity grantedRole = mock(RoleEntity.class);
+        when(grantedRole.getPermissions()).thenReturn(grantedPermissions);
+        final RoleEntity deniedRole = mock(RoleEntity.class);
+        when(deniedRole.getPermissions()).thenReturn(deniedPermissions);
+        when(roleService.findById(RoleScope.API, GRANTED_ROLE)).thenReturn(grantedRole);
+        when(roleService.findById(RoleScope.API, DENIED_ROLE)).thenReturn(deniedRole);
+        when(roleService.hasPermission(eq(grantedPermissions), eq(ApiPermission.ANALYTICS), any(RolePermissionAction[].class))).thenReturn(true);
+        when(roleService.hasPermission(eq(deniedPermissions), eq(ApiPermission.ANALYTICS), any(RolePermissionAction[].class))).thenReturn(false);
+
+        when(membershipRepository.findByUserAndReferenceType(USERNAME, MembershipReferenceType.API)).thenReturn(new HashSet<>(Arrays.asList(
+                membership("api1", MembershipReferenceType.API, GRANTED_ROLE),
+                membership("api2", MembershipReferenceType.API, DENIED_ROLE))));
+        when(membershipRepository.findByUserAndReferenceType(USERNAME, MembershipReferenceType.GROUP)).thenReturn(
+                Collections.singleton(membership("group1", MembershipReferenceType.GROUP, GRANTED_ROLE)));
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.asList(api("api2"), api("api3")));
+    }
+
+    @Test
+    public void shouldGetApisGrantedDirectlyOrThroughGroups() throws Exception {
+        final Set<String> apiIds = membershipService.getReferenceIdsWithPermission(
+                USERNAME, RolePermission.API_ANALYTICS, RolePermissionAction.READ);
+
+        // The direct membership on api2 wins over the role given by the group
+        assertEquals(new HashSet<>(Arrays.asList("api1", "api3")), apiIds);
+    }
+
+    @Test
+    public void shouldCacheReferenceIdsUntilInvalidated() throws Exception {
+        membershipService.getReferenceIdsWithPermission(USERNAME, RolePermission.API_ANALYTICS, RolePermissionAction.READ);
+        membershipService.getReferenceIdsWithPermission(USERNAME, RolePermission.API_ANALYTICS, RolePermissionAction.READ);
+        verify(membershipRepository, times(1)).findByUserAndReferenceType(USERNAME, MembershipReferenceType.API);
+
+        membershipService.invalidateMemberPermissions(USERNAME);
+        membershipService.getReferenceIdsWithPermission(USERNAME, RolePermission.API_ANALYTICS, RolePermissionAction.READ);
+        verify(membershipRepository, times(2)).findByUserAndReferenceType(USERNAME, MembershipReferenceType.API);
+    }
+
+    private Membership membership(String referenceId, MembershipReferenceType referenceType, String roleName) {
+        final Membership membership = new Membership(USERNAME, referenceId, referenceType);
+        membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), roleName));
+        return membership;
+    }
+
+    private Api api(String id) {
+        final Api api = new Api();
+        api.setId(id);
+        return api;
+    }
+}
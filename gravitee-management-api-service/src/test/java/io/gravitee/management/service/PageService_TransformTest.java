@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import freemarker.template.Configuration;
+import io.gravitee.management.model.ApiModelEntity;
+import io.gravitee.management.model.PageEntity;
+import io.gravitee.management.model.UpdatePageEntity;
+import io.gravitee.management.service.impl.PageServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PageRepository;
+import io.gravitee.repository.management.model.Page;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PageService_TransformTest {
+
+    private static final String API_ID = "myAPI";
+    private static final String PAGE_ID = "ba01aef0-e3da-4499-81ae-f0e3daa4995a";
+
+    @InjectMocks
+    private PageServiceImpl pageService = new PageServiceImpl();
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Mock
+    private ApiService apiService;
+
+    @Mock
+    private ApiMetadataService apiMetadataService;
+
+    @Mock
+    private AuditService auditService;
+
+    private Page page;
+
+    private final Date updatedAt = new Date();
+
+    @Before
+    public void init() throws TechnicalException {
+        ReflectionTestUtils.setField(pageService, "freemarkerConfiguration", new Configuration(Configuration.VERSION_2_3_28));
+        pageService.afterPropertiesSet();
+
+        page = new Page();
+        page.setId(PAGE_ID);
+        page.setApi(API_ID);
+        page.setContent("Welcome to ${api.name}");
+        when(pageRepository.findById(PAGE_ID)).thenReturn(Optional.of(page));
+
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(api("My API", updatedAt));
+    }
+
+    @Test
+    public void shouldReuseRenderedContent() {
+        final PageEntity first = pageService.findById(PAGE_ID, true);
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(api("My renamed API", updatedAt));
+        final PageEntity second = pageService.findById(PAGE_ID, true);
+
+        assertEquals("Welcome to My API", first.getContent());
+        assertEquals("Welcome to My API", second.getContent());
+    }
+
+    @Test
+    public void shouldRenderAgainWhenContentChanged() {
+        pageService.findById(PAGE_ID, true);
+        page.setContent("Welcome to the ${api.name} documentation");
+
+        final PageEntity pageEntity = pageService.findById(PAGE_ID, true);
+
+        assertEquals("Welcome to the My API documentation", pageEntity.getContent());
+    }
+
+    @Test
+    public void shouldRenderAgainWhenPageUpdated() throws TechnicalException {
+        when(pageRepository.update(any(Page.class))).thenReturn(page);
+
+        pageService.findById(PAGE_ID, true);
+        final UpdatePageEntity updatePageEntity = new UpdatePageEntity();
+        updatePageEntity.setContent(page.getContent());
+        pageService.update(PAGE_ID, updatePageEntity);
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(api("My renamed API", updatedAt));
+        final PageEntity pageEntity = pageService.findById(PAGE_ID, true);
+
+        assertEquals("Welcome to My renamed API", pageEntity.getContent());
+    }
+
+    @Test
+    public void shouldRenderAgainWhenApiUpdated() {
+        pageService.findById(PAGE_ID, true);
+        when(apiService.findByIdForTemplates(API_ID))
+                .thenReturn(api("My updated API", new Date(updatedAt.getTime() + 1000)));
+
+        final PageEntity pageEntity = pageService.findById(PAGE_ID, true);
+
+        assertEquals("Welcome to My updated API", pageEntity.getContent());
+    }
+
+    @Test
+    public void shouldRenderAgainWhenMetadataChanged() {
+        when(apiMetadataService.getVersion()).thenReturn(1L, 2L);
+
+        pageService.findById(PAGE_ID, true);
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(api("My renamed API", updatedAt));
+        final PageEntity pageEntity = pageService.findById(PAGE_ID, true);
+
+        assertEquals("Welcome to My renamed API", pageEntity.getContent());
+    }
+
+    private ApiModelEntity api(String name, Date updatedAt) {
+        final ApiModelEntity api = new ApiModelEntity();
+        api.setName(name);
+        api.setUpdatedAt(updatedAt);
+        return api;
+    }
+}
@@ -42,9 +42,10 @@ import static java.util.Optional.of;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Azize ELAMRANI (azize at graviteesource.com)
@@ -221,4 +222,32 @@ public class ParameterServiceTest {
         when(parameterRepository.findById(PORTAL_USERCREATION_ENABLED.key())).thenReturn(empty());
         assertTrue(parameterService.findAsBoolean(PORTAL_USERCREATION_ENABLED));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindAllFromLoadedParameters() throws TechnicalException {
+        final Parameter parameter = new Parameter();
+        parameter.setKey(PORTAL_TOP_APIS.key());
+        parameter.setValue("api1;api2");
+
+        final Parameter newParameter = new Parameter();
+        newParameter.setKey(PORTAL_TOP_APIS.key());
+        newParameter.setValue("api3");
+
+        when(parameterRepository.findAll(anyList())).thenReturn(Collections.singletonList(parameter));
+        when(parameterRepository.findById(PORTAL_TOP_APIS.key())).thenReturn(of(parameter));
+        when(parameterRepository.update(newParameter)).thenReturn(newParameter);
+
+        ((ParameterServiceImpl) parameterService).afterPropertiesSet();
+
+        assertEquals(asList("api1", "api2"), parameterService.findAll(PORTAL_TOP_APIS));
+        assertTrue(parameterService.findAsBoolean(PORTAL_USERCREATION_ENABLED));
+        assertEquals(singletonMap(PORTAL_TOP_APIS.key(), asList("api1", "api2")),
+                parameterService.findAll(asList(PORTAL_TOP_APIS, PORTAL_TITLE)));
+
+        parameterService.save(PORTAL_TOP_APIS, "api3");
+
+        assertEquals(Collections.singletonList("api3"), parameterService.findAll(PORTAL_TOP_APIS));
+        verify(parameterRepository, times(1)).findAll(anyList());
+        verify(parameterRepository, times(1)).findById(anyString());
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.InlinePictureEntity;
+import io.gravitee.management.service.impl.PictureServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.UserRepository;
+import io.gravitee.repository.management.model.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import javax.xml.bind.DatatypeConverter;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PictureServiceTest {
+
+    private static final String USER_ID = "user-id";
+
+    @InjectMocks
+    private PictureServiceImpl pictureService = new PictureServiceImpl();
+
+    @Mock
+    private UserRepository userRepository;
+
+    private static final Date UPDATED_AT = new Date(1000);
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(pictureService, "cacheWeight", 1_000_000L);
+        ReflectionTestUtils.setField(pictureService, "cacheTtl", 60_000L);
+        ReflectionTestUtils.setField(pictureService, "thumbnailSizes", "32,64");
+        pictureService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldDecodePictureOnce() throws Exception {
+        final byte[] content = png(100, 50);
+        mockUser(picture(content), UPDATED_AT);
+
+        final InlinePictureEntity picture = pictureService.getPicture(PictureService.Type.USER, USER_ID, null, null);
+        final InlinePictureEntity reloaded = pictureService.getPicture(PictureService.Type.USER, USER_ID, null, null);
+        final InlinePictureEntity cached = pictureService.getPicture(PictureService.Type.USER, USER_ID,
+                PictureService.version(UPDATED_AT), null);
+
+        assertNotNull(picture.getDigest());
+        assertEquals(PictureService.version(UPDATED_AT), picture.getVersion());
+        assertEquals("image/png", picture.getType());
+        assertArrayEquals(content, picture.getContent());
+        // read again without version, but not decoded again
+        assertSame(picture, reloaded);
+        assertSame(picture, cached);
+        verify(userRepository, times(2)).findById(USER_ID);
+    }
+
+    @Test
+    public void shouldReloadPictureOfAnotherVersion() throws Exception {
+        mockUser(picture(png(100, 50)), UPDATED_AT);
+        final InlinePictureEntity picture = pictureService.getPicture(PictureService.Type.USER, USER_ID, null, null);
+
+        // updated on another node
+        final Date updatedAt = new Date(2000);
+        mockUser(picture(png(50, 100)), updatedAt);
+        final InlinePictureEntity updated = pictureService.getPicture(PictureService.Type.USER, USER_ID,
+                PictureService.version(updatedAt), null);
+
+        assertNotEquals(picture.getDigest(), updated.getDigest());
+        assertEquals(PictureService.version(updatedAt), updated.getVersion());
+        verify(userRepository, times(2)).findById(USER_ID);
+    }
+
+    @Test
+    public void shouldScaleDownPicture() throws Exception {
+        mockUser(picture(png(100, 50)), UPDATED_AT);
+
+        final InlinePictureEntity thumbnail = pictureService.getPicture(PictureService.Type.USER, USER_ID, null, 40);
+
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.getContent()));
+        assertEquals(64, image.getWidth());
+        assertEquals(32, image.getHeight());
+        assertTrue(thumbnail.getDigest().endsWith("-64"));
+        assertEquals(PictureService.version(UPDATED_AT), thumbnail.getVersion());
+    }
+
+    @Test
+    public void shouldReloadEvictedPicture() throws Exception {
+        mockUser("http://localhost/avatar.png", UPDATED_AT);
+        final String version = PictureService.version(UPDATED_AT);
+
+        assertNull(pictureService.getPicture(PictureService.Type.USER, USER_ID, version, null));
+        assertNull(pictureService.getPicture(PictureService.Type.USER, USER_ID, version, null));
+        verify(userRepository, times(1)).findById(USER_ID);
+
+        pictureService.evict(PictureService.Type.USER, USER_ID);
+        pictureService.getPicture(PictureService.Type.USER, USER_ID, version, null);
+        verify(userRepository, times(2)).findById(USER_ID);
+    }
+
+    @Test
+    public void shouldUseLoadedPicture() throws Exception {
+        final byte[] content = png(100, 50);
+
+        final InlinePictureEntity picture = pictureService.getPicture(PictureService.Type.USER, USER_ID, UPDATED_AT, picture(content), null);
+        final InlinePictureEntity cached = pictureService.getPicture(PictureService.Type.USER, USER_ID, UPDATED_AT, picture(content), null);
+
+        assertArrayEquals(content, picture.getContent());
+        assertSame(picture, cached);
+        assertNull(pictureService.getPicture(PictureService.Type.USER, USER_ID, UPDATED_AT, "http://localhost/avatar.png", null));
+        verify(userRepository, never()).findById(USER_ID);
+    }
+
+    @Test
+    public void shouldDecodeChangedPicture() throws Exception {
+        final InlinePictureEntity picture = pictureService.getPicture(PictureService.Type.USER, USER_ID, UPDATED_AT, picture(png(100, 50)), null);
+
+        final InlinePictureEntity thumbnail = pictureService.getPicture(PictureService.Type.USER, USER_ID, new Date(2000), picture(png(50, 100)), 40);
+
+        assertNotEquals(picture.getDigest() + "-64", thumbnail.getDigest());
+        assertTrue(thumbnail.getDigest().endsWith("-64"));
+        verify(userRepository, never()).findById(USER_ID);
+    }
+
+    private void mockUser(String picture, Date updatedAt) throws TechnicalException {
+        final User user = new User();
+        user.setId(USER_ID);
+        user.setPicture(picture);
+        user.setUpdatedAt(updatedAt);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    private static String picture(byte[] content) {
+        return "data:image/png;base64," + DatatypeConverter.printBase64Binary(content);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", baos);
+        return baos.toByteArray();
+    }
+}
@@ -17,6 +17,7 @@ package io.gravitee.management.service;
 
 import io.gravitee.management.model.SubscriptionEntity;
 import io.gravitee.management.model.SubscriptionStatus;
+import io.gravitee.management.model.plan.PlanClosingEntity;
 import io.gravitee.management.service.exceptions.PlanAlreadyClosedException;
 import io.gravitee.management.service.exceptions.PlanNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
@@ -29,10 +30,17 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.Assert.*;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Mockito.*;
 
@@ -108,7 +116,7 @@ public class PlanService_CloseTest {
 
         verify(plan, times(1)).setStatus(Plan.Status.CLOSED);
         verify(planRepository, times(1)).update(plan);
-        verify(subscriptionService, times(1)).close(SUBSCRIPTION_ID);
+        verify(subscriptionService, times(1)).closeByPlan(PLAN_ID, null);
         verify(subscriptionService, never()).process(any(), any());
     }
 
@@ -130,7 +138,7 @@ public class PlanService_CloseTest {
 
         verify(plan, times(1)).setStatus(Plan.Status.CLOSED);
         verify(planRepository, times(1)).update(plan);
-        verify(subscriptionService, never()).close(SUBSCRIPTION_ID);
+        verify(subscriptionService, never()).closeByPlan(any(), any());
         verify(subscriptionService, times(1)).process(any(), any());
     }
 
@@ -152,6 +160,105 @@ public class PlanService_CloseTest {
 
         verify(plan, times(1)).setStatus(Plan.Status.CLOSED);
         verify(planRepository, times(1)).update(plan);
+        verify(subscriptionService, never()).closeByPlan(any(), any());
         verify(subscriptionService, never()).process(any(), any());
     }
+
+    @Test
+    public void shouldClosePlanAndCloseSubscriptionsInBackground() throws TechnicalException {
+        ReflectionTestUtils.setField(planService, "closeInBackgroundThreshold", 0L);
+        ((PlanServiceImpl) planService).afterPropertiesSet();
+        when(plan.getStatus()).thenReturn(Plan.Status.PUBLISHED);
+        when(planRepository.findById(PLAN_ID)).thenReturn(Optional.of(plan));
+        when(planRepository.update(plan)).thenAnswer(returnsFirstArg());
+        when(subscription.getStatus()).thenReturn(SubscriptionStatus.ACCEPTED);
+        when(subscriptionService.findByPlan(PLAN_ID)).thenReturn(Collections.singleton(subscription));
+        when(plan.getApis()).thenReturn(Collections.singleton("id"));
+        when(planRepository.findByApi(any())).thenReturn(Collections.emptySet());
+
+        try {
+            planService.close(PLAN_ID, USER);
+
+            verify(subscriptionService, timeout(5000)).closeByPlan(eq(PLAN_ID), any());
+            final PlanClosingEntity closing = planService.findClosing(PLAN_ID);
+            assertNotNull(closing);
+            assertEquals(1, closing.getSubscriptions());
+        } finally {
+            ((PlanServiceImpl) planService).destroy();
+        }
+    }
+
+    @Test
+    public void shouldCloseSubscriptionsInBackgroundAsCurrentUserAndReportFailure() throws Exception {
+        ReflectionTestUtils.setField(planService, "closeInBackgroundThreshold", 0L);
+        ((PlanServiceImpl) planService).afterPropertiesSet();
+        when(plan.getStatus()).thenReturn(Plan.Status.PUBLISHED);
+        when(planRepository.findById(PLAN_ID)).thenReturn(Optional.of(plan));
+        when(planRepository.update(plan)).thenAnswer(returnsFirstArg());
+        when(subscription.getStatus()).thenReturn(SubscriptionStatus.ACCEPTED);
+        when(subscriptionService.findByPlan(PLAN_ID)).thenReturn(Collections.singleton(subscription));
+        when(plan.getApis()).thenReturn(Collections.singleton("id"));
+        when(planRepository.findByApi(any())).thenReturn(Collections.emptySet());
+
+        final AtomicReference<Authentication> closingUser = new AtomicReference<>();
+        when(subscriptionService.closeByPlan(eq(PLAN_ID), any())).thenAnswer(invocation -> {
+            closingUser.set(SecurityContextHolder.getContext().getAuthentication());
+            throw new TechnicalManagementException("Repository unavailable");
+        });
+
+        final Authentication authentication = new UsernamePasswordAuthenticationToken(USER, null);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            planService.close(PLAN_ID, USER);
+
+            PlanClosingEntity closing = planService.findClosing(PLAN_ID);
+            for (int i = 0; i < 500 && closing.getEndedAt() == null; i++) {
+                Thread.sleep(10);
+                closing = planService.findClosing(PLAN_ID);
+            }
+            assertNotNull(closing.getEndedAt());
+            assertTrue(closing.isFailed());
+            assertEquals("Repository unavailable", closing.getError());
+            assertSame(authentication, closingUser.get());
+        } finally {
+            SecurityContextHolder.clearContext();
+            ((PlanServiceImpl) planService).destroy();
+        }
+    }
+
+    @Test
+    public void shouldResumeInterruptedClosing() throws Exception {
+        ((PlanServiceImpl) planService).afterPropertiesSet();
+        when(subscriptionService.pollAcceptedSubscriptionsByPlan()).thenReturn(Collections.singletonMap(PLAN_ID, 5L));
+        when(planRepository.findById(PLAN_ID)).thenReturn(Optional.of(plan));
+        when(plan.getStatus()).thenReturn(Plan.Status.CLOSED);
+        when(plan.getClosedAt()).thenReturn(new Date(System.currentTimeMillis() - 7200000));
+
+        try {
+            planService.resumeClosings();
+
+            verify(subscriptionService, timeout(1000)).closeByPlan(eq(PLAN_ID), any());
+            assertEquals(5L, planService.findClosing(PLAN_ID).getSubscriptions());
+        } finally {
+            ((PlanServiceImpl) planService).destroy();
+        }
+    }
+
+    @Test
+    public void shouldNotResumeRecentClosing() throws Exception {
+        ((PlanServiceImpl) planService).afterPropertiesSet();
+        when(subscriptionService.pollAcceptedSubscriptionsByPlan()).thenReturn(Collections.singletonMap(PLAN_ID, 5L));
+        when(planRepository.findById(PLAN_ID)).thenReturn(Optional.of(plan));
+        when(plan.getStatus()).thenReturn(Plan.Status.CLOSED);
+        when(plan.getClosedAt()).thenReturn(new Date());
+
+        try {
+            planService.resumeClosings();
+
+            assertNull(planService.findClosing(PLAN_ID));
+            verify(subscriptionService, never()).closeByPlan(any(), any());
+        } finally {
+            ((PlanServiceImpl) planService).destroy();
+        }
+    }
 }
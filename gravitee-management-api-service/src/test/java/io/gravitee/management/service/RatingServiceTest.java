@@ -30,6 +30,7 @@ import io.gravitee.repository.management.api.search.Pageable;
 import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.Rating;
 import io.gravitee.repository.management.model.RatingAnswer;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -41,6 +42,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Date;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -67,7 +69,7 @@ public class RatingServiceTest {
     private static final String UNKNOWN_RATING_ID = "unknown-rating";
 
     @InjectMocks
-    private RatingService ratingService = new RatingServiceImpl();
+    private RatingServiceImpl ratingService = new RatingServiceImpl();
 
     @Mock
     private RatingRepository ratingRepository;
@@ -100,6 +102,8 @@ public class RatingServiceTest {
 
     @Before
     public void init() {
+        ratingService.afterPropertiesSet();
+
         final Authentication authentication = mock(Authentication.class);
         when(authentication.getPrincipal()).thenReturn(new UserDetails(USER, "", emptyList()));
         final SecurityContext securityContext = mock(SecurityContext.class);
@@ -119,6 +123,11 @@ public class RatingServiceTest {
         when(mockParameterService.findAsBoolean(Key.PORTAL_RATING_ENABLED)).thenReturn(Boolean.TRUE);
     }
 
+    @After
+    public void cleanUp() {
+        ratingService.destroy();
+    }
+
     @Test(expected = RatingAlreadyExistsException.class)
     public void shouldNotCreateBecauseAlreadyExists() throws TechnicalException {
         when(newRatingEntity.getApi()).thenReturn(API_ID);
@@ -307,4 +316,62 @@ public class RatingServiceTest {
         assertEquals(1, ratingSummary.getNumberOfRatingsByRate().get(new Byte("3")), 0);
         assertEquals(1, ratingSummary.getNumberOfRatingsByRate().get(new Byte("4")), 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindSummariesByApis() throws TechnicalException {
+        final Rating r = new Rating();
+        r.setRate(new Byte("5"));
+
+        when(ratingRepository.findByApi(API_ID)).thenReturn(asList(rating, r));
+        when(ratingRepository.findByApi("other-api")).thenReturn(emptyList());
+
+        final Map<String, RatingSummaryEntity> ratingSummaries = ratingService.findSummariesByApis(asList(API_ID, "other-api"));
+        assertEquals(2, ratingSummaries.size());
+        assertEquals(2, ratingSummaries.get(API_ID).getNumberOfRatings());
+        assertEquals(4, ratingSummaries.get(API_ID).getAverageRate(), 0);
+        assertEquals(1, ratingSummaries.get(API_ID).getNumberOfRatingsByRate().get(new Byte("5")), 0);
+        assertEquals(0, ratingSummaries.get("other-api").getNumberOfRatings());
+        assertNull(ratingSummaries.get("other-api").getAverageRate());
+    }
+
+    @Test
+    public void shouldReuseSummaryUntilEvicted() throws TechnicalException {
+        when(ratingRepository.findByApi(API_ID)).thenReturn(singletonList(rating));
+
+        ratingService.findSummariesByApis(singletonList(API_ID));
+        final RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(API_ID);
+        assertEquals(1, ratingSummary.getNumberOfRatings());
+        verify(ratingRepository, times(1)).findByApi(API_ID);
+
+        ratingService.evictSummary(API_ID);
+        ratingService.findSummaryByApi(API_ID);
+        verify(ratingRepository, times(2)).findByApi(API_ID);
+    }
+
+    @Test
+    public void shouldReloadSummaryAfterRatingChange() throws TechnicalException {
+        when(ratingRepository.findByApi(API_ID)).thenReturn(singletonList(rating), emptyList());
+        ratingService.findSummaryByApi(API_ID);
+
+        when(ratingRepository.findById(RATING_ID)).thenReturn(of(rating));
+        ratingService.delete(RATING_ID);
+
+        assertEquals(0, ratingService.findSummaryByApi(API_ID).getNumberOfRatings());
+        verify(ratingRepository, times(2)).findByApi(API_ID);
+    }
+
+    @Test
+    public void shouldDiscardSummaryLoadedDuringRatingChange() throws TechnicalException {
+        when(ratingRepository.findById(RATING_ID)).thenReturn(of(rating));
+        when(ratingRepository.findByApi(API_ID))
+                .thenAnswer(invocation -> {
+                    // The rating is deleted while its API summary is being loaded
+                    ratingService.delete(RATING_ID);
+                    return singletonList(rating);
+                })
+                .thenReturn(emptyList());
+
+        assertEquals(0, ratingService.findSummaryByApi(API_ID).getNumberOfRatings());
+        verify(ratingRepository, times(2)).findByApi(API_ID);
+    }
+}
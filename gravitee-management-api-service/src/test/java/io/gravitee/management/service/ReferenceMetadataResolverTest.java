@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.service.impl.ReferenceMetadataResolverImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReferenceMetadataResolverTest {
+
+    @InjectMocks
+    private ReferenceMetadataResolverImpl referenceMetadataResolver = new ReferenceMetadataResolverImpl();
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Before
+    public void init() {
+        referenceMetadataResolver.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldResolveApplicationsInBatch() throws TechnicalException {
+        Application application = new Application();
+        application.setId("app1");
+        application.setName("My app");
+        application.setStatus(ApplicationStatus.ACTIVE);
+        Application archived = new Application();
+        archived.setId("app2");
+        archived.setName("Old app");
+        archived.setStatus(ApplicationStatus.ARCHIVED);
+        when(applicationRepository.findByIds(anyList())).thenReturn(new HashSet<>(Arrays.asList(application, archived)));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolve(
+                ReferenceMetadataResolver.Type.APPLICATION, new HashSet<>(Arrays.asList("app1", "app2", "app3", "1")));
+
+        assertEquals(4, metadata.size());
+        assertEquals("My app", metadata.get("app1").get("name"));
+        assertNull(metadata.get("app1").get("deleted"));
+        assertEquals("Old app", metadata.get("app2").get("name"));
+        assertEquals("true", metadata.get("app2").get("deleted"));
+        assertEquals("Deleted application", metadata.get("app3").get("name"));
+        assertEquals("true", metadata.get("app3").get("deleted"));
+        assertEquals("Unknown application (keyless)", metadata.get("1").get("name"));
+        verify(applicationRepository, times(1)).findByIds(anyList());
+    }
+
+    @Test
+    public void shouldResolveApis() throws TechnicalException {
+        Api api = new Api();
+        api.setId("api1");
+        api.setName("My API");
+        api.setVersion("v1");
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(Collections.singletonList(api));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolve(
+                ReferenceMetadataResolver.Type.API, new HashSet<>(Arrays.asList("api1", "api2")));
+
+        assertEquals("My API", metadata.get("api1").get("name"));
+        assertEquals("v1", metadata.get("api1").get("version"));
+        assertEquals("Deleted API", metadata.get("api2").get("name"));
+        assertEquals("true", metadata.get("api2").get("deleted"));
+    }
+
+    @Test
+    public void shouldNotKeepMissingReferencesAsLongAsResolvedOnes() throws TechnicalException {
+        ReflectionTestUtils.setField(referenceMetadataResolver, "cacheSize", 100L);
+        ReflectionTestUtils.setField(referenceMetadataResolver, "cacheTtl", 60_000L);
+        ReflectionTestUtils.setField(referenceMetadataResolver, "missingCacheTtl", 0L);
+        referenceMetadataResolver.afterPropertiesSet();
+        Api api = new Api();
+        api.setId("api1");
+        api.setName("My API");
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(Collections.singletonList(api));
+
+        referenceMetadataResolver.resolve(ReferenceMetadataResolver.Type.API, new HashSet<>(Arrays.asList("api1", "api2")));
+        final Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolve(
+                ReferenceMetadataResolver.Type.API, new HashSet<>(Arrays.asList("api1", "api2")));
+
+        assertEquals("My API", metadata.get("api1").get("name"));
+        assertEquals("true", metadata.get("api2").get("deleted"));
+        verify(apiRepository, times(1)).search(
+                eq(new ApiCriteria.Builder().ids("api2").build()), any(ApiFieldExclusionFilter.class));
+        verify(apiRepository, never()).findById(any());
+    }
+}
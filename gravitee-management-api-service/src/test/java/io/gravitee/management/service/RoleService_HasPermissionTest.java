@@ -17,16 +17,20 @@ package io.gravitee.management.service;
 
 import io.gravitee.management.model.RoleEntity;
 import io.gravitee.management.model.permissions.ApiPermission;
+import io.gravitee.management.model.permissions.PermissionSet;
 import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.model.permissions.RoleScope;
 import io.gravitee.management.service.impl.RoleServiceImpl;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
@@ -97,4 +101,60 @@ public class RoleService_HasPermissionTest {
 
         assertFalse(hasPermission);
     }
+
+    @Test
+    public void shouldHasPermissionWithPermissionSet() {
+        final Map<String, char[]> perms = new HashMap<>();
+        perms.put(ApiPermission.DOCUMENTATION.name(),
+                new char[]{
+                        RolePermissionAction.READ.getId(),
+                        RolePermissionAction.UPDATE.getId()
+                });
+
+        boolean hasPermission = roleService.hasPermission(
+                PermissionSet.of(RoleScope.API, perms),
+                ApiPermission.DOCUMENTATION,
+                new RolePermissionAction[]{RolePermissionAction.DELETE, RolePermissionAction.UPDATE});
+
+        assertTrue(hasPermission);
+    }
+
+    @Test
+    public void shouldNotHasPermissionWithPermissionSet() {
+        final Map<String, char[]> perms = new HashMap<>();
+        perms.put(ApiPermission.PLAN.name(),
+                new char[]{
+                        RolePermissionAction.CREATE.getId(),
+                        RolePermissionAction.READ.getId(),
+                        RolePermissionAction.UPDATE.getId(),
+                        RolePermissionAction.DELETE.getId()
+                });
+        perms.put(ApiPermission.DOCUMENTATION.name(),
+                new char[]{
+                        RolePermissionAction.READ.getId()
+                });
+
+        boolean hasPermission = roleService.hasPermission(
+                PermissionSet.of(RoleScope.API, perms),
+                ApiPermission.DOCUMENTATION,
+                new RolePermissionAction[]{RolePermissionAction.UPDATE});
+
+        assertFalse(hasPermission);
+    }
+
+    @Test
+    public void shouldMergePermissionSets() {
+        final PermissionSet perms = PermissionSet.of(RoleScope.API,
+                Collections.singletonMap(ApiPermission.DOCUMENTATION.name(), new char[]{RolePermissionAction.READ.getId()}));
+        final PermissionSet perms2 = PermissionSet.of(RoleScope.API,
+                Collections.singletonMap(ApiPermission.DOCUMENTATION.name(), new char[]{RolePermissionAction.DELETE.getId()}));
+
+        final PermissionSet merged = perms.merge(perms2);
+
+        assertArrayEquals(
+                new char[]{RolePermissionAction.READ.getId(), RolePermissionAction.DELETE.getId()},
+                merged.get(ApiPermission.DOCUMENTATION.name()));
+        assertTrue(merged.has(ApiPermission.DOCUMENTATION, RolePermissionAction.DELETE));
+        assertFalse(merged.has(ApiPermission.DOCUMENTATION, RolePermissionAction.UPDATE));
+    }
 }
@@ -54,6 +54,9 @@ public class RoleService_UpdateTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private MembershipService membershipService;
+
 
     @Test
     public void shouldUpdate() throws TechnicalException {
@@ -38,6 +38,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -730,6 +731,125 @@ public class SubscriptionServiceTest {
         verify(notifierService).trigger(eq(ApplicationHook.SUBSCRIPTION_CLOSED), anyString(), anyMap());
     }
 
+    @Test
+    public void shouldFindEndedSubscriptionsFromIndex() throws Exception {
+        ReflectionTestUtils.setField(subscriptionService, "expirationIndexTtl", 60_000L);
+        final Date now = new Date();
+        final Subscription ended = new Subscription();
+        ended.setId(SUBSCRIPTION_ID);
+        ended.setStatus(Subscription.Status.ACCEPTED);
+        ended.setEndingAt(new Date(now.getTime() - 1000));
+        final Subscription extended = new Subscription();
+        extended.setId("extended-subscription");
+        extended.setStatus(Subscription.Status.ACCEPTED);
+        extended.setEndingAt(new Date(now.getTime() - 1000));
+        final Subscription notEnded = new Subscription();
+        notEnded.setId("not-ended-subscription");
+        notEnded.setStatus(Subscription.Status.ACCEPTED);
+        notEnded.setEndingAt(new Date(now.getTime() + 60_000));
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class)))
+                .thenReturn(Arrays.asList(ended, extended, notEnded), Collections.emptyList());
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(ended));
+        // Changed by another node since the index has been loaded
+        final Subscription extendedByOtherNode = new Subscription(extended);
+        extendedByOtherNode.setEndingAt(new Date(now.getTime() + 30_000));
+        when(subscriptionRepository.findById("extended-subscription")).thenReturn(Optional.of(extendedByOtherNode));
+
+        final Collection<SubscriptionEntity> subscriptions = subscriptionService.findEndedBefore(now);
+
+        assertEquals(1, subscriptions.size());
+        assertEquals(SUBSCRIPTION_ID, subscriptions.iterator().next().getId());
+        verify(subscriptionRepository, never()).findById("not-ended-subscription");
+
+        // Already returned subscriptions are not returned again, and the index is not loaded again: only the
+        // subscriptions updated since are read
+        assertEquals(0, subscriptionService.findEndedBefore(now).size());
+        final Collection<SubscriptionEntity> later = subscriptionService.findEndedBefore(new Date(now.getTime() + 45_000));
+        assertEquals(1, later.size());
+        assertEquals("extended-subscription", later.iterator().next().getId());
+        verify(subscriptionRepository, times(3)).search(any(SubscriptionCriteria.class));
+    }
+
+    @Test
+    public void shouldIndexSubscriptionsUpdatedByOtherNodes() throws Exception {
+        ReflectionTestUtils.setField(subscriptionService, "expirationIndexTtl", 60_000L);
+        final Date now = new Date();
+        final Subscription ended = new Subscription();
+        ended.setId(SUBSCRIPTION_ID);
+        ended.setStatus(Subscription.Status.ACCEPTED);
+        ended.setEndingAt(new Date(now.getTime() - 1000));
+        // Accepted by another node once the index has been loaded
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class)))
+                .thenReturn(Collections.emptyList(), Collections.singletonList(ended));
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(ended));
+
+        assertEquals(0, subscriptionService.findEndedBefore(now).size());
+        final Collection<SubscriptionEntity> subscriptions = subscriptionService.findEndedBefore(now);
+
+        assertEquals(1, subscriptions.size());
+        assertEquals(SUBSCRIPTION_ID, subscriptions.iterator().next().getId());
+    }
+
+    @Test
+    public void shouldIndexAgainSubscriptionFailingToClose() throws Exception {
+        ReflectionTestUtils.setField(subscriptionService, "expirationIndexTtl", 60_000L);
+        final Date now = new Date();
+        final Subscription ended = new Subscription();
+        ended.setId(SUBSCRIPTION_ID);
+        ended.setStatus(Subscription.Status.ACCEPTED);
+        ended.setApplication(APPLICATION_ID);
+        ended.setEndingAt(new Date(now.getTime() - 1000));
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class)))
+                .thenReturn(Collections.singletonList(ended), Collections.emptyList());
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(ended));
+        when(applicationService.findById(APPLICATION_ID)).thenThrow(new TechnicalManagementException("Repository unavailable"));
+
+        assertEquals(1, subscriptionService.findEndedBefore(now).size());
+        try {
+            subscriptionService.close(SUBSCRIPTION_ID);
+        } catch (TechnicalManagementException tme) {
+            // closed again on the next run
+        }
+        final Collection<SubscriptionEntity> subscriptions = subscriptionService.findEndedBefore(now);
+
+        assertEquals(1, subscriptions.size());
+        assertEquals(SUBSCRIPTION_ID, subscriptions.iterator().next().getId());
+    }
+
+    @Test
+    public void shouldCloseSubscriptionsOfPlan() throws Exception {
+        final Subscription subscription1 = new Subscription();
+        subscription1.setId("subscription-1");
+        subscription1.setStatus(Subscription.Status.ACCEPTED);
+        subscription1.setPlan(PLAN_ID);
+        subscription1.setApplication(APPLICATION_ID);
+        final Subscription subscription2 = new Subscription(subscription1);
+        subscription2.setId("subscription-2");
+
+        when(plan.getApis()).thenReturn(Collections.singleton(API_ID));
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class)))
+                .thenReturn(Arrays.asList(subscription1, subscription2));
+        when(subscriptionRepository.update(any(Subscription.class))).thenAnswer(returnsFirstArg());
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModelEntity);
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+        when(application.getPrimaryOwner()).thenReturn(mock(PrimaryOwnerEntity.class));
+
+        final List<Integer> progress = new ArrayList<>();
+        final int closed = subscriptionService.closeByPlan(PLAN_ID, progress::add);
+
+        assertEquals(2, closed);
+        assertEquals(Arrays.asList(1, 2), progress);
+        assertEquals(Subscription.Status.CLOSED, subscription1.getStatus());
+        assertEquals(Subscription.Status.CLOSED, subscription2.getStatus());
+        verify(planService, times(1)).findById(PLAN_ID);
+        verify(apiService, times(1)).findByIdForTemplates(API_ID);
+        verify(applicationService, times(1)).findById(APPLICATION_ID);
+        verify(apiKeyService).revokeBySubscription(eq("subscription-1"), eq(plan), any(Date.class));
+        verify(apiKeyService).revokeBySubscription(eq("subscription-2"), eq(plan), any(Date.class));
+        verify(notifierService, times(2)).trigger(eq(ApiHook.SUBSCRIPTION_CLOSED), anyString(), anyMap());
+    }
+
     @Test
     public void shouldProcessButReject() throws Exception {
         // Prepare data
@@ -35,6 +35,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -43,11 +44,12 @@ import static org.junit.Assert.assertNotNull;
 @RunWith(MockitoJUnitRunner.class)
 public class SwaggerService_TransformTest {
 
-    private SwaggerService swaggerService;
+    private SwaggerServiceImpl swaggerService;
 
     @Before
     public void setUp() {
         swaggerService = new SwaggerServiceImpl();
+        swaggerService.afterPropertiesSet();
     }
 
 
@@ -74,6 +76,19 @@ public class SwaggerService_TransformTest {
         validateV2(Json.mapper().readTree(pageEntity.getContent()));
     }
 
+    @Test
+    public void shouldTransformAPIFromSwaggerV2_json_twice() throws IOException {
+        PageEntity pageEntity = getPage("io/gravitee/management/service/swagger-v2.json", MediaType.APPLICATION_JSON);
+        PageEntity samePageEntity = getPage("io/gravitee/management/service/swagger-v2.json", MediaType.APPLICATION_JSON);
+
+        swaggerService.transform(pageEntity);
+        swaggerService.transform(samePageEntity);
+
+        // the second transformation is served from the cache
+        assertSame(pageEntity.getContent(), samePageEntity.getContent());
+        validateV2(Json.mapper().readTree(samePageEntity.getContent()));
+    }
+
     @Test
     public void shouldTransformAPIFromSwaggerV2_json() throws IOException {
         PageEntity pageEntity = getPage("io/gravitee/management/service/swagger-v2.json", MediaType.APPLICATION_JSON);
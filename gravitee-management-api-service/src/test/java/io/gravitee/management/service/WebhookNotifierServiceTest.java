@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.service.notification.ApiHook;
+import io.gravitee.management.service.notifiers.WebhookDelivery;
+import io.gravitee.management.service.notifiers.WebhookMetrics;
+import io.gravitee.management.service.notifiers.impl.WebhookNotifierServiceImpl;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebhookNotifierServiceTest {
+
+    private static final ApiHook HOOK = ApiHook.APIKEY_REVOKED;
+
+    @InjectMocks
+    private WebhookNotifierServiceImpl webhookNotifierService = new WebhookNotifierServiceImpl();
+
+    @Mock
+    private Vertx vertx;
+
+    @Mock
+    private HttpClient httpClient;
+
+    @Mock
+    private HttpClientRequest request;
+
+    private final List<Handler<HttpClientResponse>> responseHandlers = new ArrayList<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+        ReflectionTestUtils.setField(webhookNotifierService, "poolSize", 10);
+        ReflectionTestUtils.setField(webhookNotifierService, "maxInFlight", 1);
+        ReflectionTestUtils.setField(webhookNotifierService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(webhookNotifierService, "maxRetries", 1);
+        ReflectionTestUtils.setField(webhookNotifierService, "retryDelay", 1L);
+        ReflectionTestUtils.setField(webhookNotifierService, "deadLetterSize", 10);
+        ReflectionTestUtils.setField(webhookNotifierService, "maxClients", 10);
+        webhookNotifierService.afterPropertiesSet();
+
+        when(vertx.createHttpClient(any(HttpClientOptions.class))).thenReturn(httpClient);
+        when(httpClient.post(anyInt(), anyString(), anyString(), any(Handler.class))).thenAnswer(invocation -> {
+            responseHandlers.add((Handler<HttpClientResponse>) invocation.getArguments()[3]);
+            return request;
+        });
+        // retries are sent right away
+        when(vertx.setTimer(anyLong(), any(Handler.class))).thenAnswer(invocation -> {
+            ((Handler<Long>) invocation.getArguments()[1]).handle(0L);
+            return 0L;
+        });
+    }
+
+    @Test
+    public void shouldDeliver() {
+        trigger();
+        respond(0, 204);
+
+        final WebhookMetrics metrics = webhookNotifierService.getMetrics().get(HOOK);
+        assertEquals(1, metrics.getDeliveries());
+        assertEquals(0, metrics.getFailures());
+        assertTrue(webhookNotifierService.findDeadLetters().isEmpty());
+    }
+
+    @Test
+    public void shouldDeadLetterClientErrorWithoutRetry() {
+        trigger();
+        respond(0, 404);
+
+        final WebhookDelivery delivery = singleDeadLetter();
+        assertEquals(1, delivery.getAttempts());
+        assertEquals(404, delivery.getLastStatusCode());
+        assertEquals(0, webhookNotifierService.getMetrics().get(HOOK).getRetries());
+    }
+
+    @Test
+    public void shouldDeadLetterRedirection() {
+        trigger();
+        respond(0, 302);
+
+        assertEquals(302, singleDeadLetter().getLastStatusCode());
+    }
+
+    @Test
+    public void shouldRetryServerError() {
+        trigger();
+        respond(0, 503);
+        respond(1, 200);
+
+        final WebhookMetrics metrics = webhookNotifierService.getMetrics().get(HOOK);
+        assertEquals(1, metrics.getRetries());
+        assertEquals(1, metrics.getDeliveries());
+        assertTrue(webhookNotifierService.findDeadLetters().isEmpty());
+    }
+
+    @Test
+    public void shouldRetryTooManyRequests() {
+        trigger();
+        respond(0, 429);
+        respond(1, 429);
+
+        final WebhookDelivery delivery = singleDeadLetter();
+        assertEquals(2, delivery.getAttempts());
+        assertEquals(1, webhookNotifierService.getMetrics().get(HOOK).getRetries());
+    }
+
+    @Test
+    public void shouldQueueThenDropWhenQueueIsFull() {
+        trigger();
+        trigger();
+        trigger();
+
+        // one in flight, one queued, one dropped
+        assertEquals(1, responseHandlers.size());
+        assertEquals(0, singleDeadLetter().getAttempts());
+
+        respond(0, 200);
+
+        // the queued webhook is sent once the first one is delivered
+        assertEquals(2, responseHandlers.size());
+        respond(1, 200);
+        assertEquals(2, webhookNotifierService.getMetrics().get(HOOK).getDeliveries());
+    }
+
+    private void trigger() {
+        final GenericNotificationConfig config = new GenericNotificationConfig();
+        config.setConfig("http://localhost:8080/hooks");
+        webhookNotifierService.trigger(HOOK, config, Collections.emptyMap());
+    }
+
+    private void respond(int attempt, int statusCode) {
+        final HttpClientResponse response = mock(HttpClientResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        responseHandlers.get(attempt).handle(response);
+    }
+
+    private WebhookDelivery singleDeadLetter() {
+        final Collection<WebhookDelivery> deadLetters = webhookNotifierService.findDeadLetters();
+        assertEquals(1, deadLetters.size());
+        final WebhookDelivery delivery = deadLetters.iterator().next();
+        assertEquals(WebhookDelivery.Status.DEAD_LETTER, delivery.getStatus());
+        return delivery;
+    }
+}
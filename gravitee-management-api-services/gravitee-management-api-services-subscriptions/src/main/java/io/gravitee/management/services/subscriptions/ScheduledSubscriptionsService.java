@@ -17,10 +17,7 @@ package io.gravitee.management.services.subscriptions;
 
 import io.gravitee.common.service.AbstractService;
 import io.gravitee.management.model.SubscriptionEntity;
-import io.gravitee.management.model.SubscriptionStatus;
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.subscription.SubscriptionQuery;
-import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.PlanService;
 import io.gravitee.management.service.SubscriptionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,13 +28,9 @@ import org.springframework.scheduling.support.CronTrigger;
 
 import java.time.Instant;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static java.util.stream.Collectors.toSet;
-
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -61,10 +54,10 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     private final AtomicLong counter = new AtomicLong(0);
 
     @Autowired
-    private ApiService apiService;
+    private SubscriptionService subscriptionService;
 
     @Autowired
-    private SubscriptionService subscriptionService;
+    private PlanService planService;
 
     @Override
     protected String name() {
@@ -85,22 +78,31 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     @Override
     public void run() {
         logger.debug("Refresh subscriptions #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
-        final Set<String> apiIds = apiService.findAllLight().stream()
-                .map(ApiEntity::getId)
-                .collect(toSet());
-
-        final SubscriptionQuery query = new SubscriptionQuery();
-        query.setApis(apiIds);
-        query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
-        final Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
-        final Date now = new Date();
-        subscriptions
-                .forEach(subscription -> {
-                    if (subscription.getEndingAt() != null && subscription.getEndingAt().before(now)) {
-                        subscriptionService.close(subscription.getId());
-                    }
-                });
+        final long startedAt = System.currentTimeMillis();
+
+        // Only the subscriptions ended since the previous run are loaded
+        final Collection<SubscriptionEntity> subscriptions = subscriptionService.findEndedBefore(new Date());
+        int closed = 0;
+        for (SubscriptionEntity subscription : subscriptions) {
+            try {
+                subscriptionService.close(subscription.getId());
+                closed++;
+            } catch (Exception ex) {
+                logger.error("Unable to close the ended subscription {}", subscription.getId(), ex);
+            }
+        }
 
+        if (!subscriptions.isEmpty()) {
+            logger.info("Refresh subscriptions #{}: {} of {} ended subscription(s) closed in {} ms", counter.get(),
+                    closed, subscriptions.size(), System.currentTimeMillis() - startedAt);
+        }
+
+        // The subscriptions of the closed plans whose closing has been interrupted
+        try {
+            planService.resumeClosings();
+        } catch (Exception ex) {
+            logger.error("Unable to resume the closing of the subscriptions of the closed plans", ex);
+        }
         logger.debug("Refresh subscriptions #{} ended at {}", counter.get(), Instant.now().toString());
     }
 }
@@ -15,11 +15,8 @@
  */
 package io.gravitee.management.services.subscriptions;
 
-import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.SubscriptionEntity;
-import io.gravitee.management.model.SubscriptionStatus;
-import io.gravitee.management.model.subscription.SubscriptionQuery;
-import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.PlanService;
 import io.gravitee.management.service.SubscriptionService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -28,10 +25,9 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,53 +41,45 @@ public class ScheduledSubscriptionsServiceTest {
     ScheduledSubscriptionsService service = new ScheduledSubscriptionsService();
 
     @Mock
-    ApiService apiService;
+    SubscriptionService subscriptionService;
 
     @Mock
-    SubscriptionService subscriptionService;
+    PlanService planService;
 
     @Test
-    public void shouldCloseOutdatedSubscriptions() {
-        ApiEntity apiEntity = mock(ApiEntity.class);
-        when(apiEntity.getId()).thenReturn("API_ID");
-        SubscriptionEntity endDateInThePast = createSubscription(
-                "end_date_in_the_past",
-                SubscriptionStatus.ACCEPTED,
-                new Date(0));
-        SubscriptionEntity noEndDate = createSubscription(
-                "no_end_date",
-                SubscriptionStatus.ACCEPTED,
-                null);
-        SubscriptionEntity endDateInTheFuture = createSubscription(
-                "end_date_in_the_future",
-                SubscriptionStatus.ACCEPTED,
-                new Date(Long.MAX_VALUE));
-        when(apiService.findAllLight()).thenReturn(Collections.singleton(apiEntity));
+    public void shouldCloseEndedSubscriptions() {
+        SubscriptionEntity ended = createSubscription("ended");
+        SubscriptionEntity alreadyClosed = createSubscription("already_closed");
+        SubscriptionEntity endedToo = createSubscription("ended_too");
+        when(subscriptionService.findEndedBefore(any(Date.class)))
+                .thenReturn(Arrays.asList(ended, alreadyClosed, endedToo));
+        when(subscriptionService.close("already_closed")).thenThrow(new IllegalStateException());
+
+        service.run();
 
-        SubscriptionQuery query = new SubscriptionQuery();
-        query.setApi(apiEntity.getId());
-        query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
+        verify(subscriptionService, times(1)).findEndedBefore(any(Date.class));
+        verify(subscriptionService, never()).search(any());
+        verify(subscriptionService, times(1)).close("ended");
+        verify(subscriptionService, times(1)).close("already_closed");
+        verify(subscriptionService, times(1)).close("ended_too");
+        verify(planService, times(1)).resumeClosings();
+    }
 
-        when(subscriptionService.search(query)).
-                thenReturn(new HashSet<>(Arrays.asList(
-                        endDateInThePast,
-                        noEndDate,
-                        endDateInTheFuture)));
+    @Test
+    public void shouldCloseEndedSubscriptionsWhenResumingClosingsFails() {
+        SubscriptionEntity ended = createSubscription("ended");
+        when(subscriptionService.findEndedBefore(any(Date.class))).thenReturn(Arrays.asList(ended));
+        doThrow(new IllegalStateException()).when(planService).resumeClosings();
 
         service.run();
 
-        verify(apiService, times(1)).findAllLight();
-        verify(subscriptionService, times(1)).search(query);
-        verify(subscriptionService, times(1)).close("end_date_in_the_past");
-        verify(subscriptionService, never()).close("no_end_date");
-        verify(subscriptionService, never()).close("end_date_in_the_future");
+        verify(subscriptionService, times(1)).close("ended");
+        verify(planService, times(1)).resumeClosings();
     }
 
-    private SubscriptionEntity createSubscription(String id, SubscriptionStatus status, Date endingDate) {
+    private SubscriptionEntity createSubscription(String id) {
         SubscriptionEntity subscriptionEntity = mock(SubscriptionEntity.class);
         when(subscriptionEntity.getId()).thenReturn(id);
-        when(subscriptionEntity.getStatus()).thenReturn(status);
-        when(subscriptionEntity.getEndingAt()).thenReturn(endingDate);
         return subscriptionEntity;
     }
 }
@@ -24,8 +24,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -38,27 +38,43 @@ public class ApiManager {
     @Autowired
     private EventManager eventManager;
 
-    private final Map<String, ApiEntity> apis = new HashMap<>();
+    private final Map<String, ApiEntity> apis = new ConcurrentHashMap<>();
+
+    /**
+     * Identifier of the event from which each deployed API has been read.
+     */
+    private final Map<String, String> apiEvents = new ConcurrentHashMap<>();
 
     public void deploy(ApiEntity api) {
+        deploy(api, null);
+    }
+
+    public void deploy(ApiEntity api, String eventId) {
         logger.info("Deployment of {}", api);
 
-            apis.put(api.getId(), api);
+        apis.put(api.getId(), api);
+        registerEvent(api.getId(), eventId);
 
-            if (api.getState() == Lifecycle.State.STARTED) {
-                eventManager.publishEvent(ApiEvent.DEPLOY, api);
-            } else {
-                logger.debug("{} is not enabled. Skip deployment.", api);
-            }
+        if (api.getState() == Lifecycle.State.STARTED) {
+            eventManager.publishEvent(ApiEvent.DEPLOY, api);
+        } else {
+            logger.debug("{} is not enabled. Skip deployment.", api);
+        }
     }
 
     public void update(ApiEntity api) {
+        update(api, null);
+    }
+
+    public void update(ApiEntity api, String eventId) {
         apis.put(api.getId(), api);
-            eventManager.publishEvent(ApiEvent.UPDATE, api);
+        registerEvent(api.getId(), eventId);
+        eventManager.publishEvent(ApiEvent.UPDATE, api);
     }
 
     public void undeploy(String apiId) {
         ApiEntity currentApi = apis.remove(apiId);
+        apiEvents.remove(apiId);
         if (currentApi != null) {
             logger.info("Undeployment of {}", currentApi);
 
@@ -67,6 +83,18 @@ public class ApiManager {
         }
     }
 
+    public String getEventId(String apiId) {
+        return apiEvents.get(apiId);
+    }
+
+    private void registerEvent(String apiId, String eventId) {
+        if (eventId == null) {
+            apiEvents.remove(apiId);
+        } else {
+            apiEvents.put(apiId, eventId);
+        }
+    }
+
     public Collection<ApiEntity> apis() {
         return apis.values();
     }
@@ -30,18 +30,27 @@ import io.gravitee.repository.management.model.LifecycleState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BinaryOperator;
 
 import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -62,11 +71,30 @@ public class SyncManager {
     private ApiManager apiManager;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    @Qualifier("syncExecutor")
+    private Executor syncExecutor;
+
+    @Value("${services.sync.initial.bulk.enabled:true}")
+    private boolean bulkInitialSync;
+
+    @Value("${services.sync.initial.bulk.pageSize:500}")
+    private int bulkPageSize;
+
+    @Value("${services.sync.initial.bulk.parallelism:1}")
+    private int bulkParallelism;
+
+    @Value("${services.sync.initial.bulk.maxPages:20}")
+    private int bulkMaxPages;
 
     private final AtomicLong counter = new AtomicLong(0);
 
     private long lastRefreshAt = -1;
 
+    private long initialSyncDuration = -1;
+
+    private final AtomicInteger initialSyncQueries = new AtomicInteger(0);
+
     public void refresh() {
         logger.debug("Synchronization #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
         logger.debug("Refreshing state...");
@@ -77,23 +105,34 @@ public class SyncManager {
 
         // Initial synchronization
         if (lastRefreshAt == -1) {
+            long startedAt = System.currentTimeMillis();
+
             // Extract all registered APIs
             List<io.gravitee.repository.management.model.Api> apis =
                     apiRepository.search(null, new ApiFieldExclusionFilter.Builder()
                             .excludeDefinition()
                             .excludePicture().build());
 
-            // Get last event by API
-            apiEvents = apis
-                    .stream()
-                    .map(api -> getLastApiEvent(api.getId()))
-                    .filter(Objects::nonNull)
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
-                                    event -> event
-                            )
-                    );
+            if (bulkInitialSync) {
+                // Get last event by API by paging over all API events
+                apiEvents = getLastApiEvents(apis.stream().map(Api::getId).collect(toSet()));
+            } else {
+                // Get last event by API
+                apiEvents = apis
+                        .stream()
+                        .map(api -> getLastApiEvent(api.getId()))
+                        .filter(Objects::nonNull)
+                        .collect(
+                                toMap(
+                                        event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
+                                        event -> event
+                                )
+                        );
+            }
+
+            initialSyncDuration = System.currentTimeMillis() - startedAt;
+            logger.info("Initial synchronization of {} APIs done in {} ms ({} mode, {} event queries)",
+                    apis.size(), initialSyncDuration, bulkInitialSync ? "bulk" : "per-API", initialSyncQueries.get());
         } else {
             // Get latest API events
             List<Event> events = getLatestApiEvents(nextLastRefreshAt);
@@ -116,6 +155,8 @@ public class SyncManager {
     }
 
     private void computeEvents(Map<String, Event> apiEvents) {
+        final Map<String, CompletableFuture<ApiEntity>> decodedApis = new HashMap<>();
+
         apiEvents.forEach((apiId, apiEvent) -> {
             switch (apiEvent.getType()) {
                 case UNPUBLISH_API:
@@ -124,33 +165,50 @@ public class SyncManager {
                     break;
                 case START_API:
                 case PUBLISH_API:
-                    try {
-                        // Read API definition from event
-                        io.gravitee.repository.management.model.Api payloadApi =
-                                objectMapper.readValue(apiEvent.getPayload(), io.gravitee.repository.management.model.Api.class);
-
-                        // API to deploy
-                        ApiEntity apiToDeploy = convert(payloadApi);
-
-                        if (apiToDeploy != null) {
-                            // Get deployed API
-                            ApiEntity deployedApi = apiManager.get(apiToDeploy.getId());
-
-                            // API is not yet deployed, so let's do it !
-                            if (deployedApi == null) {
-                                apiManager.deploy(apiToDeploy);
-                            } else {
-                                if (deployedApi.getDeployedAt().before(apiToDeploy.getDeployedAt())) {
-                                    apiManager.update(apiToDeploy);
-                                }
-                            }
-                        }
-                    } catch (IOException ioe) {
-                        logger.error("Error while determining deployed APIs store into events payload", ioe);
+                    // The deployed API has already been read from this event, no need to decode it again
+                    if (apiEvent.getId() != null && apiEvent.getId().equals(apiManager.getEventId(apiId))) {
+                        break;
                     }
+
+                    // Payloads are decoded on the sync workers while the remaining events are processed
+                    decodedApis.put(apiId, CompletableFuture.supplyAsync(() -> decode(apiEvent), syncExecutor));
                     break;
             }
         });
+
+        // Deployments are applied on the scheduler thread once the payloads are decoded
+        decodedApis.forEach((apiId, decodedApi) -> {
+            ApiEntity apiToDeploy = decodedApi.join();
+            String eventId = apiEvents.get(apiId).getId();
+
+            if (apiToDeploy != null) {
+                // Get deployed API
+                ApiEntity deployedApi = apiManager.get(apiToDeploy.getId());
+
+                // API is not yet deployed, so let's do it !
+                if (deployedApi == null) {
+                    apiManager.deploy(apiToDeploy, eventId);
+                } else {
+                    if (deployedApi.getDeployedAt().before(apiToDeploy.getDeployedAt())) {
+                        apiManager.update(apiToDeploy, eventId);
+                    }
+                }
+            }
+        });
+    }
+
+    private ApiEntity decode(Event apiEvent) {
+        try {
+            // Read API definition from event
+            io.gravitee.repository.management.model.Api payloadApi =
+                    objectMapper.readValue(apiEvent.getPayload(), io.gravitee.repository.management.model.Api.class);
+
+            // API to deploy
+            return convert(payloadApi);
+        } catch (IOException ioe) {
+            logger.error("Error while determining deployed APIs store into events payload", ioe);
+            return null;
+        }
     }
 
     private List<Event> getLatestApiEvents(long nextLastRefreshAt) {
@@ -162,11 +220,85 @@ public class SyncManager {
         return eventRepository.search(builder.build());
     }
 
+    /**
+     * Load the latest event of each given API by paging over all API events, most recent first.
+     * Pages are fetched by batches of {@code bulkParallelism} on the sync workers and the lookup stops as soon as
+     * every API has been resolved, the last page has been reached or {@code bulkMaxPages} pages have been read.
+     * In the latter case, the APIs still unresolved (never deployed or not deployed for a long time) are looked up
+     * one by one instead of scanning the whole event history.
+     */
+    private Map<String, Event> getLastApiEvents(final Set<String> apis) {
+        final Map<String, Event> apiEvents = new HashMap<>(apis.size());
+        if (apis.isEmpty()) {
+            return apiEvents;
+        }
+
+        final EventCriteria criteria = new EventCriteria.Builder()
+                .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API)
+                .build();
+        final int pageSize = Math.max(1, bulkPageSize);
+        final int parallelism = Math.max(1, bulkParallelism);
+        final int maxPages = Math.max(1, bulkMaxPages);
+
+        int pageNumber = 0;
+        boolean lastPage = false;
+
+        while (!lastPage && apiEvents.size() < apis.size() && pageNumber < maxPages) {
+            final List<CompletableFuture<List<Event>>> pages = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism && pageNumber < maxPages; i++) {
+                final int page = pageNumber++;
+                if (parallelism == 1) {
+                    pages.add(CompletableFuture.completedFuture(searchEvents(criteria, page, pageSize)));
+                } else {
+                    pages.add(CompletableFuture.supplyAsync(() -> searchEvents(criteria, page, pageSize), syncExecutor));
+                }
+            }
+
+            for (CompletableFuture<List<Event>> page : pages) {
+                final List<Event> events = page.join();
+                if (events.size() < pageSize) {
+                    lastPage = true;
+                }
+
+                events.stream()
+                        .filter(event -> event.getProperties() != null)
+                        .filter(event -> apis.contains(event.getProperties().get(Event.EventProperties.API_ID.getValue())))
+                        .forEach(event -> apiEvents.merge(
+                                event.getProperties().get(Event.EventProperties.API_ID.getValue()),
+                                event,
+                                BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
+            }
+        }
+
+        if (!lastPage && apiEvents.size() < apis.size()) {
+            final Set<String> unresolvedApis = apis.stream()
+                    .filter(api -> !apiEvents.containsKey(api))
+                    .collect(toSet());
+            logger.debug("{} APIs not found in the {} latest event pages, looking them up one by one",
+                    unresolvedApis.size(), pageNumber);
+            unresolvedApis.forEach(api -> {
+                final Event event = getLastApiEvent(api);
+                if (event != null) {
+                    apiEvents.put(api, event);
+                }
+            });
+        }
+
+        return apiEvents;
+    }
+
+    private List<Event> searchEvents(final EventCriteria criteria, final int pageNumber, final int pageSize) {
+        initialSyncQueries.incrementAndGet();
+        return eventRepository.search(criteria,
+                new PageableBuilder().pageNumber(pageNumber).pageSize(pageSize).build()).getContent();
+    }
+
     private Event getLastApiEvent(final String api) {
         final EventCriteria.Builder eventCriteriaBuilder =
                 new EventCriteria.Builder()
                         .property(Event.EventProperties.API_ID.getValue(), api);
 
+        initialSyncQueries.incrementAndGet();
         List<Event> events = eventRepository.search(eventCriteriaBuilder
                         .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API).build(),
                 new PageableBuilder().pageNumber(0).pageSize(1).build()).getContent();
@@ -174,6 +306,20 @@ public class SyncManager {
         return (!events.isEmpty()) ? events.get(0) : null;
     }
 
+    /**
+     * @return the duration of the initial synchronization in milliseconds, or -1 if it has not been done yet.
+     */
+    public long getInitialSyncDuration() {
+        return initialSyncDuration;
+    }
+
+    /**
+     * @return the number of event queries sent to the repository during the initial synchronization.
+     */
+    public int getInitialSyncQueries() {
+        return initialSyncQueries.get();
+    }
+
     private ApiEntity convert(Api api) {
         ApiEntity apiEntity = new ApiEntity();
 
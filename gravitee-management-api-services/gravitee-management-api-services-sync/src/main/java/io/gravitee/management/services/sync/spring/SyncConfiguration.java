@@ -17,9 +17,11 @@ package io.gravitee.management.services.sync.spring;
 
 import io.gravitee.management.services.sync.ApiManager;
 import io.gravitee.management.services.sync.SyncManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
@@ -38,10 +40,21 @@ public class SyncConfiguration {
     public ApiManager apiManager() {
         return new ApiManager();
     }
+
     @Bean
     public TaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
         scheduler.setThreadNamePrefix("sync-");
         return scheduler;
     }
+
+    @Bean
+    public ThreadPoolTaskExecutor syncExecutor(@Value("${services.sync.workers:0}") int workers) {
+        int poolSize = (workers > 0) ? workers : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("sync-worker-");
+        return executor;
+    }
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.EventRepository;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SyncManagerTest {
+
+    private static final int PAGE_SIZE = 2;
+    private static final int MAX_PAGES = 3;
+
+    @InjectMocks
+    private SyncManager syncManager = new SyncManager();
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ApiManager apiManager;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private Executor syncExecutor;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(syncManager, "bulkInitialSync", true);
+        ReflectionTestUtils.setField(syncManager, "bulkPageSize", PAGE_SIZE);
+        ReflectionTestUtils.setField(syncManager, "bulkParallelism", 1);
+        ReflectionTestUtils.setField(syncManager, "bulkMaxPages", MAX_PAGES);
+    }
+
+    @Test
+    public void shouldLookUpNeverDeployedApiOneByOneAfterPageBudget() {
+        when(apiRepository.search(any(), any())).thenReturn(Arrays.asList(api("deployed"), api("never-deployed")));
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class))).thenAnswer(invocation -> {
+            final Pageable pageable = (Pageable) invocation.getArguments()[1];
+            if (pageable.pageSize() == PAGE_SIZE) {
+                // The event history is full of events of the deployed API
+                final List<Event> events = Arrays.asList(event("deployed"), event("deployed"));
+                return new Page<>(events, pageable.pageNumber(), PAGE_SIZE, 1000);
+            }
+            return new Page<>(Collections.<Event>emptyList(), 0, 0, 0);
+        });
+
+        syncManager.refresh();
+
+        // The page budget, then a single lookup for the never deployed API
+        verify(eventRepository, times(MAX_PAGES + 1)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager, times(1)).undeploy("deployed");
+        verify(apiManager, never()).undeploy("never-deployed");
+    }
+
+    @Test
+    public void shouldStopAtLastPageWithoutPerApiLookup() {
+        when(apiRepository.search(any(), any())).thenReturn(Arrays.asList(api("deployed"), api("never-deployed")));
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class)))
+                .thenReturn(new Page<>(Collections.singletonList(event("deployed")), 0, 1, 1));
+
+        syncManager.refresh();
+
+        verify(eventRepository, times(1)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager, times(1)).undeploy("deployed");
+    }
+
+    private static Api api(String id) {
+        final Api api = new Api();
+        api.setId(id);
+        return api;
+    }
+
+    private static Event event(String api) {
+        final Event event = new Event();
+        event.setType(EventType.STOP_API);
+        event.setCreatedAt(new Date());
+        event.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(), api));
+        return event;
+    }
+}